@@ -0,0 +1,64 @@
+package top.zenyoung.benchmarks;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import top.zenyoung.segment.JdbcSegmentChainId;
+import top.zenyoung.segment.concurrent.PrefetchWorkerExecutorService;
+import top.zenyoung.segment.distributor.JdbcIdSegmentDistributor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static top.zenyoung.segment.IdSegment.TIME_TO_LIVE_FOREVER;
+
+/**
+ * JdbcSegmentChainId基准测试(嵌入式H2)
+ *
+ * @author young
+ */
+@State(Scope.Benchmark)
+public class JdbcSegmentChainIdBenchmark {
+    private static final String BIZ_TYPE = "benchmark";
+    private static final String DDL_SQL = "create table if not exists tbl_segment_id(biz_type varchar(64) primary key, " +
+            "max_id bigint default 0, step bigint default 1, delta int default 1, version bigint default 0)";
+    private static final String INIT_SQL = "merge into tbl_segment_id(biz_type, max_id, step, delta) key(biz_type) values ('" + BIZ_TYPE + "', 0, 1, 1)";
+
+    @Param({"100", "1000"})
+    private long step;
+
+    @Param({"2", "10"})
+    private int safeDistance;
+
+    private PrefetchWorkerExecutorService executorService;
+    private JdbcSegmentChainId chainId;
+
+    @Setup
+    public void setup() throws SQLException {
+        final JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:segment;DB_CLOSE_DELAY=-1");
+        try (final Connection connection = dataSource.getConnection();
+             final Statement statement = connection.createStatement()) {
+            statement.execute(DDL_SQL);
+            statement.execute(INIT_SQL);
+        }
+        executorService = new PrefetchWorkerExecutorService(PrefetchWorkerExecutorService.DEFAULT_PREFETCH_PERIOD, 1, false);
+        final JdbcIdSegmentDistributor distributor = new JdbcIdSegmentDistributor(BIZ_TYPE, step, dataSource);
+        chainId = new JdbcSegmentChainId(TIME_TO_LIVE_FOREVER, safeDistance, distributor, executorService);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executorService.shutdown();
+    }
+
+    @Benchmark
+    public long nextId() {
+        return chainId.nextId();
+    }
+}
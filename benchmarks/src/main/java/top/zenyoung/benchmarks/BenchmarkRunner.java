@@ -0,0 +1,52 @@
+package top.zenyoung.benchmarks;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基准测试入口
+ * <p>
+ * 按线程数依次运行匹配的基准测试,输出吞吐量、p99延迟(SampleTime)以及GC分配率.
+ * 用法: java -Dbenchmark.threads=1,4,16 -jar benchmarks.jar [include-regex]
+ * </p>
+ *
+ * @author young
+ */
+@Slf4j
+public class BenchmarkRunner {
+    private static final String DEFAULT_THREADS = "1,4,16";
+
+    public static void main(final String[] args) throws RunnerException {
+        final String include = args.length > 0 ? args[0] : ".*Benchmark.*";
+        final int[] threads = Arrays.stream(System.getProperty("benchmark.threads", DEFAULT_THREADS).split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        for (final int t : threads) {
+            log.info("main - include: [{}] - threads: [{}].", include, t);
+            final Options options = new OptionsBuilder()
+                    .include(include)
+                    .mode(Mode.Throughput)
+                    .mode(Mode.SampleTime)
+                    .timeUnit(TimeUnit.MICROSECONDS)
+                    .warmupIterations(3)
+                    .warmupTime(TimeValue.seconds(2))
+                    .measurementIterations(5)
+                    .measurementTime(TimeValue.seconds(2))
+                    .forks(1)
+                    .threads(t)
+                    .addProfiler(GCProfiler.class)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
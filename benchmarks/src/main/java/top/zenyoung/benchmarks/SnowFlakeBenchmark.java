@@ -0,0 +1,41 @@
+package top.zenyoung.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import top.zenyoung.common.sequence.LockFreeSnowFlake;
+import top.zenyoung.common.sequence.Sequence;
+import top.zenyoung.common.sequence.SnowFlake;
+import top.zenyoung.common.sequence.WorkerIdAssigner;
+
+/**
+ * 雪花数基准测试
+ *
+ * @author young
+ */
+@State(Scope.Benchmark)
+public class SnowFlakeBenchmark {
+    /**
+     * 实现类型: synchronized / lock-free(通道数)
+     */
+    @Param({"synchronized", "lock-free-1", "lock-free-8"})
+    private String impl;
+
+    private Sequence sequence;
+
+    @Setup
+    public void setup() {
+        sequence = switch (impl) {
+            case "lock-free-1" -> LockFreeSnowFlake.getInstance(1, 1);
+            case "lock-free-8" -> LockFreeSnowFlake.getInstance(WorkerIdAssigner.of(1, 1), 8, LockFreeSnowFlake.DEFAULT_MAX_DRIFT_MILLIS);
+            default -> SnowFlake.getInstance(1, 1);
+        };
+    }
+
+    @Benchmark
+    public long nextId() {
+        return sequence.nextId();
+    }
+}
@@ -0,0 +1,58 @@
+package top.zenyoung.benchmarks;
+
+import io.r2dbc.spi.ConnectionFactories;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.r2dbc.core.DatabaseClient;
+import top.zenyoung.segment.R2dbcSegmentChainId;
+import top.zenyoung.segment.concurrent.PrefetchWorkerExecutorService;
+import top.zenyoung.segment.distributor.R2dbcIdSegmentDistributor;
+
+import static top.zenyoung.segment.IdSegment.TIME_TO_LIVE_FOREVER;
+
+/**
+ * R2dbcSegmentChainId基准测试(嵌入式H2)
+ *
+ * @author young
+ */
+@State(Scope.Benchmark)
+public class R2dbcSegmentChainIdBenchmark {
+    private static final String BIZ_TYPE = "benchmark";
+    private static final String DDL_SQL = "create table if not exists tbl_segment_id(biz_type varchar(64) primary key, " +
+            "max_id bigint default 0, step bigint default 1, delta int default 1, version bigint default 0)";
+    private static final String INIT_SQL = "merge into tbl_segment_id(biz_type, max_id, step, delta) key(biz_type) values ('" + BIZ_TYPE + "', 0, 1, 1)";
+
+    @Param({"100", "1000"})
+    private long step;
+
+    @Param({"2", "10"})
+    private int safeDistance;
+
+    private PrefetchWorkerExecutorService executorService;
+    private R2dbcSegmentChainId chainId;
+
+    @Setup
+    public void setup() {
+        final DatabaseClient client = DatabaseClient.create(ConnectionFactories.get("r2dbc:h2:mem:///segment?options=DB_CLOSE_DELAY=-1"));
+        client.sql(DDL_SQL).then()
+                .then(client.sql(INIT_SQL).then())
+                .block();
+        executorService = new PrefetchWorkerExecutorService(PrefetchWorkerExecutorService.DEFAULT_PREFETCH_PERIOD, 1, false);
+        final R2dbcIdSegmentDistributor distributor = new R2dbcIdSegmentDistributor(BIZ_TYPE, step, client);
+        chainId = new R2dbcSegmentChainId(TIME_TO_LIVE_FOREVER, safeDistance, distributor, executorService);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executorService.shutdown();
+    }
+
+    @Benchmark
+    public Long nextId() {
+        return chainId.nextId().block();
+    }
+}
@@ -0,0 +1,41 @@
+package top.zenyoung.boot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.io.Serializable;
+import java.time.Duration;
+
+/**
+ * 请求限流配置
+ *
+ * @author young
+ */
+@Data
+@ConfigurationProperties("top.zenyoung.rate-limiter")
+public class RateLimiterProperties implements Serializable {
+    /**
+     * 是否启用本地令牌桶(按批从分布式限流器租借令牌)
+     */
+    private boolean localEnabled = true;
+    /**
+     * 每次租借令牌占限流次数的比例
+     */
+    private double leaseRatio = 0.05;
+    /**
+     * 每次租借令牌的上限
+     */
+    private int maxLease = 100;
+    /**
+     * 租借令牌的有效期(超过限流时间时以限流时间为准)
+     */
+    private Duration leaseTimeout = Duration.ofSeconds(1);
+    /**
+     * 本地缓存的限流键数量上限
+     */
+    private long maxKeys = 10_000;
+    /**
+     * 本地缓存的限流键空闲过期时间
+     */
+    private Duration keyIdleTimeout = Duration.ofMinutes(10);
+}
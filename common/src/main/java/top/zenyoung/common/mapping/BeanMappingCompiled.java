@@ -0,0 +1,507 @@
+package top.zenyoung.common.mapping;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import lombok.extern.slf4j.Slf4j;
+import top.zenyoung.common.paging.PageList;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Serializable;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bean转换-预编译实现
+ * <p>
+ * 每个(源类型,目标类型)首次转换时解析属性并通过LambdaMetafactory生成getter/setter/构造器调用,
+ * 连同属性值转换规则一起缓存;之后的转换只是按属性数组逐个读取/转换/写入,不再反射.
+ * 无法直接处理的类型(嵌套属性扁平化,无访问方法的公有字段,Boolean/Enum/Map等转换)交由fallback处理.
+ * </p>
+ *
+ * @author young
+ */
+@Slf4j
+public class BeanMappingCompiled implements BeanMapping {
+    private static final String GETTER_PREFIX = "get";
+    private static final String BOOLEAN_GETTER_PREFIX = "is";
+    private static final String SETTER_PREFIX = "set";
+    private static final Function<Object, Object> IDENTITY = Function.identity();
+
+    private final BiFunction<Object, Class<?>, Object> fallback;
+    private final ClassValue<Map<Class<?>, Function<Object, Object>>> mappers = new ClassValue<>() {
+        @Override
+        protected Map<Class<?>, Function<Object, Object>> computeValue(@Nonnull final Class<?> type) {
+            return Maps.newConcurrentMap();
+        }
+    };
+
+    /**
+     * 构造函数
+     *
+     * @param fallback 无法预编译时的转换处理(源数据,目标类型)
+     */
+    public BeanMappingCompiled(@Nonnull final BiFunction<Object, Class<?>, Object> fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T, R> R mapping(@Nullable final T data, @Nonnull final Class<R> cls) {
+        if (Objects.isNull(data)) {
+            return null;
+        }
+        return (R) mapValue(data, cls);
+    }
+
+    @Override
+    public <T, R> Collection<R> mapping(@Nullable final Collection<T> items, @Nonnull final Class<R> cls) {
+        if (Objects.isNull(items) || items.isEmpty()) {
+            return Lists.newArrayList();
+        }
+        final List<R> rows = Lists.newArrayListWithCapacity(items.size());
+        for (final T item : items) {
+            if (Objects.nonNull(item)) {
+                final R row = mapping(item, cls);
+                if (Objects.nonNull(row)) {
+                    rows.add(row);
+                }
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public <T extends Serializable, R extends Serializable> PageList<R> mapping(@Nullable final PageList<T> pageList,
+                                                                                @Nonnull final Class<R> cls) {
+        if (Objects.isNull(pageList)) {
+            return PageList.empty();
+        }
+        return PageList.of(pageList.getTotal(), mapping(pageList.getRows(), cls));
+    }
+
+    /**
+     * 按源数据运行时类型转换
+     */
+    private Object mapValue(@Nonnull final Object data, @Nonnull final Class<?> cls) {
+        final Class<?> source = data.getClass();
+        if (cls.isInstance(data) && isImmutable(source)) {
+            return data;
+        }
+        return getMapper(source, cls).apply(data);
+    }
+
+    private Function<Object, Object> getMapper(@Nonnull final Class<?> source, @Nonnull final Class<?> target) {
+        final Map<Class<?>, Function<Object, Object>> targets = mappers.get(source);
+        final Function<Object, Object> mapper = targets.get(target);
+        if (Objects.nonNull(mapper)) {
+            return mapper;
+        }
+        final Function<Object, Object> compiled = compile(source, target);
+        final Function<Object, Object> prev = targets.putIfAbsent(target, compiled);
+        return Objects.nonNull(prev) ? prev : compiled;
+    }
+
+    private Function<Object, Object> compile(@Nonnull final Class<?> source, @Nonnull final Class<?> target) {
+        final Class<?> dest = wrap(target);
+        //值类型转换
+        final Function<Object, Object> converter = valueConverter(source, dest);
+        if (Objects.nonNull(converter)) {
+            return converter;
+        }
+        //Map/Record/JDK类型等非JavaBean源数据
+        if (!isBean(dest) || !isBeanSource(source)) {
+            return data -> fallback.apply(data, target);
+        }
+        try {
+            final BeanMapper mapper = compileBean(source, dest);
+            if (Objects.nonNull(mapper)) {
+                return mapper;
+            }
+        } catch (Throwable ex) {
+            log.warn("compile(source: {},target: {})-exp: {}", source.getName(), target.getName(), ex.getMessage());
+        }
+        return data -> fallback.apply(data, target);
+    }
+
+    /**
+     * 值类型转换规则
+     *
+     * @return 转换处理,非值类型时返回null
+     */
+    @Nullable
+    private Function<Object, Object> valueConverter(@Nonnull final Class<?> source, @Nonnull final Class<?> dest) {
+        final Class<?> src = wrap(source);
+        //数值
+        if (Number.class.isAssignableFrom(dest)) {
+            if (NumberConverts.isSupportedSource(src)) {
+                return data -> NumberConverts.convert(data, dest);
+            }
+            //声明类型不确定(如泛型属性)时按运行时类型判断
+            return data -> NumberConverts.isSupportedSource(data.getClass()) ? NumberConverts.convert(data, dest) : fallback.apply(data, dest);
+        }
+        if (dest.isAssignableFrom(src) && isImmutable(src)) {
+            return IDENTITY;
+        }
+        //字符串
+        if (dest == String.class && isImmutable(src)) {
+            return Object::toString;
+        }
+        //日期(深拷贝)
+        if ((Date.class.isAssignableFrom(dest) || Calendar.class.isAssignableFrom(dest)) && dest.isAssignableFrom(src)) {
+            return data -> data instanceof Date date ? date.clone() : ((Calendar) data).clone();
+        }
+        //Boolean/Enum/Character等
+        if (isImmutable(dest) || isImmutable(src)) {
+            return data -> fallback.apply(data, dest);
+        }
+        return null;
+    }
+
+    /**
+     * 属性值转换规则(含泛型集合)
+     *
+     * @return 转换处理
+     */
+    private Function<Object, Object> propertyConverter(@Nonnull final Class<?> source, @Nonnull final Class<?> target,
+                                                       @Nonnull final Type targetType) {
+        final Class<?> dest = wrap(target);
+        final Function<Object, Object> converter = valueConverter(source, dest);
+        if (Objects.nonNull(converter)) {
+            return converter;
+        }
+        //集合
+        if (Collection.class.isAssignableFrom(dest) && (Collection.class.isAssignableFrom(source) || source.isArray())) {
+            final Function<Object, Object> collection = collectionConverter(dest, typeArgument(targetType));
+            if (Objects.nonNull(collection)) {
+                return collection;
+            }
+        }
+        //Bean(按运行时类型查找转换)
+        if (isBean(dest)) {
+            return data -> mapValue(data, dest);
+        }
+        //声明类型兼容(如泛型属性)
+        if (dest.isAssignableFrom(source)) {
+            return data -> dest.isInstance(data) && isImmutable(data.getClass()) ? data : fallback.apply(data, dest);
+        }
+        return data -> fallback.apply(data, dest);
+    }
+
+    @Nullable
+    private Function<Object, Object> collectionConverter(@Nonnull final Class<?> dest, @Nullable final Class<?> elementType) {
+        final boolean isSet;
+        if (dest.isAssignableFrom(ArrayList.class)) {
+            isSet = false;
+        } else if (dest.isAssignableFrom(LinkedHashSet.class)) {
+            isSet = true;
+        } else {
+            return null;
+        }
+        final Class<?> element = Objects.isNull(elementType) ? null : wrap(elementType);
+        return data -> {
+            final Collection<?> items = data instanceof Collection<?> c ? c : Arrays.asList(toObjectArray(data));
+            final Collection<Object> rows = isSet ? Sets.newLinkedHashSetWithExpectedSize(items.size())
+                    : Lists.newArrayListWithCapacity(items.size());
+            for (final Object item : items) {
+                rows.add(Objects.isNull(item) || Objects.isNull(element) ? item : mapValue(item, element));
+            }
+            return rows;
+        };
+    }
+
+    @Nullable
+    private BeanMapper compileBean(@Nonnull final Class<?> source, @Nonnull final Class<?> dest) throws Throwable {
+        final Map<String, Method> getters = getters(source);
+        final Map<String, Method> setters = setters(dest);
+        //无访问方法的公有字段(ModelMapper字段匹配),整体交由fallback
+        if (hasPublicFields(source, getters.keySet()) || hasPublicFields(dest, setters.keySet())) {
+            return null;
+        }
+        final List<PropertyCopier> copiers = Lists.newArrayListWithCapacity(setters.size());
+        for (final Map.Entry<String, Method> entry : setters.entrySet()) {
+            final String name = entry.getKey();
+            final Method getter = getters.get(name);
+            if (Objects.isNull(getter)) {
+                //目标属性可能由源嵌套属性扁平化得到(如: user.name => userName),整体交由fallback
+                if (isFlattened(name, getters)) {
+                    return null;
+                }
+                continue;
+            }
+            final Method setter = entry.getValue();
+            final Class<?> targetType = setter.getParameterTypes()[0];
+            final Function<Object, Object> converter = propertyConverter(getter.getReturnType(), targetType,
+                    setter.getGenericParameterTypes()[0]);
+            copiers.add(new PropertyCopier(getter(getter), converter == IDENTITY ? null : converter,
+                    setter(setter), targetType.isPrimitive()));
+        }
+        return new BeanMapper(constructor(dest), copiers.toArray(new PropertyCopier[0]));
+    }
+
+    private static boolean isFlattened(@Nonnull final String name, @Nonnull final Map<String, Method> getters) {
+        final String lower = name.toLowerCase(Locale.ROOT);
+        for (final Map.Entry<String, Method> entry : getters.entrySet()) {
+            final String prefix = entry.getKey().toLowerCase(Locale.ROOT);
+            if (lower.length() > prefix.length() && lower.startsWith(prefix) && !isImmutable(wrap(entry.getValue().getReturnType()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasPublicFields(@Nonnull final Class<?> cls, @Nonnull final Set<String> properties) {
+        for (final Field field : cls.getFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && !properties.contains(field.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, Method> getters(@Nonnull final Class<?> cls) {
+        final Map<String, Method> getters = Maps.newHashMap();
+        for (final Method method : cls.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) || method.isBridge() || method.getParameterCount() != 0
+                    || method.getDeclaringClass() == Object.class) {
+                continue;
+            }
+            final Class<?> type = method.getReturnType();
+            final String name = method.getName();
+            final String property;
+            if (name.startsWith(GETTER_PREFIX) && name.length() > GETTER_PREFIX.length() && type != void.class) {
+                property = propertyName(name, GETTER_PREFIX.length());
+            } else if (name.startsWith(BOOLEAN_GETTER_PREFIX) && name.length() > BOOLEAN_GETTER_PREFIX.length()
+                    && (type == boolean.class || type == Boolean.class)) {
+                property = propertyName(name, BOOLEAN_GETTER_PREFIX.length());
+            } else {
+                continue;
+            }
+            getters.putIfAbsent(property, method);
+        }
+        return getters;
+    }
+
+    private static Map<String, Method> setters(@Nonnull final Class<?> cls) {
+        final Map<String, Method> setters = Maps.newLinkedHashMap();
+        for (final Method method : cls.getMethods()) {
+            final String name = method.getName();
+            if (Modifier.isStatic(method.getModifiers()) || method.isBridge() || method.getParameterCount() != 1
+                    || !name.startsWith(SETTER_PREFIX) || name.length() <= SETTER_PREFIX.length()) {
+                continue;
+            }
+            final String property = propertyName(name, SETTER_PREFIX.length());
+            final Method prev = setters.get(property);
+            //重载setter优先与getter类型一致的
+            if (Objects.isNull(prev) || !matchesGetter(cls, property, prev) && matchesGetter(cls, property, method)) {
+                setters.put(property, method);
+            }
+        }
+        return setters;
+    }
+
+    private static boolean matchesGetter(@Nonnull final Class<?> cls, @Nonnull final String property, @Nonnull final Method setter) {
+        final Method getter = getters(cls).get(property);
+        return Objects.nonNull(getter) && getter.getReturnType() == setter.getParameterTypes()[0];
+    }
+
+    private static String propertyName(@Nonnull final String methodName, final int prefixLength) {
+        final String name = methodName.substring(prefixLength);
+        //与JavaBeans规范一致: 前两个字母都大写时保持原样(如: getURL => URL)
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(0)) && Character.isUpperCase(name.charAt(1))) {
+            return name;
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    @Nullable
+    private static Class<?> typeArgument(@Nonnull final Type type) {
+        if (type instanceof ParameterizedType parameterized) {
+            final Type[] args = parameterized.getActualTypeArguments();
+            if (args.length == 1) {
+                final Type arg = args[0];
+                if (arg instanceof Class<?> cls) {
+                    return cls;
+                }
+                if (arg instanceof ParameterizedType p && p.getRawType() instanceof Class<?> raw) {
+                    return raw;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Object[] toObjectArray(@Nonnull final Object array) {
+        if (array instanceof Object[] items) {
+            return items;
+        }
+        final int len = Array.getLength(array);
+        final Object[] items = new Object[len];
+        for (int i = 0; i < len; i++) {
+            items[i] = Array.get(array, i);
+        }
+        return items;
+    }
+
+    private static Class<?> wrap(@Nonnull final Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+
+    /**
+     * 不可变值类型(可直接共享引用)
+     */
+    private static boolean isImmutable(@Nonnull final Class<?> type) {
+        if (type.isPrimitive() || type.isEnum() || type == String.class || type == Boolean.class || type == Character.class
+                || type == UUID.class || type == Locale.class || type == Currency.class || type == Class.class) {
+            return true;
+        }
+        if (Number.class.isAssignableFrom(type)) {
+            return type.getName().startsWith("java.lang.") || type == java.math.BigDecimal.class || type == java.math.BigInteger.class;
+        }
+        final Package pkg = type.getPackage();
+        return Objects.nonNull(pkg) && "java.time".equals(pkg.getName());
+    }
+
+    /**
+     * 可按属性转换的Bean类型(具体类,有无参构造函数,非JDK类型)
+     */
+    private static boolean isBean(@Nonnull final Class<?> type) {
+        if (type.isInterface() || type.isArray() || type.isEnum() || type.isRecord() || type.isPrimitive()
+                || Modifier.isAbstract(type.getModifiers())) {
+            return false;
+        }
+        final String name = type.getName();
+        if (name.startsWith("java.") || name.startsWith("javax.")) {
+            return false;
+        }
+        try {
+            type.getConstructor();
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static boolean isBeanSource(@Nonnull final Class<?> type) {
+        if (type.isRecord() || type.isArray() || Map.class.isAssignableFrom(type) || Collection.class.isAssignableFrom(type)) {
+            return false;
+        }
+        final String name = type.getName();
+        return !name.startsWith("java.") && !name.startsWith("javax.");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> constructor(@Nonnull final Class<?> cls) throws Throwable {
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(cls, MethodHandles.lookup());
+            final MethodHandle handle = lookup.findConstructor(cls, MethodType.methodType(void.class));
+            final CallSite site = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class), handle, MethodType.methodType(cls));
+            return (Supplier<Object>) site.getTarget().invoke();
+        } catch (Throwable ex) {
+            final MethodHandle handle = MethodHandles.publicLookup().findConstructor(cls, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+            return () -> invoke(() -> handle.invokeExact());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> getter(@Nonnull final Method method) throws Throwable {
+        final Class<?> owner = method.getDeclaringClass();
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+            final CallSite site = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class), lookup.unreflect(method),
+                    MethodType.methodType(wrap(method.getReturnType()), owner));
+            return (Function<Object, Object>) site.getTarget().invoke();
+        } catch (Throwable ex) {
+            final MethodHandle handle = MethodHandles.publicLookup().unreflect(method)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            return bean -> invoke(() -> handle.invokeExact(bean));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setter(@Nonnull final Method method) throws Throwable {
+        final Class<?> owner = method.getDeclaringClass();
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+            final CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class), lookup.unreflect(method),
+                    MethodType.methodType(void.class, owner, wrap(method.getParameterTypes()[0])));
+            return (BiConsumer<Object, Object>) site.getTarget().invoke();
+        } catch (Throwable ex) {
+            final MethodHandle handle = MethodHandles.publicLookup().unreflect(method)
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (bean, val) -> invoke(() -> {
+                handle.invokeExact(bean, val);
+                return null;
+            });
+        }
+    }
+
+    private static Object invoke(@Nonnull final Invoker invoker) {
+        try {
+            return invoker.invoke();
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex.getMessage(), ex);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Invoker {
+        Object invoke() throws Throwable;
+    }
+
+    /**
+     * 属性复制
+     *
+     * @param getter    源属性读取
+     * @param converter 属性值转换(为空时直接复制)
+     * @param setter    目标属性写入
+     * @param primitive 目标属性是否为基本类型(值为空时跳过)
+     */
+    private record PropertyCopier(Function<Object, Object> getter, Function<Object, Object> converter,
+                                  BiConsumer<Object, Object> setter, boolean primitive) {
+
+        void copy(@Nonnull final Object source, @Nonnull final Object target) {
+            Object val = getter.apply(source);
+            if (Objects.nonNull(val) && Objects.nonNull(converter)) {
+                val = converter.apply(val);
+            }
+            if (Objects.nonNull(val) || !primitive) {
+                setter.accept(target, val);
+            }
+        }
+    }
+
+    /**
+     * Bean转换器
+     *
+     * @param constructor 目标对象构造
+     * @param copiers     属性复制集合
+     */
+    private record BeanMapper(Supplier<Object> constructor, PropertyCopier[] copiers) implements Function<Object, Object> {
+
+        @Override
+        public Object apply(final Object source) {
+            final Object target = constructor.get();
+            for (final PropertyCopier copier : copiers) {
+                copier.copy(source, target);
+            }
+            return target;
+        }
+    }
+}
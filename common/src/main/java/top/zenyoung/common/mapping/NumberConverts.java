@@ -0,0 +1,164 @@
+package top.zenyoung.common.mapping;
+
+import com.google.common.base.Strings;
+import lombok.experimental.UtilityClass;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * 数值转换规则(Bean转换共用)
+ *
+ * @author young
+ */
+@UtilityClass
+class NumberConverts {
+
+    /**
+     * 是否支持转换为数值的源类型
+     *
+     * @param sourceType 源类型(包装类型)
+     * @return 是否支持
+     */
+    static boolean isSupportedSource(@Nonnull final Class<?> sourceType) {
+        return Number.class.isAssignableFrom(sourceType)
+                || sourceType == Boolean.class || sourceType == String.class
+                || Date.class.isAssignableFrom(sourceType)
+                || Calendar.class.isAssignableFrom(sourceType)
+                || XMLGregorianCalendar.class.isAssignableFrom(sourceType);
+    }
+
+    /**
+     * 转换为数值
+     *
+     * @param source   源数据
+     * @param destType 目标类型(包装类型)
+     * @return 转换结果
+     * @throws IllegalArgumentException 超出范围或不支持的类型
+     */
+    @Nullable
+    static Number convert(@Nullable final Object source, @Nonnull final Class<?> destType) {
+        if (Objects.isNull(source)) {
+            return null;
+        }
+        if (source instanceof Number number) {
+            return numberFor(number, destType);
+        }
+        if (source instanceof Boolean bool) {
+            return numberFor(bool ? 1 : 0, destType);
+        }
+        if (source instanceof Date date && Long.class.equals(destType)) {
+            return date.getTime();
+        }
+        if (source instanceof Calendar calendar && Long.class.equals(destType)) {
+            return calendar.getTime().getTime();
+        }
+        if (source instanceof XMLGregorianCalendar calendar && Long.class.equals(destType)) {
+            return calendar.toGregorianCalendar().getTimeInMillis();
+        }
+        return numberFor(source.toString(), destType);
+    }
+
+    private static Number numberFor(@Nonnull final Number source, @Nonnull final Class<?> destType) {
+        if (destType.equals(source.getClass())) {
+            return source;
+        }
+        if (destType.equals(Byte.class)) {
+            checkRange(source, destType, source.longValue(), Byte.MIN_VALUE, Byte.MAX_VALUE);
+            return source.byteValue();
+        }
+        if (destType.equals(Short.class)) {
+            checkRange(source, destType, source.longValue(), Short.MIN_VALUE, Short.MAX_VALUE);
+            return source.shortValue();
+        }
+        if (destType.equals(Integer.class)) {
+            checkRange(source, destType, source.longValue(), Integer.MIN_VALUE, Integer.MAX_VALUE);
+            return source.intValue();
+        }
+        if (destType.equals(Long.class)) {
+            return source.longValue();
+        }
+        if (destType.equals(Float.class)) {
+            if (source.doubleValue() > Float.MAX_VALUE) {
+                throw new IllegalArgumentException(error(source, destType, "too large"));
+            }
+            return source.floatValue();
+        }
+        if (destType.equals(Double.class)) {
+            return source.doubleValue();
+        }
+        if (destType.equals(BigDecimal.class)) {
+            if (source instanceof Float || source instanceof Double) {
+                return new BigDecimal(source.toString());
+            } else if (source instanceof BigInteger bigInteger) {
+                return new BigDecimal(bigInteger);
+            } else {
+                return BigDecimal.valueOf(source.longValue());
+            }
+        }
+        if (destType.equals(BigInteger.class)) {
+            if (source instanceof BigDecimal bigDecimal) {
+                return bigDecimal.toBigInteger();
+            } else {
+                return BigInteger.valueOf(source.longValue());
+            }
+        }
+        throw new IllegalArgumentException(error(source, destType, "unsupported"));
+    }
+
+    private static Number numberFor(@Nonnull final String source, @Nonnull final Class<?> destType) {
+        final String val = source.trim();
+        if (Strings.isNullOrEmpty(val)) {
+            return null;
+        }
+        try {
+            if (destType.equals(Byte.class)) {
+                return Byte.valueOf(source);
+            }
+            if (destType.equals(Short.class)) {
+                return Short.valueOf(source);
+            }
+            if (destType.equals(Integer.class)) {
+                return Integer.valueOf(source);
+            }
+            if (destType.equals(Long.class)) {
+                return Long.valueOf(source);
+            }
+            if (destType.equals(Float.class)) {
+                return Float.valueOf(source);
+            }
+            if (destType.equals(Double.class)) {
+                return Double.valueOf(source);
+            }
+            if (destType.equals(BigDecimal.class)) {
+                return new BigDecimal(source);
+            }
+            if (destType.equals(BigInteger.class)) {
+                return new BigInteger(source);
+            }
+        } catch (Exception e) {
+            return null;
+        }
+        throw new IllegalArgumentException(error(source, destType, "unsupported"));
+    }
+
+    private static void checkRange(@Nonnull final Object source, @Nonnull final Class<?> destType,
+                                   final long val, final long min, final long max) {
+        if (val > max) {
+            throw new IllegalArgumentException(error(source, destType, "too large"));
+        }
+        if (val < min) {
+            throw new IllegalArgumentException(error(source, destType, "too small"));
+        }
+    }
+
+    private static String error(@Nonnull final Object source, @Nonnull final Class<?> destType, @Nonnull final String reason) {
+        return "Number conversion " + reason + ": " + source + " => " + destType.getName();
+    }
+}
@@ -0,0 +1,169 @@
+package top.zenyoung.common.sequence;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import top.zenyoung.common.exception.ServiceException;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 雪花数算法-无锁实现
+ * <p>
+ * 时间戳与序号合并存放于一个AtomicLong(逻辑时钟),通过CAS递增:
+ * 1.同一毫秒内序号用尽时直接进位借用下一毫秒,不再自旋等待;
+ * 2.系统时钟小幅回拨时沿用逻辑时钟继续生成,超过最大漂移才抛出异常;
+ * 3.可按序号位划分多条通道(lane),线程按ID散列到通道,降低CAS竞争(单机器ID每毫秒总量仍为4096).
+ * </p>
+ *
+ * @author young
+ */
+@Slf4j
+public class LockFreeSnowFlake implements Sequence {
+    private static final long TOWEPOCH = 1465978576000L;
+    private static final int WORKER_ID_BITS = 5;
+    private static final int DATA_CENTER_ID_BITS = 5;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int WORKER_ID_SHIFT = SEQUENCE_BITS;
+    private static final int DATA_CENTER_ID_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS;
+    private static final int TIMESTAMP_LEFT_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS + DATA_CENTER_ID_BITS;
+
+    /**
+     * 默认最大时钟漂移(毫秒)
+     */
+    public static final long DEFAULT_MAX_DRIFT_MILLIS = 5000L;
+    /**
+     * 最大通道数
+     */
+    public static final int MAX_LANES = 64;
+
+    /**
+     * 机器ID 2进制5位
+     */
+    @Getter
+    private final long workerId;
+    /**
+     * 机房ID 2进制5位
+     */
+    @Getter
+    private final long dataCenterId;
+    /**
+     * 逻辑时钟允许领先系统时钟的最大毫秒数
+     */
+    @Getter
+    private final long maxDriftMillis;
+    private final long workerBits;
+    private final int laneBits;
+    private final int laneSeqBits;
+    private final int laneMask;
+    private final AtomicLong[] lanes;
+
+    /**
+     * 获取实例
+     *
+     * @param assigner       机器ID分配器
+     * @param lanes          通道数(2的幂)
+     * @param maxDriftMillis 最大时钟漂移(毫秒)
+     * @return 实例
+     */
+    public static LockFreeSnowFlake getInstance(@Nonnull final WorkerIdAssigner assigner, final int lanes, final long maxDriftMillis) {
+        final WorkerIdAssigner.WorkerId id = assigner.assign();
+        return new LockFreeSnowFlake(id.workerId(), id.dataCenterId(), lanes, maxDriftMillis);
+    }
+
+    /**
+     * 获取实例
+     *
+     * @param assigner 机器ID分配器
+     * @return 实例
+     */
+    public static LockFreeSnowFlake getInstance(@Nonnull final WorkerIdAssigner assigner) {
+        return getInstance(assigner, 1, DEFAULT_MAX_DRIFT_MILLIS);
+    }
+
+    /**
+     * 获取实例
+     *
+     * @param workerId     机器ID
+     * @param dataCenterId 机房ID
+     * @return 实例
+     */
+    public static LockFreeSnowFlake getInstance(final long workerId, final long dataCenterId) {
+        return getInstance(WorkerIdAssigner.of(workerId, dataCenterId));
+    }
+
+    /**
+     * 获取实例(按主机地址和进程ID分配机器ID)
+     *
+     * @return 实例
+     */
+    public static LockFreeSnowFlake getInstance() {
+        return getInstance(WorkerIdAssigner.HOST_PID);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param workerId       机器ID
+     * @param dataCenterId   机房ID
+     * @param lanes          通道数(2的幂)
+     * @param maxDriftMillis 最大时钟漂移(毫秒)
+     */
+    private LockFreeSnowFlake(final long workerId, final long dataCenterId, final int lanes, final long maxDriftMillis) {
+        log.info("LockFreeSnowFlake(workerId: {},dataCenterId: {},lanes: {},maxDriftMillis: {})...", workerId, dataCenterId, lanes, maxDriftMillis);
+        if (lanes <= 0 || lanes > MAX_LANES || Integer.bitCount(lanes) != 1) {
+            throw new IllegalArgumentException(String.format("lanes must be a power of 2 and not greater than %d", MAX_LANES));
+        }
+        if (maxDriftMillis < 0) {
+            throw new IllegalArgumentException("maxDriftMillis can't be less than 0");
+        }
+        this.workerId = workerId;
+        this.dataCenterId = dataCenterId;
+        this.maxDriftMillis = maxDriftMillis;
+        this.workerBits = (dataCenterId << DATA_CENTER_ID_SHIFT) | (workerId << WORKER_ID_SHIFT);
+        this.laneBits = Integer.numberOfTrailingZeros(lanes);
+        this.laneSeqBits = SEQUENCE_BITS - laneBits;
+        this.laneMask = lanes - 1;
+        this.lanes = new AtomicLong[lanes];
+        for (int i = 0; i < lanes; i++) {
+            this.lanes[i] = new AtomicLong(-1L);
+        }
+    }
+
+    /**
+     * 生成雪花ID
+     *
+     * @return 雪花ID
+     */
+    @Override
+    public long nextId() {
+        final int lane = (int) Thread.currentThread().getId() & laneMask;
+        final AtomicLong state = lanes[lane];
+        final long seqMask = ~(-1L << laneSeqBits);
+        long prev, next;
+        do {
+            prev = state.get();
+            final long now = timeGen() - TOWEPOCH;
+            final long prevTime = prev < 0 ? -1L : prev >>> laneSeqBits;
+            if (now > prevTime) {
+                //进入新的毫秒,序号归零
+                next = now << laneSeqBits;
+            } else {
+                //同一毫秒或时钟回拨:沿用逻辑时钟递增,序号用尽时进位到下一毫秒
+                next = prev + 1;
+                final long drift = (next >>> laneSeqBits) - now;
+                if (drift > maxDriftMillis) {
+                    throw new ServiceException(501, String.format("Clock moved backwards. Refusing to generate id for %d milliseconds.", drift));
+                }
+            }
+        } while (!state.compareAndSet(prev, next));
+        //合成雪花数
+        final long timestamp = next >>> laneSeqBits;
+        final long sequence = ((next & seqMask) << laneBits) | lane;
+        return (timestamp << TIMESTAMP_LEFT_SHIFT) | workerBits | sequence;
+    }
+
+    private long timeGen() {
+        return System.currentTimeMillis();
+    }
+}
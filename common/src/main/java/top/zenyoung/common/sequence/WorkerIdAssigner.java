@@ -0,0 +1,70 @@
+package top.zenyoung.common.sequence;
+
+import javax.annotation.Nonnull;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * 雪花数-机器ID分配器
+ *
+ * @author young
+ */
+@FunctionalInterface
+public interface WorkerIdAssigner {
+    /**
+     * 根据主机地址和进程ID分配
+     */
+    WorkerIdAssigner HOST_PID = () -> {
+        long hash;
+        try {
+            hash = InetAddress.getLocalHost().getHostAddress().hashCode();
+        } catch (UnknownHostException e) {
+            hash = System.nanoTime();
+        }
+        hash = 31 * hash + ManagementFactory.getRuntimeMXBean().getPid();
+        hash ^= (hash >>> 16);
+        return WorkerId.of(hash & SnowFlake.MAX_WORKER_ID, (hash >>> 5) & SnowFlake.MAX_DATA_CENTER_ID);
+    };
+
+    /**
+     * 分配机器ID
+     *
+     * @return 机器ID
+     */
+    @Nonnull
+    WorkerId assign();
+
+    /**
+     * 固定机器ID
+     *
+     * @param workerId     机器ID
+     * @param dataCenterId 机房ID
+     * @return 分配器
+     */
+    static WorkerIdAssigner of(final long workerId, final long dataCenterId) {
+        final WorkerId id = WorkerId.of(workerId, dataCenterId);
+        return () -> id;
+    }
+
+    /**
+     * 机器ID
+     *
+     * @param workerId     机器ID
+     * @param dataCenterId 机房ID
+     */
+    record WorkerId(long workerId, long dataCenterId) {
+        public WorkerId {
+            if (workerId > SnowFlake.MAX_WORKER_ID || workerId < 0) {
+                throw new IllegalArgumentException(String.format("worker Id can't be greater than %d or less than 0", SnowFlake.MAX_WORKER_ID));
+            }
+            if (dataCenterId > SnowFlake.MAX_DATA_CENTER_ID || dataCenterId < 0) {
+                throw new IllegalArgumentException(String.format("dataCenterId Id can't be greater than %d or less than 0", SnowFlake.MAX_DATA_CENTER_ID));
+            }
+        }
+
+        public static WorkerId of(final long workerId, final long dataCenterId) {
+            return new WorkerId(workerId, dataCenterId);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package top.zenyoung.common.util;
+
+import com.google.common.collect.Maps;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 按键引用计数的本地锁
+ * <p>
+ * 每个锁键独占一把ReentrantLock,不同键之间互不阻塞;锁对象在首个使用者进入时创建,最后一个使用者退出时移除,内存随活跃键数量增减.
+ * 适用于持有时间较长(如等待分布式锁、执行任务)的场景,短临界区可使用{@link StripedLocks}.
+ * </p>
+ *
+ * @author young
+ */
+public class KeyedLocks {
+    private final Map<String, RefLock> locks = Maps.newConcurrentMap();
+
+    /**
+     * 同步处理
+     *
+     * @param key     锁键
+     * @param handler 同步业务处理
+     * @param <T>     返回数据类型
+     * @return 返回业务数据
+     */
+    public <T> T sync(@Nonnull final String key, @Nonnull final Supplier<T> handler) {
+        final RefLock ref = acquire(key);
+        ref.lock.lock();
+        try {
+            return handler.get();
+        } finally {
+            ref.lock.unlock();
+            release(key);
+        }
+    }
+
+    /**
+     * 同步处理
+     *
+     * @param key     锁键
+     * @param handler 同步业务处理
+     */
+    public void sync(@Nonnull final String key, @Nonnull final Runnable handler) {
+        final RefLock ref = acquire(key);
+        ref.lock.lock();
+        try {
+            handler.run();
+        } finally {
+            ref.lock.unlock();
+            release(key);
+        }
+    }
+
+    /**
+     * 当前活跃锁键数量
+     *
+     * @return 数量
+     */
+    public int size() {
+        return locks.size();
+    }
+
+    private RefLock acquire(@Nonnull final String key) {
+        return locks.compute(key, (k, v) -> {
+            final RefLock ref = v == null ? new RefLock() : v;
+            ref.refs++;
+            return ref;
+        });
+    }
+
+    private void release(@Nonnull final String key) {
+        locks.computeIfPresent(key, (k, v) -> --v.refs == 0 ? null : v);
+    }
+
+    private static class RefLock {
+        private final ReentrantLock lock = new ReentrantLock();
+        /**
+         * 引用计数(仅在compute内修改)
+         */
+        private int refs;
+    }
+}
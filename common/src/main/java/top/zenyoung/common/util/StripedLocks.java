@@ -0,0 +1,80 @@
+package top.zenyoung.common.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.Striped;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+
+/**
+ * 条带化本地锁
+ * <p>
+ * 锁键按散列映射到固定数量的ReentrantLock,锁对象常驻不随调用创建/移除,内存有界且同一键始终对应同一把锁.
+ * ReentrantLock阻塞时不会钉住虚拟线程的载体线程.不同键可能落在同一条带上,长时间持有锁的场景应使用独立实例.
+ * </p>
+ *
+ * @author young
+ */
+public class StripedLocks {
+    /**
+     * 默认条带数量
+     */
+    public static final int DEFAULT_STRIPES = 256;
+
+    private final Striped<Lock> striped;
+
+    public StripedLocks() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public StripedLocks(final int stripes) {
+        Preconditions.checkArgument(stripes > 0, "stripes:[%s] must be greater than 0.", stripes);
+        this.striped = Striped.lock(stripes);
+    }
+
+    /**
+     * 获取锁键对应的锁
+     *
+     * @param key 锁键
+     * @return 锁
+     */
+    @Nonnull
+    public Lock getLock(@Nonnull final String key) {
+        return striped.get(key);
+    }
+
+    /**
+     * 同步处理
+     *
+     * @param key     锁键
+     * @param handler 同步业务处理
+     * @param <T>     返回数据类型
+     * @return 返回业务数据
+     */
+    public <T> T sync(@Nonnull final String key, @Nonnull final Supplier<T> handler) {
+        final Lock lock = getLock(key);
+        lock.lock();
+        try {
+            return handler.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 同步处理
+     *
+     * @param key     锁键
+     * @param handler 同步业务处理
+     */
+    public void sync(@Nonnull final String key, @Nonnull final Runnable handler) {
+        final Lock lock = getLock(key);
+        lock.lock();
+        try {
+            handler.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
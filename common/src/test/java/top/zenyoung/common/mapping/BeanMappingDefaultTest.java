@@ -0,0 +1,228 @@
+package top.zenyoung.common.mapping;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.MappingException;
+import org.modelmapper.ModelMapper;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bean转换-预编译转换与生产配置的ModelMapper结果一致性测试
+ *
+ * @author young
+ */
+class BeanMappingDefaultTest {
+    /**
+     * 与生产一致的ModelMapper(含数值转换替换),作为对照基准
+     */
+    private static final ModelMapper MODEL = BeanMappingDefault.createModelMapper();
+
+    private static <R> void assertEquivalent(final Object data, final Class<R> cls) {
+        final R expected = MODEL.map(data, cls);
+        final R actual = BeanMappingDefault.INSTANCE.mapping(data, cls);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void nestedBeanAndList() {
+        final UserEntity entity = user(1L);
+        assertEquivalent(entity, UserVO.class);
+        final UserVO vo = BeanMappingDefault.INSTANCE.mapping(entity, UserVO.class);
+        assertNotSame(entity.getAddress(), vo.getAddress());
+        assertEquals(2, vo.getItems().size());
+    }
+
+    @Test
+    void genericId() {
+        final UserEntity entity = user(2L);
+        assertEquivalent(entity, UserVO.class);
+        assertEquivalent(entity, UserStrVO.class);
+        assertEquals("2", BeanMappingDefault.INSTANCE.mapping(entity, UserStrVO.class).getId());
+    }
+
+    @Test
+    void numberAndString() {
+        final UserEntity entity = user(3L);
+        entity.setScore("-1");
+        entity.setAmount(new BigDecimal("-0.125"));
+        assertEquivalent(entity, UserVO.class);
+        assertEquivalent(entity, UserStrVO.class);
+        //无法解析的数值字符串
+        entity.setScore("abc");
+        assertEquivalent(entity, UserVO.class);
+        assertNull(BeanMappingDefault.INSTANCE.mapping(entity, UserVO.class).getScore());
+        entity.setScore(null);
+        entity.setAge(null);
+        assertEquivalent(entity, UserVO.class);
+    }
+
+    @Test
+    void collection() {
+        final List<UserEntity> items = Arrays.asList(user(4L), user(5L));
+        final Collection<UserVO> rows = BeanMappingDefault.INSTANCE.mapping(items, UserVO.class);
+        assertEquals(2, rows.size());
+        int i = 0;
+        for (final UserVO row : rows) {
+            assertEquals(MODEL.map(items.get(i++), UserVO.class), row);
+        }
+    }
+
+    @Test
+    void publicFields() {
+        final FieldEntity entity = new FieldEntity();
+        entity.code = "F001";
+        entity.setName("field");
+        assertEquivalent(entity, FieldVO.class);
+        assertEquals("F001", BeanMappingDefault.INSTANCE.mapping(entity, FieldVO.class).code);
+    }
+
+    @Test
+    void numberOutOfRange() {
+        final UserEntity entity = user(6L);
+        entity.setTotal(Long.MAX_VALUE);
+        assertThrows(MappingException.class, () -> MODEL.map(entity, UserVO.class));
+        assertThrows(MappingException.class, () -> BeanMappingDefault.INSTANCE.mapping(entity, UserVO.class));
+    }
+
+    private static UserEntity user(final Long id) {
+        final UserEntity entity = new UserEntity();
+        entity.setId(id);
+        entity.setName("user-" + id);
+        entity.setAge(18);
+        entity.setScore("99");
+        entity.setTotal(100L);
+        entity.setAmount(new BigDecimal("12.50"));
+        entity.setEnabled(true);
+        entity.setStatus(Status.ENABLE);
+        entity.setCreateTime(new Date(1700000000000L));
+        final AddressEntity address = new AddressEntity();
+        address.setCity("shenzhen");
+        address.setZipCode(518000);
+        entity.setAddress(address);
+        final ItemEntity first = new ItemEntity();
+        first.setId(10L);
+        first.setTitle("first");
+        final ItemEntity second = new ItemEntity();
+        second.setId(11L);
+        second.setTitle("second");
+        entity.setItems(Arrays.asList(first, second));
+        return entity;
+    }
+
+    public enum Status {
+        ENABLE, DISABLE
+    }
+
+    @Data
+    public static class BaseEntity<ID extends Serializable> {
+        private ID id;
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class UserEntity extends BaseEntity<Long> {
+        private String name;
+        private Integer age;
+        private String score;
+        private Long total;
+        private BigDecimal amount;
+        private Boolean enabled;
+        private Status status;
+        private Date createTime;
+        private AddressEntity address;
+        private List<ItemEntity> items;
+    }
+
+    @Data
+    public static class AddressEntity {
+        private String city;
+        private Integer zipCode;
+    }
+
+    @Data
+    public static class ItemEntity {
+        private Long id;
+        private String title;
+    }
+
+    @Data
+    public static class UserVO {
+        private Long id;
+        private String name;
+        private Long age;
+        private Integer score;
+        private int total;
+        private Double amount;
+        private Boolean enabled;
+        private Status status;
+        private Date createTime;
+        private AddressVO address;
+        private List<ItemVO> items;
+    }
+
+    @Data
+    public static class UserStrVO {
+        private String id;
+        private String name;
+        private String age;
+        private String status;
+    }
+
+    @Data
+    public static class AddressVO {
+        private String city;
+        private String zipCode;
+    }
+
+    @Data
+    public static class ItemVO {
+        private String id;
+        private String title;
+    }
+
+    public static class FieldEntity {
+        public String code;
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(final String name) {
+            this.name = name;
+        }
+    }
+
+    public static class FieldVO {
+        public String code;
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof FieldVO vo && Objects.equals(code, vo.code) && Objects.equals(name, vo.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(code, name);
+        }
+    }
+}
@@ -151,19 +151,6 @@ public class CaptchaServiceImpl implements CaptchaService {
         }
     }
 
-    private String getCaptchaCodeCache(final long captchaId) {
-        if (captchaId > 0) {
-            synchronized (LOCKS.computeIfAbsent(captchaId, k -> new Object())) {
-                try {
-                    return storageService.getCaptcha(captchaId);
-                } finally {
-                    LOCKS.remove(captchaId);
-                }
-            }
-        }
-        return null;
-    }
-
     @Override
     public CaptchaVO createCaptcha(final Integer len, final Duration expire) {
         Assert.notNull(this.captcha, "Captcha初始化失败!");
@@ -182,22 +169,8 @@ public class CaptchaServiceImpl implements CaptchaService {
     @Override
     public boolean verify(@Nonnull final Long captchaId, @Nonnull final String inputCode) {
         if (captchaId > 0 && !Strings.isNullOrEmpty(inputCode) && Objects.nonNull(this.captcha)) {
-            synchronized (LOCKS.computeIfAbsent(captchaId, k -> new Object())) {
-                try {
-                    //加载缓存验证码
-                    final String captchaCode = getCaptchaCodeCache(captchaId);
-                    if (!Strings.isNullOrEmpty(captchaCode)) {
-                        final boolean ret = this.captcha.verify(captchaCode, inputCode);
-                        if (ret) {
-                            //验证成功
-                            storageService.clearCaptcha(captchaId);
-                        }
-                        return ret;
-                    }
-                } finally {
-                    LOCKS.remove(captchaId);
-                }
-            }
+            //取出即删除,同一验证码只能校验一次
+            return storageService.verifyAndConsume(captchaId, captchaCode -> this.captcha.verify(captchaCode, inputCode));
         }
         return false;
     }
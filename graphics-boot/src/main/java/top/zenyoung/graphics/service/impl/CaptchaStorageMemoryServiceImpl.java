@@ -38,4 +38,13 @@ public class CaptchaStorageMemoryServiceImpl implements CaptchaStorageService {
     public void clearCaptcha(@Nonnull final Long id) {
         caches.invalidate(id);
     }
+
+    @Override
+    public String takeCaptcha(@Nonnull final Long id) {
+        final Map.Entry<String, Long> entry = caches.asMap().remove(id);
+        if (Objects.nonNull(entry) && entry.getValue() > System.currentTimeMillis()) {
+            return entry.getKey();
+        }
+        return null;
+    }
 }
@@ -1,7 +1,10 @@
 package top.zenyoung.graphics.service;
 
+import com.google.common.base.Strings;
+
 import javax.annotation.Nonnull;
 import java.time.Duration;
+import java.util.function.Predicate;
 
 /**
  * 验证码存储-服务接口
@@ -33,4 +36,30 @@ public interface CaptchaStorageService {
      * @param id 存储ID
      */
     void clearCaptcha(@Nonnull final Long id);
+
+    /**
+     * 验证码存储-加载并删除(原子操作,同一验证码只能被取出一次)
+     *
+     * @param id 存储ID
+     * @return 验证码
+     */
+    default String takeCaptcha(@Nonnull final Long id) {
+        final String code = getCaptcha(id);
+        if (!Strings.isNullOrEmpty(code)) {
+            clearCaptcha(id);
+        }
+        return code;
+    }
+
+    /**
+     * 验证码存储-校验并消费(无论校验结果如何,验证码均被删除)
+     *
+     * @param id       存储ID
+     * @param verifier 校验器
+     * @return 校验结果
+     */
+    default boolean verifyAndConsume(@Nonnull final Long id, @Nonnull final Predicate<String> verifier) {
+        final String code = takeCaptcha(id);
+        return !Strings.isNullOrEmpty(code) && verifier.test(code);
+    }
 }
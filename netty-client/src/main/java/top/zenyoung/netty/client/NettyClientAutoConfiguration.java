@@ -13,11 +13,13 @@ import top.zenyoung.netty.client.server.impl.NettyClientImpl;
 import top.zenyoung.netty.client.strategy.ClientStrategyHandler;
 import top.zenyoung.netty.client.strategy.ClientStrategyHandlerFactory;
 import top.zenyoung.netty.codec.Message;
+import top.zenyoung.netty.session.Session;
 import top.zenyoung.netty.strategy.StrategyHandlerFactory;
 import top.zenyoung.netty.util.StrategyUtils;
 
 import javax.annotation.Nonnull;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * NettyClient-自动配置
@@ -34,7 +36,17 @@ public class NettyClientAutoConfiguration {
     @ConditionalOnMissingBean
     public <M extends Message> ClientStrategyHandlerFactory getStrategyHandlerFactory(final List<ClientStrategyHandler<M>> handlers) {
         final StrategyHandlerFactory factory = StrategyUtils.build(handlers);
-        return factory::process;
+        return new ClientStrategyHandlerFactory() {
+            @Override
+            public <T extends Message> void process(@Nonnull final Session session, @Nonnull final T data, @Nonnull final Consumer<T> callbackHandler) {
+                factory.process(session, data, callbackHandler);
+            }
+
+            @Override
+            public boolean isRegistered(@Nonnull final Message data) {
+                return factory.isRegistered(data);
+            }
+        };
     }
 
     @Bean
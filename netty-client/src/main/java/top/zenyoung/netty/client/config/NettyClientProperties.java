@@ -3,6 +3,7 @@ package top.zenyoung.netty.client.config;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import top.zenyoung.netty.client.pool.ChannelSelectStrategy;
 import top.zenyoung.netty.config.BaseProperties;
 
 import java.time.Duration;
@@ -30,7 +31,23 @@ public class NettyClientProperties extends BaseProperties {
      */
     private Map<String, String> codec;
     /**
-     * 重连服务器间隔
+     * 重连服务器间隔(指数退避的初始间隔)
      */
     private Duration reconnectInterval = Duration.ofSeconds(10);
+    /**
+     * 重连服务器最大间隔
+     */
+    private Duration reconnectMaxInterval = Duration.ofMinutes(5);
+    /**
+     * 连接池大小(每个服务器地址的连接数)
+     */
+    private Integer poolSize = 1;
+    /**
+     * 连接池通道选择策略
+     */
+    private ChannelSelectStrategy selectStrategy = ChannelSelectStrategy.ROUND_ROBIN;
+    /**
+     * 请求响应超时时间
+     */
+    private Duration requestTimeout = Duration.ofSeconds(30);
 }
@@ -9,8 +9,10 @@ import org.springframework.context.ApplicationContextAware;
 import top.zenyoung.netty.client.config.NettyClientProperties;
 import top.zenyoung.netty.client.strategy.ClientStrategyHandlerFactory;
 import top.zenyoung.netty.codec.Message;
+import top.zenyoung.netty.config.BaseProperties;
 import top.zenyoung.netty.event.IdleStateEvent;
 import top.zenyoung.netty.handler.BaseSocketHandler;
+import top.zenyoung.netty.metrics.NettyMetricsRegistry;
 import top.zenyoung.netty.session.Session;
 import top.zenyoung.netty.strategy.StrategyHandlerFactory;
 
@@ -50,6 +52,21 @@ public abstract class BaseClientSocketHandler<T extends Message> extends BaseSoc
      */
     protected abstract NettyClientProperties getProperties();
 
+    @Override
+    protected BaseProperties.Execution getExecution() {
+        return Optional.ofNullable(getProperties())
+                .map(NettyClientProperties::getExecution)
+                .orElse(null);
+    }
+
+    @Override
+    protected NettyMetricsRegistry getMetricsRegistry() {
+        return Optional.ofNullable(getProperties())
+                .filter(NettyClientProperties::isMetricsEnabled)
+                .map(p -> NettyMetricsRegistry.DEFAULT)
+                .orElse(null);
+    }
+
     @Override
     protected Integer getHeartbeatTimeoutTotal() {
         return Optional.ofNullable(getProperties())
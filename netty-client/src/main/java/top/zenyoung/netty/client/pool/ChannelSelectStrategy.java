@@ -0,0 +1,17 @@
+package top.zenyoung.netty.client.pool;
+
+/**
+ * 连接池通道选择策略
+ *
+ * @author young
+ */
+public enum ChannelSelectStrategy {
+    /**
+     * 轮询
+     */
+    ROUND_ROBIN,
+    /**
+     * 最少待响应请求
+     */
+    LEAST_PENDING
+}
@@ -0,0 +1,195 @@
+package top.zenyoung.netty.client.pool;
+
+import com.google.common.base.Preconditions;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 客户端连接池(单个服务端地址)
+ * <p>
+ * 每个连接槽位独立连接/重连;重连间隔按指数退避并加入随机抖动,定时任务在EventLoop中执行,不额外占用线程.
+ * </p>
+ *
+ * @author young
+ */
+@Slf4j
+public class ClientChannelPool {
+    private final Bootstrap bootstrap;
+    @Getter
+    private final String host;
+    @Getter
+    private final int port;
+    private final ChannelSelectStrategy strategy;
+    private final long reconnectBaseMillis;
+    private final long reconnectMaxMillis;
+    private final Consumer<Channel> connectedHandler;
+    private final AtomicReferenceArray<Channel> channels;
+    private final AtomicInteger counter = new AtomicInteger(0);
+    private volatile boolean closed = false;
+
+    public ClientChannelPool(@Nonnull final Bootstrap bootstrap, @Nonnull final String host, final int port, final int size,
+                             @Nonnull final ChannelSelectStrategy strategy, @Nonnull final Duration reconnectInterval,
+                             @Nonnull final Duration reconnectMaxInterval, @Nonnull final Consumer<Channel> connectedHandler) {
+        Preconditions.checkArgument(size > 0, "连接池大小必须大于0");
+        this.bootstrap = bootstrap;
+        this.host = host;
+        this.port = port;
+        this.strategy = strategy;
+        this.reconnectBaseMillis = Math.max(reconnectInterval.toMillis(), 0);
+        this.reconnectMaxMillis = Math.max(reconnectMaxInterval.toMillis(), this.reconnectBaseMillis);
+        this.connectedHandler = connectedHandler;
+        this.channels = new AtomicReferenceArray<>(size);
+    }
+
+    /**
+     * 获取连接池大小
+     *
+     * @return 连接池大小
+     */
+    public int size() {
+        return channels.length();
+    }
+
+    /**
+     * 获取可用连接数
+     *
+     * @return 可用连接数
+     */
+    public int getActiveCount() {
+        int count = 0;
+        for (int i = 0; i < channels.length(); i++) {
+            if (isActive(channels.get(i))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 启动连接
+     */
+    public void start() {
+        for (int slot = 0; slot < channels.length(); slot++) {
+            connect(slot, 0);
+        }
+    }
+
+    /**
+     * 选择可用连接
+     *
+     * @return 可用连接(无可用连接时为空)
+     */
+    @Nullable
+    public Channel select() {
+        final int size = channels.length();
+        if (size == 1) {
+            final Channel ch = channels.get(0);
+            return isActive(ch) ? ch : null;
+        }
+        if (strategy == ChannelSelectStrategy.LEAST_PENDING) {
+            Channel selected = null;
+            int min = Integer.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                final Channel ch = channels.get(i);
+                if (isActive(ch)) {
+                    final int pending = getPendingCount(ch);
+                    if (pending < min) {
+                        min = pending;
+                        selected = ch;
+                    }
+                }
+            }
+            return selected;
+        }
+        final int start = counter.getAndIncrement() & Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            final Channel ch = channels.get((start + i) % size);
+            if (isActive(ch)) {
+                return ch;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isActive(@Nullable final Channel ch) {
+        return Objects.nonNull(ch) && ch.isActive();
+    }
+
+    private static int getPendingCount(@Nonnull final Channel ch) {
+        final InFlightHandler handler = ch.pipeline().get(InFlightHandler.class);
+        return Objects.isNull(handler) ? 0 : handler.getPendingCount();
+    }
+
+    private void connect(final int slot, final int attempt) {
+        if (closed) {
+            return;
+        }
+        try {
+            bootstrap.connect(host, port).addListener(f -> {
+                final Channel ch = ((ChannelFuture) f).channel();
+                if (!f.isSuccess()) {
+                    log.warn("connect[{}:{}][slot: {}]-连接失败(attempt: {})-exp: {}", host, port, slot, attempt,
+                            Objects.isNull(f.cause()) ? null : f.cause().getMessage());
+                    scheduleReconnect(slot, attempt + 1, bootstrap.config().group());
+                    return;
+                }
+                if (closed) {
+                    ch.close();
+                    return;
+                }
+                log.info("connect[{}:{}][slot: {}]=>成功", host, port, slot);
+                channels.set(slot, ch);
+                ch.closeFuture().addListener(cf -> {
+                    channels.compareAndSet(slot, ch, null);
+                    log.warn("connect[{}:{}][slot: {}]-连接断开,准备重连", host, port, slot);
+                    scheduleReconnect(slot, 0, ch.eventLoop());
+                });
+                connectedHandler.accept(ch);
+            });
+        } catch (Throwable e) {
+            log.error("connect[{}:{}][slot: {}]-exp: {}", host, port, slot, e.getMessage());
+            scheduleReconnect(slot, attempt + 1, bootstrap.config().group().next());
+        }
+    }
+
+    private void scheduleReconnect(final int slot, final int attempt, @Nonnull final EventLoopGroup loop) {
+        if (closed || reconnectBaseMillis <= 0) {
+            return;
+        }
+        //指数退避 + 随机抖动([delay/2, delay])
+        final long backoff = reconnectBaseMillis << Math.min(attempt, 20);
+        final long delay = Math.min(backoff <= 0 ? reconnectMaxMillis : backoff, reconnectMaxMillis);
+        final long jittered = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+        log.info("scheduleReconnect[{}:{}][slot: {}]-第[{}]次重连,间隔: {}ms", host, port, slot, attempt, jittered);
+        final EventLoop eventLoop = loop instanceof EventLoop el ? el : loop.next();
+        eventLoop.schedule(() -> connect(slot, attempt), jittered, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 关闭连接池
+     */
+    public void close() {
+        closed = true;
+        for (int i = 0; i < channels.length(); i++) {
+            final Channel ch = channels.getAndSet(i, null);
+            if (Objects.nonNull(ch)) {
+                ch.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package top.zenyoung.netty.client.pool;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Maps;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.ScheduledFuture;
+import lombok.extern.slf4j.Slf4j;
+import top.zenyoung.netty.codec.CorrelatedMessage;
+import top.zenyoung.netty.handler.ReadFlowControlHandler;
+
+import javax.annotation.Nonnull;
+import java.nio.channels.ClosedChannelException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 在途请求处理器(按消息ID匹配响应)
+ * <p>
+ * 匹配到在途请求的响应消息直接完成对应Future,不再向后传递;其余消息照常交给业务处理器.
+ * 非共享处理器,每个通道独立实例.
+ * </p>
+ *
+ * @author young
+ */
+@Slf4j
+public class InFlightHandler extends ChannelInboundHandlerAdapter {
+    private final Map<String, InFlight> pending = Maps.newConcurrentMap();
+    private volatile ChannelHandlerContext ctx;
+
+    /**
+     * 获取待响应请求数
+     *
+     * @return 待响应请求数
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * 注册在途请求
+     *
+     * @param messageId 消息ID
+     * @param timeout   超时时间
+     * @param <R>       响应消息类型
+     * @return 响应Future
+     */
+    @SuppressWarnings({"unchecked"})
+    public <R extends CorrelatedMessage> CompletableFuture<R> register(@Nonnull final String messageId, @Nonnull final Duration timeout) {
+        final CompletableFuture<CorrelatedMessage> future = new CompletableFuture<>();
+        final ChannelHandlerContext context = ctx;
+        if (Objects.isNull(context)) {
+            future.completeExceptionally(new ClosedChannelException());
+            return (CompletableFuture<R>) future;
+        }
+        final ScheduledFuture<?> timeoutFuture = context.executor().schedule(() -> {
+            if (pending.remove(messageId) != null) {
+                future.completeExceptionally(new TimeoutException("请求超时: " + messageId));
+            }
+        }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+        final InFlight prev = pending.put(messageId, new InFlight(future, timeoutFuture));
+        if (Objects.nonNull(prev)) {
+            prev.fail(new IllegalStateException("消息ID重复: " + messageId));
+        }
+        return (CompletableFuture<R>) future;
+    }
+
+    /**
+     * 在途请求失败
+     *
+     * @param messageId 消息ID
+     * @param cause     失败原因
+     */
+    public void fail(@Nonnull final String messageId, @Nonnull final Throwable cause) {
+        final InFlight inFlight = pending.remove(messageId);
+        if (Objects.nonNull(inFlight)) {
+            inFlight.fail(cause);
+        }
+    }
+
+    @Override
+    public void handlerAdded(final ChannelHandlerContext ctx) {
+        this.ctx = ctx;
+    }
+
+    @Override
+    public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
+        if (msg instanceof CorrelatedMessage message) {
+            final String messageId = message.getMessageId();
+            final InFlight inFlight = Strings.isNullOrEmpty(messageId) ? null : pending.remove(messageId);
+            if (Objects.nonNull(inFlight)) {
+                inFlight.timeout.cancel(false);
+                if (!inFlight.future.complete(message)) {
+                    ReferenceCountUtil.release(message);
+                }
+                //关闭AUTO_READ且未挂载流量控制时继续读取后续消息
+                if (!ctx.channel().config().isAutoRead() && !ReadFlowControlHandler.isPresent(ctx.channel())) {
+                    ctx.read();
+                }
+                return;
+            }
+        }
+        ctx.fireChannelRead(msg);
+    }
+
+    @Override
+    public void channelInactive(final ChannelHandlerContext ctx) {
+        if (!pending.isEmpty()) {
+            log.warn("channelInactive[{}]-连接关闭,在途请求失败: {}", ctx.channel().id().asShortText(), pending.size());
+            final ClosedChannelException cause = new ClosedChannelException();
+            pending.keySet().forEach(messageId -> fail(messageId, cause));
+        }
+        ctx.fireChannelInactive();
+    }
+
+    private record InFlight(CompletableFuture<CorrelatedMessage> future, ScheduledFuture<?> timeout) {
+
+        void fail(@Nonnull final Throwable cause) {
+            timeout.cancel(false);
+            future.completeExceptionally(cause);
+        }
+    }
+}
@@ -2,6 +2,11 @@ package top.zenyoung.netty.client.server;
 
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.boot.ApplicationRunner;
+import top.zenyoung.netty.codec.CorrelatedMessage;
+import top.zenyoung.netty.codec.Message;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * NettyClient-客户端接口
@@ -13,4 +18,21 @@ public interface NettyClient extends ApplicationRunner, DisposableBean {
      * 连接服务
      */
     void connectServer();
+
+    /**
+     * 发送消息(从连接池中选择连接)
+     *
+     * @param data 消息数据
+     * @return 是否有可用连接
+     */
+    <M extends Message> boolean send(@Nonnull final M data);
+
+    /**
+     * 发送请求并等待响应(按消息ID匹配,同一连接上可并发多个请求)
+     *
+     * @param req 请求消息
+     * @param <R> 响应消息类型
+     * @return 响应Future
+     */
+    <R extends CorrelatedMessage> CompletableFuture<R> request(@Nonnull final CorrelatedMessage req);
 }
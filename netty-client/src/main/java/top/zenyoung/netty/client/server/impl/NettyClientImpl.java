@@ -4,7 +4,6 @@ import com.google.common.base.Strings;
 import com.google.common.collect.Maps;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
-import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelPipeline;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,21 +17,22 @@ import top.zenyoung.netty.client.config.NettyClientProperties;
 import top.zenyoung.netty.client.handler.BaseClientSocketHandler;
 import top.zenyoung.netty.client.handler.ConnectedHandler;
 import top.zenyoung.netty.client.handler.PreStartHandler;
+import top.zenyoung.netty.client.pool.ChannelSelectStrategy;
+import top.zenyoung.netty.client.pool.ClientChannelPool;
+import top.zenyoung.netty.client.pool.InFlightHandler;
 import top.zenyoung.netty.client.server.NettyClient;
+import top.zenyoung.netty.codec.CorrelatedMessage;
+import top.zenyoung.netty.codec.Message;
 import top.zenyoung.netty.config.BaseProperties;
 import top.zenyoung.netty.util.CodecUtils;
+import top.zenyoung.netty.util.NettyUtils;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.time.Duration;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
@@ -45,11 +45,7 @@ import java.util.function.Consumer;
 @RequiredArgsConstructor
 public class NettyClientImpl extends BaseNettyImpl implements NettyClient, ApplicationContextAware {
     private final NettyClientProperties properites;
-    private final AtomicBoolean refConnect = new AtomicBoolean(false);
-    private final AtomicBoolean refReconnectRun = new AtomicBoolean(false);
-    private final AtomicLong refReconnectCount = new AtomicLong(0L);
-    private final AtomicReference<ScheduledFuture<?>> refReconnectScheduled = new AtomicReference<>(null);
-    private final ScheduledExecutorService scheduledExecutorService = new ScheduledThreadPoolExecutor(1);
+    private final AtomicReference<ClientChannelPool> refPool = new AtomicReference<>(null);
 
     private Bootstrap bootstrap;
     private ApplicationContext context;
@@ -107,6 +103,62 @@ public class NettyClientImpl extends BaseNettyImpl implements NettyClient, Appli
                 .orElse(Duration.ZERO);
     }
 
+    /**
+     * 获取重连最大间隔
+     *
+     * @return 重连最大间隔
+     */
+    private Duration getReconnectMaxInterval() {
+        return Optional.ofNullable((NettyClientProperties) getProperties())
+                .map(NettyClientProperties::getReconnectMaxInterval)
+                .orElse(Duration.ZERO);
+    }
+
+    /**
+     * 获取连接池大小
+     *
+     * @return 连接池大小
+     */
+    private int getPoolSize() {
+        return Optional.ofNullable((NettyClientProperties) getProperties())
+                .map(NettyClientProperties::getPoolSize)
+                .filter(size -> size > 0)
+                .orElse(1);
+    }
+
+    /**
+     * 获取连接池通道选择策略
+     *
+     * @return 通道选择策略
+     */
+    private ChannelSelectStrategy getSelectStrategy() {
+        return Optional.ofNullable((NettyClientProperties) getProperties())
+                .map(NettyClientProperties::getSelectStrategy)
+                .orElse(ChannelSelectStrategy.ROUND_ROBIN);
+    }
+
+    /**
+     * 获取请求响应超时时间
+     *
+     * @return 请求响应超时时间
+     */
+    private Duration getRequestTimeout() {
+        return Optional.ofNullable((NettyClientProperties) getProperties())
+                .map(NettyClientProperties::getRequestTimeout)
+                .orElse(Duration.ofSeconds(30));
+    }
+
+    @Override
+    protected int getDefaultWorkerThreads() {
+        //客户端连接数有限,工作线程数不超过连接池大小
+        return Math.min(getPoolSize(), Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    protected String getThreadNamePrefix() {
+        return "netty-client";
+    }
+
     /**
      * 启动前置处理
      *
@@ -192,75 +244,50 @@ public class NettyClientImpl extends BaseNettyImpl implements NettyClient, Appli
                 return;
             }
             initBootstrap();
-            //启动连接服务端
-            final ChannelFuture future = bootstrap.connect(host, port);
-            if (Objects.nonNull(future)) {
-                future.addListener(f -> {
-                    try {
-                        //连接服务器结果
-                        final boolean ret = f.isSuccess();
-                        refConnect.set(ret);
-                        if (ret) {
-                            refReconnectCount.set(0);
-                            log.info("连接服务器({}:{})=>成功", host, port);
-                            connectedHandler(future.channel());
-                            return;
-                        }
-                        //判断是否为重连
-                        if (refReconnectCount.get() <= 0 && Objects.isNull(refReconnectScheduled.get())) {
-                            final Duration interval = getReconnectInterval();
-                            log.info("连接服务器({}:{})=>失败,准备开始重连定时任务(interval: {})", host, port, interval);
-                            if (Objects.nonNull(interval) && !interval.isZero()) {
-                                final long period = interval.toMillis();
-                                refReconnectScheduled.set(scheduledExecutorService.scheduleAtFixedRate(() -> {
-                                    try {
-                                        this.reconnectHandler();
-                                    } catch (Throwable e) {
-                                        log.warn("定时重连[{}]服务器-exp: {}", refReconnectCount.get(), e.getMessage());
-                                    }
-                                }, period, period, TimeUnit.MILLISECONDS));
-                            }
-                        }
-                    } finally {
-                        refReconnectRun.set(false);
-                    }
-                });
-            }
+            //创建连接池并连接服务端
+            final ClientChannelPool pool = new ClientChannelPool(bootstrap, host, port, getPoolSize(), getSelectStrategy(),
+                    getReconnectInterval(), getReconnectMaxInterval(), this::connectedHandler);
+            Optional.ofNullable(refPool.getAndSet(pool))
+                    .ifPresent(ClientChannelPool::close);
+            pool.start();
         } catch (Throwable e) {
-            refReconnectRun.set(false);
             log.error("connectServer-exp: {}", e.getMessage());
         }
     }
 
-    private void reconnectHandler() {
-        //检查连接是否已成功,连接成功关闭重连任务
-        if (refConnect.get()) {
-            log.info("重连成功,关闭定时重连=> {}", refReconnectCount.get());
-            //关闭重连任务
-            closeReconnectTask();
-            return;
-        }
-        //检查是否已在重连中
-        if (refReconnectRun.get()) {
-            log.info("已在重连中...");
-            return;
+    @Override
+    public <M extends Message> boolean send(@Nonnull final M data) {
+        final Channel channel = Optional.ofNullable(refPool.get())
+                .map(ClientChannelPool::select)
+                .orElse(null);
+        if (Objects.isNull(channel)) {
+            log.warn("send(data: {})-无可用连接.", data);
+            return false;
         }
-        refReconnectRun.set(true);
-        log.info("准备第[{}]次开始重连服务器", refReconnectCount.incrementAndGet());
-        connectServer();
+        NettyUtils.writeAndFlush(channel, data);
+        return true;
     }
 
-    private void closeReconnectTask() {
-        Optional.ofNullable(refReconnectScheduled.get())
-                .ifPresent(f -> {
-                    try {
-                        f.cancel(false);
-                    } catch (Throwable e) {
-                        log.warn("closeReconnectTask-exp: {}", e.getMessage());
-                    } finally {
-                        refReconnectScheduled.set(null);
-                    }
-                });
+    @Override
+    public <R extends CorrelatedMessage> CompletableFuture<R> request(@Nonnull final CorrelatedMessage req) {
+        final String messageId = req.getMessageId();
+        if (Strings.isNullOrEmpty(messageId)) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("请求消息ID不能为空"));
+        }
+        final Channel channel = Optional.ofNullable(refPool.get())
+                .map(ClientChannelPool::select)
+                .orElse(null);
+        final InFlightHandler inFlight = Objects.isNull(channel) ? null : channel.pipeline().get(InFlightHandler.class);
+        if (Objects.isNull(inFlight)) {
+            return CompletableFuture.failedFuture(new IllegalStateException("无可用连接"));
+        }
+        final CompletableFuture<R> future = inFlight.register(messageId, getRequestTimeout());
+        NettyUtils.writeAndFlush(channel, req, f -> {
+            if (!f.isSuccess()) {
+                inFlight.fail(messageId, f.cause());
+            }
+        });
+        return future;
     }
 
     @Override
@@ -280,6 +307,8 @@ public class NettyClientImpl extends BaseNettyImpl implements NettyClient, Appli
 
     @Override
     protected void initBizHandlers(final int port, @Nonnull final ChannelPipeline pipeline) {
+        //在途请求响应匹配
+        pipeline.addLast("inFlight", new InFlightHandler());
         contextHandler(ctx -> {
             final var handlerMap = ctx.getBeansOfType(BaseClientSocketHandler.class);
             if (!CollectionUtils.isEmpty(handlerMap)) {
@@ -293,7 +322,8 @@ public class NettyClientImpl extends BaseNettyImpl implements NettyClient, Appli
 
     @Override
     public void close() {
-        this.closeReconnectTask();
+        Optional.ofNullable(refPool.getAndSet(null))
+                .ifPresent(ClientChannelPool::close);
         super.close();
     }
 
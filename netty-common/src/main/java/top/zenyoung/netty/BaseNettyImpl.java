@@ -1,15 +1,14 @@
 package top.zenyoung.netty;
 
 import com.google.common.base.Joiner;
+import com.google.common.collect.Maps;
 import io.netty.bootstrap.AbstractBootstrap;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.*;
-import io.netty.channel.epoll.*;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.unix.UnixChannelOption;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
 import io.netty.handler.ssl.SslHandler;
@@ -18,7 +17,12 @@ import lombok.extern.slf4j.Slf4j;
 import top.zenyoung.netty.config.BaseProperties;
 import top.zenyoung.netty.handler.HeartbeatHandler;
 import top.zenyoung.netty.handler.IpAddrFilterHandler;
+import top.zenyoung.netty.handler.ReadFlowControlHandler;
 import top.zenyoung.netty.mbean.TrafficAcceptor;
+import top.zenyoung.netty.metrics.MetricsHandler;
+import top.zenyoung.netty.metrics.NettyMetricsRegistry;
+import top.zenyoung.netty.transport.Transport;
+import top.zenyoung.netty.transport.TransportType;
 import top.zenyoung.netty.util.NettyUtils;
 
 import javax.annotation.Nonnull;
@@ -27,6 +31,7 @@ import javax.management.MBeanServer;
 import javax.management.ObjectName;
 import java.lang.management.ManagementFactory;
 import java.net.InetSocketAddress;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Supplier;
@@ -38,23 +43,30 @@ import java.util.function.Supplier;
  */
 @Slf4j
 public abstract class BaseNettyImpl extends ChannelInboundHandlerAdapter {
-    protected static final boolean IS_EPOLL;
-    protected static final EventLoopGroup BOSS_GROUP;
-    protected static final EventLoopGroup WORKER_GROUP;
-
-    static {
-        final int bossSize = Math.max(Runtime.getRuntime().availableProcessors() * 2, 2);
-        final int workSize = bossSize * 2;
-
-        IS_EPOLL = Epoll.isAvailable();
-        BOSS_GROUP = IS_EPOLL ? new EpollEventLoopGroup(bossSize) : new NioEventLoopGroup(bossSize);
-        WORKER_GROUP = IS_EPOLL ? new EpollEventLoopGroup(workSize) : new NioEventLoopGroup(workSize);
-    }
-
     /**
      * 全局流量共享统计处理器
      */
     private GlobalTrafficShapingHandler globalTrafficHandler = null;
+    /**
+     * 端口指标处理器(按端口共享)
+     */
+    private final Map<Integer, MetricsHandler> metricsHandlers = Maps.newConcurrentMap();
+    /**
+     * IP地址过滤处理器(全部通道共享)
+     */
+    private volatile IpAddrFilterHandler ipAddrFilterHandler = null;
+    /**
+     * 传输实现
+     */
+    private volatile Transport transport = null;
+    /**
+     * 监听线程组(服务端)
+     */
+    private EventLoopGroup bossGroup = null;
+    /**
+     * 工作线程组
+     */
+    private EventLoopGroup workerGroup = null;
 
     /**
      * 获取配置数据
@@ -86,6 +98,149 @@ public abstract class BaseNettyImpl extends ChannelInboundHandlerAdapter {
                 .orElse(LogLevel.INFO);
     }
 
+    /**
+     * 获取入站流量控制配置
+     *
+     * @return 流量控制配置(未启用时为空)
+     */
+    @Nullable
+    protected BaseProperties.FlowControl getFlowControl() {
+        return Optional.ofNullable(getProperties())
+                .map(BaseProperties::getFlowControl)
+                .filter(BaseProperties.FlowControl::isEnabled)
+                .orElse(null);
+    }
+
+    /**
+     * 是否启用指标统计
+     *
+     * @return 是否启用
+     */
+    protected boolean isMetricsEnabled() {
+        return Optional.ofNullable(getProperties())
+                .map(BaseProperties::isMetricsEnabled)
+                .orElse(false);
+    }
+
+    /**
+     * 获取IP地址过滤处理器
+     *
+     * @return IP地址过滤处理器
+     */
+    @Nonnull
+    protected final IpAddrFilterHandler getIpAddrFilterHandler() {
+        if (Objects.isNull(ipAddrFilterHandler)) {
+            ipAddrFilterHandler = new IpAddrFilterHandler(getProperties(), isMetricsEnabled() ? NettyMetricsRegistry.DEFAULT : null);
+        }
+        return ipAddrFilterHandler;
+    }
+
+    /**
+     * 获取EventLoop线程模型配置
+     *
+     * @return 线程模型配置
+     */
+    @Nonnull
+    protected BaseProperties.EventLoop getEventLoopConfig() {
+        return Optional.ofNullable(getProperties())
+                .map(BaseProperties::getEventLoop)
+                .orElseGet(BaseProperties.EventLoop::new);
+    }
+
+    /**
+     * 获取传输实现
+     *
+     * @return 传输实现
+     */
+    @Nonnull
+    protected final Transport getTransport() {
+        if (Objects.isNull(transport)) {
+            transport = Transport.resolve(getEventLoopConfig().getTransport());
+        }
+        return transport;
+    }
+
+    /**
+     * 是否启用SO_REUSEPORT
+     *
+     * @return 是否启用
+     */
+    protected final boolean isReusePort() {
+        return getEventLoopConfig().isReusePort() && getTransport().isReusePortSupported();
+    }
+
+    /**
+     * 获取每个端口的监听通道数
+     *
+     * @return 监听通道数
+     */
+    protected final int getAcceptorsPerPort() {
+        if (!isReusePort()) {
+            return 1;
+        }
+        final Integer acceptors = getEventLoopConfig().getAcceptorsPerPort();
+        return Objects.nonNull(acceptors) && acceptors > 0 ? acceptors : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * 获取监听线程数(默认单端口,每个监听通道一个线程)
+     *
+     * @return 监听线程数
+     */
+    protected int getBossThreads() {
+        return getAcceptorsPerPort();
+    }
+
+    /**
+     * 获取默认工作线程数(未配置时使用)
+     *
+     * @return 工作线程数
+     */
+    protected int getDefaultWorkerThreads() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * 获取工作线程组(首次调用时创建)
+     *
+     * @return 工作线程组
+     */
+    @Nonnull
+    protected final synchronized EventLoopGroup getWorkerGroup() {
+        if (Objects.isNull(workerGroup)) {
+            final BaseProperties.EventLoop config = getEventLoopConfig();
+            final Integer threads = config.getWorkerThreads();
+            final int size = Objects.nonNull(threads) && threads > 0 ? threads : Math.max(getDefaultWorkerThreads(), 1);
+            workerGroup = getTransport().newEventLoopGroup(size, config.getIoRatio(), getThreadNamePrefix() + "-worker");
+            log.info("创建工作线程组[{}]: {}", getTransport(), size);
+        }
+        return workerGroup;
+    }
+
+    /**
+     * 获取监听线程组(首次调用时创建)
+     *
+     * @return 监听线程组
+     */
+    @Nonnull
+    protected final synchronized EventLoopGroup getBossGroup() {
+        if (Objects.isNull(bossGroup)) {
+            final int size = Math.max(getBossThreads(), 1);
+            bossGroup = getTransport().newEventLoopGroup(size, getEventLoopConfig().getIoRatio(), getThreadNamePrefix() + "-boss");
+            log.info("创建监听线程组[{}]: {}", getTransport(), size);
+        }
+        return bossGroup;
+    }
+
+    /**
+     * 获取线程名前缀
+     *
+     * @return 线程名前缀
+     */
+    protected String getThreadNamePrefix() {
+        return "netty";
+    }
+
     /**
      * 获取保持连接数
      *
@@ -101,7 +256,7 @@ public abstract class BaseNettyImpl extends ChannelInboundHandlerAdapter {
      * @param bootstrap 服务端
      */
     protected void buildBootstrap(@Nonnull final ServerBootstrap bootstrap) {
-        buildBootstrap(bootstrap, () -> IS_EPOLL ? EpollServerSocketChannel.class : NioServerSocketChannel.class);
+        buildBootstrap(bootstrap, () -> getTransport().getServerChannelClass());
     }
 
     /**
@@ -110,7 +265,7 @@ public abstract class BaseNettyImpl extends ChannelInboundHandlerAdapter {
      * @param bootstrap 客户端
      */
     protected void buildBootstrap(@Nonnull final Bootstrap bootstrap) {
-        buildBootstrap(bootstrap, () -> IS_EPOLL ? EpollSocketChannel.class : NioSocketChannel.class);
+        buildBootstrap(bootstrap, () -> getTransport().getSocketChannelClass());
     }
 
     /**
@@ -161,16 +316,15 @@ public abstract class BaseNettyImpl extends ChannelInboundHandlerAdapter {
             @Nonnull final Supplier<Class<? extends C>> channelHandler
     ) {
         //初始化全局流量处理器
+        final EventLoopGroup workGroup = Objects.nonNull(work) ? work : getWorkerGroup();
         if (Objects.isNull(globalTrafficHandler)) {
-            this.globalTrafficHandler = new GlobalTrafficShapingHandler(WORKER_GROUP, 1000L);
+            this.globalTrafficHandler = new GlobalTrafficShapingHandler(workGroup, 1000L);
         }
         //工作线程池
         if (bootstrap instanceof ServerBootstrap srv) {
-            final EventLoopGroup bossGroup = Objects.nonNull(boss) ? boss : BOSS_GROUP;
-            final EventLoopGroup workGroup = Objects.nonNull(work) ? work : WORKER_GROUP;
-            srv.group(bossGroup, workGroup);
+            srv.group(Objects.nonNull(boss) ? boss : getBossGroup(), workGroup);
         } else {
-            bootstrap.group(Objects.nonNull(work) ? work : WORKER_GROUP);
+            bootstrap.group(workGroup);
         }
         //channel配置
         bootstrap.channel(channelHandler.get())
@@ -182,10 +336,6 @@ public abstract class BaseNettyImpl extends ChannelInboundHandlerAdapter {
                     //TCP立即发包
                     .option(ChannelOption.TCP_NODELAY, true);
         }
-        //Epoll设置
-        if (IS_EPOLL) {
-            bootstrap.option(EpollChannelOption.EPOLL_MODE, EpollMode.EDGE_TRIGGERED);
-        }
         //服务器配置
         if (bootstrap instanceof ServerBootstrap serverBootstrap) {
             //保持连接数
@@ -193,11 +343,26 @@ public abstract class BaseNettyImpl extends ChannelInboundHandlerAdapter {
             serverBootstrap
                     .option(ChannelOption.SO_BACKLOG, backlog)
                     .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+            //多监听通道共享端口
+            if (isReusePort()) {
+                serverBootstrap.option(UnixChannelOption.SO_REUSEPORT, true);
+            }
             //Epoll设置
-            if (IS_EPOLL) {
+            if (getTransport().getType() == TransportType.EPOLL) {
                 serverBootstrap.childOption(EpollChannelOption.TCP_QUICKACK, true);
             }
         }
+        //出站缓冲区水位
+        final BaseProperties.FlowControl flowControl = getFlowControl();
+        if (Objects.nonNull(flowControl)) {
+            final WriteBufferWaterMark waterMark = new WriteBufferWaterMark(flowControl.getWriteBufferLowWaterMark(),
+                    flowControl.getWriteBufferHighWaterMark());
+            if (bootstrap instanceof ServerBootstrap srv) {
+                srv.childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, waterMark);
+            } else {
+                bootstrap.option(ChannelOption.WRITE_BUFFER_WATER_MARK, waterMark);
+            }
+        }
         //Options处理
         this.addBootstrapOptions(bootstrap);
         //服务器端
@@ -266,7 +431,7 @@ public abstract class BaseNettyImpl extends ChannelInboundHandlerAdapter {
      */
     protected final void initChannelPipelineHandler(final int port, @Nonnull final ChannelPipeline pipeline) {
         //ip过滤
-        pipeline.addLast("ipFilter", new IpAddrFilterHandler(getProperties()));
+        pipeline.addLast("ipFilter", getIpAddrFilterHandler());
         //ssl
         final SslHandler sslHandler = buildSslHandle(port, pipeline.channel());
         if (Objects.nonNull(sslHandler)) {
@@ -277,6 +442,11 @@ public abstract class BaseNettyImpl extends ChannelInboundHandlerAdapter {
                 .ifPresent(handler -> pipeline.addLast("globalTraffic", handler));
         //挂载编解码器
         initChannelCodecHandler(port, pipeline);
+        //端口指标
+        if (isMetricsEnabled()) {
+            pipeline.addLast("metrics", metricsHandlers.computeIfAbsent(port,
+                    k -> new MetricsHandler(NettyMetricsRegistry.DEFAULT.port(k))));
+        }
         //日志处理
         pipeline.addLast("log", new LoggingHandler(getNettyLogLevel()));
         //空闲检测器
@@ -284,6 +454,9 @@ public abstract class BaseNettyImpl extends ChannelInboundHandlerAdapter {
                 .map(BaseProperties::getHeartbeatInterval)
                 .filter(duration -> !duration.isZero())
                 .ifPresent(heartbeat -> pipeline.addLast("idle", new HeartbeatHandler(heartbeat)));
+        //入站流量控制
+        Optional.ofNullable(getFlowControl())
+                .ifPresent(fc -> pipeline.addLast("flowControl", new ReadFlowControlHandler(fc.getHighWaterMark(), fc.getLowWaterMark())));
         //业务处理器
         initBizHandlers(port, pipeline);
     }
@@ -320,8 +493,10 @@ public abstract class BaseNettyImpl extends ChannelInboundHandlerAdapter {
      */
     public void close() {
         try {
-            BOSS_GROUP.shutdownGracefully();
-            WORKER_GROUP.shutdownGracefully();
+            synchronized (this) {
+                Optional.ofNullable(bossGroup).ifPresent(EventLoopGroup::shutdownGracefully);
+                Optional.ofNullable(workerGroup).ifPresent(EventLoopGroup::shutdownGracefully);
+            }
             log.info("Netty关闭成功!");
         } catch (Throwable e) {
             log.error("Netty关闭异常: {}", e.getMessage());
@@ -0,0 +1,15 @@
+package top.zenyoung.netty.codec;
+
+/**
+ * 可关联消息接口(请求/响应通过消息ID匹配)
+ *
+ * @author young
+ */
+public interface CorrelatedMessage extends Message {
+    /**
+     * 获取消息ID(响应消息与请求消息ID相同)
+     *
+     * @return 消息ID
+     */
+    String getMessageId();
+}
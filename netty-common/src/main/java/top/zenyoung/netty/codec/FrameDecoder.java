@@ -0,0 +1,70 @@
+package top.zenyoung.netty.codec;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.TooLongFrameException;
+
+import javax.annotation.Nonnull;
+
+/**
+ * 长度前缀二进制帧解码器(byte=>FrameMessage)
+ * <p>
+ * 帧数据以retained切片方式从累积缓冲区中截取,不复制字节;超过最大帧长度时抛出异常,
+ * 并进入丢弃模式跨多次读取跳过该帧剩余字节,保持后续帧边界对齐.
+ * 非共享处理器,每个通道需独立实例.
+ * </p>
+ *
+ * @author young
+ */
+public class FrameDecoder extends BaseByteToMessageDecoder<FrameMessage> {
+    private final int maxFrameLength;
+    private boolean discardingTooLongFrame;
+    private long bytesToDiscard;
+
+    public FrameDecoder(final int maxFrameLength) {
+        Preconditions.checkArgument(maxFrameLength > 0, "maxFrameLength必须大于0");
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    @Override
+    protected FrameMessage decode(@Nonnull final ChannelHandlerContext ctx, @Nonnull final ByteBuf in) {
+        if (discardingTooLongFrame) {
+            discard(in);
+            return null;
+        }
+        final int readable = in.readableBytes();
+        if (readable < FrameMessage.LENGTH_FIELD_LENGTH) {
+            return null;
+        }
+        final int idx = in.readerIndex();
+        final long length = in.getUnsignedInt(idx);
+        if (length > maxFrameLength) {
+            final long total = FrameMessage.LENGTH_FIELD_LENGTH + length;
+            if (total <= readable) {
+                in.skipBytes((int) total);
+            } else {
+                discardingTooLongFrame = true;
+                bytesToDiscard = total - readable;
+                in.skipBytes(readable);
+            }
+            throw new TooLongFrameException("帧长度超过上限: " + length + " > " + maxFrameLength);
+        }
+        final int frameLength = (int) length;
+        if (readable - FrameMessage.LENGTH_FIELD_LENGTH < frameLength) {
+            return null;
+        }
+        final ByteBuf frame = in.retainedSlice(idx + FrameMessage.LENGTH_FIELD_LENGTH, frameLength);
+        in.skipBytes(FrameMessage.LENGTH_FIELD_LENGTH + frameLength);
+        return FrameMessage.wrap(frame);
+    }
+
+    private void discard(@Nonnull final ByteBuf in) {
+        final int bytes = (int) Math.min(bytesToDiscard, in.readableBytes());
+        in.skipBytes(bytes);
+        bytesToDiscard -= bytes;
+        if (bytesToDiscard == 0) {
+            discardingTooLongFrame = false;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package top.zenyoung.netty.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+
+import javax.annotation.Nonnull;
+
+/**
+ * 长度前缀二进制帧编码器(FrameMessage=>byte)
+ * <p>
+ * 仅为帧头分配小块缓冲区,消息体以retained方式组合进{@link CompositeByteBuf},不复制字节.
+ * </p>
+ *
+ * @author young
+ */
+@ChannelHandler.Sharable
+public class FrameEncoder extends BaseMessageToMessageEncoder<FrameMessage, ByteBuf> {
+
+    @Override
+    protected ByteBuf encode(@Nonnull final ChannelHandlerContext ctx, @Nonnull final FrameMessage msg) {
+        final ByteBuf payload = msg.payload();
+        final int deviceIdLength = msg.getDeviceIdLength(), commandLength = msg.getCommandLength();
+        final int headerLength = 2 + deviceIdLength + commandLength;
+        final ByteBuf header = ctx.alloc().ioBuffer(FrameMessage.LENGTH_FIELD_LENGTH + headerLength);
+        header.writeInt(headerLength + payload.readableBytes());
+        header.writeByte(deviceIdLength);
+        ByteBufUtil.reserveAndWriteUtf8(header, msg.getDeviceId(), deviceIdLength);
+        header.writeByte(commandLength);
+        ByteBufUtil.reserveAndWriteUtf8(header, msg.getCommand(), commandLength);
+        if (!payload.isReadable()) {
+            return header;
+        }
+        //消息由父类在编码后释放,组合缓冲区需独立持有消息体
+        final CompositeByteBuf buf = ctx.alloc().compositeBuffer(2);
+        buf.addComponents(true, header, payload.retain());
+        return buf;
+    }
+}
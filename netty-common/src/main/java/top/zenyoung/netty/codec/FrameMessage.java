@@ -0,0 +1,217 @@
+package top.zenyoung.netty.codec;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.DefaultByteBufHolder;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.util.CharsetUtil;
+
+import javax.annotation.Nonnull;
+import java.util.Objects;
+
+/**
+ * 二进制帧消息
+ * <p>
+ * 帧格式: [length:4][deviceIdLen:1][deviceId][commandLen:1][command][payload],length为其后全部字节数.
+ * 解码得到的消息持有读缓冲区的retained切片,不复制数据;deviceId/command在首次读取时才解码为字符串.
+ * 消息为引用计数对象,处理完成后需调用{@link #release()}(出站消息由编码器释放).
+ * </p>
+ *
+ * @author young
+ */
+public final class FrameMessage extends DefaultByteBufHolder implements Message {
+    /**
+     * 长度字段字节数
+     */
+    public static final int LENGTH_FIELD_LENGTH = 4;
+    /**
+     * deviceId/command最大字节数
+     */
+    public static final int MAX_HEADER_FIELD_LENGTH = 0xFF;
+
+    private final int deviceIdLength;
+    private final int commandLength;
+    private final int payloadOffset;
+    private transient String deviceId;
+    private transient String command;
+
+    private FrameMessage(@Nonnull final ByteBuf content, final int deviceIdLength, final int commandLength,
+                         final int payloadOffset, final String deviceId, final String command) {
+        super(content);
+        this.deviceIdLength = deviceIdLength;
+        this.commandLength = commandLength;
+        this.payloadOffset = payloadOffset;
+        this.deviceId = deviceId;
+        this.command = command;
+    }
+
+    /**
+     * 包装解码帧(不含长度字段),接管frame的引用计数
+     *
+     * @param frame 帧数据
+     * @return 帧消息
+     * @throws CorruptedFrameException 帧头不完整
+     */
+    public static FrameMessage wrap(@Nonnull final ByteBuf frame) {
+        final int start = frame.readerIndex(), end = frame.writerIndex();
+        int idx = start;
+        if (idx >= end) {
+            frame.release();
+            throw new CorruptedFrameException("帧头不完整: 缺少deviceId长度");
+        }
+        final int deviceIdLength = frame.getUnsignedByte(idx);
+        idx += 1 + deviceIdLength;
+        if (idx >= end) {
+            frame.release();
+            throw new CorruptedFrameException("帧头不完整: 缺少command长度");
+        }
+        final int commandLength = frame.getUnsignedByte(idx);
+        idx += 1 + commandLength;
+        if (idx > end) {
+            frame.release();
+            throw new CorruptedFrameException("帧头不完整: command越界");
+        }
+        return new FrameMessage(frame, deviceIdLength, commandLength, idx - start, null, null);
+    }
+
+    /**
+     * 创建出站帧消息,接管payload的引用计数
+     *
+     * @param deviceId 设备ID
+     * @param command  消息指令
+     * @param payload  消息体
+     * @return 帧消息
+     */
+    public static FrameMessage of(@Nonnull final String deviceId, @Nonnull final String command, @Nonnull final ByteBuf payload) {
+        final int deviceIdLength = ByteBufUtil.utf8Bytes(deviceId), commandLength = ByteBufUtil.utf8Bytes(command);
+        Preconditions.checkArgument(deviceIdLength <= MAX_HEADER_FIELD_LENGTH, "deviceId超长: %s", deviceIdLength);
+        Preconditions.checkArgument(commandLength <= MAX_HEADER_FIELD_LENGTH, "command超长: %s", commandLength);
+        return new FrameMessage(payload, deviceIdLength, commandLength, -1, deviceId, command);
+    }
+
+    /**
+     * 是否为解码得到的帧(content包含帧头)
+     *
+     * @return 是否解码帧
+     */
+    private boolean isDecoded() {
+        return payloadOffset >= 0;
+    }
+
+    @Override
+    public String getDeviceId() {
+        String val = deviceId;
+        if (Objects.isNull(val)) {
+            final ByteBuf buf = content();
+            deviceId = val = buf.toString(buf.readerIndex() + 1, deviceIdLength, CharsetUtil.UTF_8);
+        }
+        return val;
+    }
+
+    @Override
+    public String getCommand() {
+        String val = command;
+        if (Objects.isNull(val)) {
+            final ByteBuf buf = content();
+            command = val = buf.toString(buf.readerIndex() + 2 + deviceIdLength, commandLength, CharsetUtil.UTF_8);
+        }
+        return val;
+    }
+
+    /**
+     * 获取deviceId字节数
+     *
+     * @return 字节数
+     */
+    public int getDeviceIdLength() {
+        return deviceIdLength;
+    }
+
+    /**
+     * 获取command字节数
+     *
+     * @return 字节数
+     */
+    public int getCommandLength() {
+        return commandLength;
+    }
+
+    /**
+     * 获取消息体切片(与消息共享引用计数,消息释放后不可再访问)
+     *
+     * @return 消息体
+     */
+    public ByteBuf payload() {
+        final ByteBuf buf = content();
+        if (!isDecoded()) {
+            return buf;
+        }
+        return buf.slice(buf.readerIndex() + payloadOffset, buf.readableBytes() - payloadOffset);
+    }
+
+    /**
+     * 获取消息体retained切片(独立引用计数,可在消息释放后继续使用,用后需释放)
+     *
+     * @return 消息体
+     */
+    public ByteBuf retainedPayload() {
+        final ByteBuf buf = content();
+        if (!isDecoded()) {
+            return buf.retainedDuplicate();
+        }
+        return buf.retainedSlice(buf.readerIndex() + payloadOffset, buf.readableBytes() - payloadOffset);
+    }
+
+    @Override
+    public FrameMessage replace(final ByteBuf content) {
+        if (isDecoded()) {
+            return new FrameMessage(content, deviceIdLength, commandLength, payloadOffset, deviceId, command);
+        }
+        return new FrameMessage(content, deviceIdLength, commandLength, -1, getDeviceId(), getCommand());
+    }
+
+    @Override
+    public FrameMessage copy() {
+        return replace(content().copy());
+    }
+
+    @Override
+    public FrameMessage duplicate() {
+        return replace(content().duplicate());
+    }
+
+    @Override
+    public FrameMessage retainedDuplicate() {
+        return replace(content().retainedDuplicate());
+    }
+
+    @Override
+    public FrameMessage retain() {
+        super.retain();
+        return this;
+    }
+
+    @Override
+    public FrameMessage retain(final int increment) {
+        super.retain(increment);
+        return this;
+    }
+
+    @Override
+    public FrameMessage touch() {
+        super.touch();
+        return this;
+    }
+
+    @Override
+    public FrameMessage touch(final Object hint) {
+        super.touch(hint);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "FrameMessage(deviceId=" + getDeviceId() + ", command=" + getCommand() + ", payload=" + payload().readableBytes() + "B)";
+    }
+}
@@ -21,4 +21,13 @@ public interface Message extends Serializable {
      * @return 消息指令
      */
     String getCommand();
+
+    /**
+     * 获取消息指令编码(整型/枚举序号指令,小于0表示按字符串指令分发)
+     *
+     * @return 指令编码
+     */
+    default int getCommandCode() {
+        return -1;
+    }
 }
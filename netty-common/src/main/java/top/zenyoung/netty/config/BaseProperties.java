@@ -4,12 +4,21 @@ import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import io.netty.handler.logging.LogLevel;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import top.zenyoung.netty.executor.ExecutionMode;
+import top.zenyoung.netty.ipfilter.IpAddrFilter;
+import top.zenyoung.netty.transport.TransportType;
 
 import java.io.Serializable;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -33,13 +42,65 @@ public abstract class BaseProperties implements Serializable {
      */
     private Integer heartbeatTimeoutTotal = 3;
     /**
-     * IP地址黑名单
+     * IP地址黑名单(启动配置;运行时通过IpAddrFilter增删的条目不回写本列表,以{@link #getIpAddrFilter()}为准)
      */
     private List<String> ipAddrBlackList = Lists.newArrayList();
     /**
-     * IP地址白名单
+     * IP地址白名单(启动配置;运行时通过IpAddrFilter增删的条目不回写本列表,以{@link #getIpAddrFilter()}为准)
      */
     private List<String> ipAddrWhiteList = Lists.newArrayList();
+    /**
+     * 业务处理执行配置
+     */
+    private Execution execution = new Execution();
+    /**
+     * 入站流量控制配置
+     */
+    private FlowControl flowControl = new FlowControl();
+    /**
+     * 是否启用端口/指令指标统计
+     */
+    private boolean metricsEnabled = true;
+    /**
+     * EventLoop线程模型配置
+     */
+    private EventLoop eventLoop = new EventLoop();
+    /**
+     * IP地址黑/白名单(由配置构建,运行时变更)
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private transient volatile IpAddrFilter ipAddrFilter;
+
+    public void setIpAddrBlackList(final List<String> ipAddrBlackList) {
+        this.ipAddrBlackList = ipAddrBlackList;
+        Optional.ofNullable(ipAddrFilter).ifPresent(filter -> filter.resetBlackList(ipAddrBlackList));
+    }
+
+    public void setIpAddrWhiteList(final List<String> ipAddrWhiteList) {
+        this.ipAddrWhiteList = ipAddrWhiteList;
+        Optional.ofNullable(ipAddrFilter).ifPresent(filter -> filter.resetWhiteList(ipAddrWhiteList));
+    }
+
+    /**
+     * 获取IP地址黑/白名单
+     *
+     * @return IP地址黑/白名单
+     */
+    public IpAddrFilter getIpAddrFilter() {
+        IpAddrFilter filter = ipAddrFilter;
+        if (Objects.isNull(filter)) {
+            synchronized (this) {
+                filter = ipAddrFilter;
+                if (Objects.isNull(filter)) {
+                    ipAddrFilter = filter = new IpAddrFilter(getIpAddrBlackList(), getIpAddrWhiteList());
+                }
+            }
+        }
+        return filter;
+    }
 
     /**
      * 获取Netty日志级别
@@ -59,4 +120,81 @@ public abstract class BaseProperties implements Serializable {
                 }))
                 .orElse(LogLevel.INFO);
     }
+
+    /**
+     * 业务处理执行配置
+     */
+    @Data
+    public static class Execution implements Serializable {
+        /**
+         * 执行模式(默认在EventLoop中执行)
+         */
+        private ExecutionMode mode = ExecutionMode.EVENT_LOOP;
+        /**
+         * 共享线程池线程数(POOL模式)
+         */
+        private Integer poolSize = Runtime.getRuntime().availableProcessors() * 2;
+        /**
+         * 共享线程池队列容量(POOL模式,队列满时拒绝并由会话延迟重试)
+         */
+        private Integer poolQueueCapacity = 10_000;
+        /**
+         * 单会话待处理消息硬上限(超过时拒绝消息并关闭通道,读取背压由flowControl控制)
+         */
+        private Integer sessionQueueSize = 1024;
+    }
+
+    /**
+     * 入站流量控制配置
+     */
+    @Data
+    public static class FlowControl implements Serializable {
+        /**
+         * 是否启用
+         */
+        private boolean enabled = true;
+        /**
+         * 在途消息高水位(达到时暂停读取)
+         */
+        private Integer highWaterMark = 64;
+        /**
+         * 在途消息低水位(回落至此恢复读取)
+         */
+        private Integer lowWaterMark = 16;
+        /**
+         * 出站缓冲区低水位(字节)
+         */
+        private Integer writeBufferLowWaterMark = 32 * 1024;
+        /**
+         * 出站缓冲区高水位(字节,超过时通道不可写并暂停读取)
+         */
+        private Integer writeBufferHighWaterMark = 64 * 1024;
+    }
+
+    /**
+     * EventLoop线程模型配置(每个服务端/客户端实例独立创建线程组)
+     */
+    @Data
+    public static class EventLoop implements Serializable {
+        /**
+         * 传输类型
+         */
+        private TransportType transport = TransportType.AUTO;
+        /**
+         * 工作线程数(小于等于0时按实例类型取默认值)
+         */
+        private Integer workerThreads = 0;
+        /**
+         * IO处理时间占比(1-100)
+         */
+        private Integer ioRatio = 50;
+        /**
+         * 是否启用SO_REUSEPORT(仅Epoll/io_uring,每个端口绑定多个监听通道)
+         */
+        private boolean reusePort = false;
+        /**
+         * 启用SO_REUSEPORT时每个端口的监听通道数(小于等于0时为CPU核数)
+         */
+        private Integer acceptorsPerPort = 0;
+    }
 }
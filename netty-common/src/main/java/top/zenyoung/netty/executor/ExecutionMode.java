@@ -0,0 +1,21 @@
+package top.zenyoung.netty.executor;
+
+/**
+ * 业务处理执行模式
+ *
+ * @author young
+ */
+public enum ExecutionMode {
+    /**
+     * 在通道EventLoop中直接执行
+     */
+    EVENT_LOOP,
+    /**
+     * 在共享有界线程池中执行
+     */
+    POOL,
+    /**
+     * 每条消息一个虚拟线程(运行环境不支持时退化为共享线程池)
+     */
+    VIRTUAL
+}
@@ -0,0 +1,88 @@
+package top.zenyoung.netty.executor;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import top.zenyoung.netty.config.BaseProperties;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.concurrent.*;
+
+/**
+ * 业务处理执行器工具类
+ * <p>
+ * 同一进程内POOL/VIRTUAL模式的执行器全局共享,按首次获取时的配置创建.
+ * 共享线程池队列满时拒绝提交(不在提交线程即EventLoop中执行),由会话串行执行器延迟重试.
+ * </p>
+ *
+ * @author young
+ */
+@Slf4j
+@UtilityClass
+public class MessageExecutors {
+    private static volatile ExecutorService pool;
+    private static volatile ExecutorService virtual;
+
+    /**
+     * 获取业务处理执行器
+     *
+     * @param execution 执行配置
+     * @return 执行器(为空时在EventLoop中执行)
+     */
+    @Nullable
+    public static Executor getExecutor(@Nullable final BaseProperties.Execution execution) {
+        final ExecutionMode mode = Objects.isNull(execution) ? null : execution.getMode();
+        if (Objects.isNull(mode) || mode == ExecutionMode.EVENT_LOOP) {
+            return null;
+        }
+        if (mode == ExecutionMode.VIRTUAL) {
+            final ExecutorService service = getVirtual();
+            if (Objects.nonNull(service)) {
+                return service;
+            }
+        }
+        return getPool(execution);
+    }
+
+    private static ExecutorService getPool(@Nonnull final BaseProperties.Execution execution) {
+        if (Objects.isNull(pool)) {
+            synchronized (MessageExecutors.class) {
+                if (Objects.isNull(pool)) {
+                    final int size = Math.max(execution.getPoolSize(), 1);
+                    final ThreadFactory factory = new ThreadFactoryBuilder()
+                            .setDaemon(true)
+                            .setNameFormat("netty-biz-%d")
+                            .build();
+                    pool = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+                            new LinkedBlockingQueue<>(Math.max(execution.getPoolQueueCapacity(), 1)),
+                            factory, new ThreadPoolExecutor.AbortPolicy());
+                    log.info("getPool-创建共享业务线程池: {}", size);
+                }
+            }
+        }
+        return pool;
+    }
+
+    @Nullable
+    private static ExecutorService getVirtual() {
+        if (Objects.isNull(virtual)) {
+            synchronized (MessageExecutors.class) {
+                if (Objects.isNull(virtual)) {
+                    try {
+                        //JDK21+: Executors.newVirtualThreadPerTaskExecutor()
+                        final Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                        virtual = (ExecutorService) method.invoke(null);
+                        log.info("getVirtual-启用虚拟线程执行器.");
+                    } catch (Throwable ex) {
+                        log.warn("getVirtual-运行环境不支持虚拟线程,使用共享线程池-exp: {}", ex.getMessage());
+                        return null;
+                    }
+                }
+            }
+        }
+        return virtual;
+    }
+}
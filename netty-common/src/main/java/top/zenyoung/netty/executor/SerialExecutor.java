@@ -0,0 +1,104 @@
+package top.zenyoung.netty.executor;
+
+import io.netty.channel.Channel;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 会话串行执行器
+ * <p>
+ * 同一会话的任务按提交顺序在目标执行器中逐个执行,不会回落到EventLoop线程执行.
+ * 读取背压由{@link top.zenyoung.netty.handler.ReadFlowControlHandler}按在途消息数驱动;
+ * 本执行器仅对待处理任务数设置硬上限,超过时拒绝提交.目标执行器拒绝时延迟重试,期间任务在会话队列中积压,
+ * 在途消息随之增长并暂停该会话的读取.
+ * </p>
+ *
+ * @author young
+ */
+@Slf4j
+public class SerialExecutor implements Executor {
+    private static final int MAX_BATCH = 64;
+    private static final long RETRY_DELAY_MILLIS = 10;
+    private final Channel channel;
+    private final Executor delegate;
+    private final int maxPending;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger(0);
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public SerialExecutor(@Nonnull final Channel channel, @Nonnull final Executor delegate, final int queueSize) {
+        this.channel = channel;
+        this.delegate = delegate;
+        this.maxPending = Math.max(queueSize, 1);
+    }
+
+    @Override
+    public void execute(@Nonnull final Runnable task) {
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            throw new RejectedExecutionException("会话待处理任务超过上限: " + maxPending);
+        }
+        tasks.offer(task);
+        schedule();
+    }
+
+    /**
+     * 获取待处理任务数
+     *
+     * @return 待处理任务数
+     */
+    public int getPending() {
+        return pending.get();
+    }
+
+    private void schedule() {
+        if (running.compareAndSet(false, true)) {
+            try {
+                delegate.execute(this::drain);
+            } catch (RejectedExecutionException ex) {
+                running.set(false);
+                log.warn("schedule[{}]-业务线程池已满,延迟重试-exp: {}", channel.id().asShortText(), ex.getMessage());
+                retry();
+            }
+        }
+    }
+
+    private void retry() {
+        try {
+            channel.eventLoop().schedule(this::schedule, RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            log.error("retry[{}]-EventLoop已关闭,待处理任务: {}-exp: {}", channel.id().asShortText(), pending.get(), ex.getMessage());
+        }
+    }
+
+    private void drain() {
+        try {
+            Runnable task;
+            int count = 0;
+            while (count++ < MAX_BATCH && Objects.nonNull(task = tasks.poll())) {
+                try {
+                    task.run();
+                } catch (Throwable ex) {
+                    log.error("drain[{}]-执行任务异常-exp: {}", channel.id().asShortText(), ex.getMessage());
+                } finally {
+                    pending.decrementAndGet();
+                }
+            }
+        } finally {
+            running.set(false);
+        }
+        //批次结束仍有任务时重新提交,避免长期占用共享线程
+        if (!tasks.isEmpty()) {
+            schedule();
+        }
+    }
+}
@@ -4,11 +4,17 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.handler.timeout.IdleState;
 import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.util.ReferenceCountUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.Assert;
 import top.zenyoung.netty.codec.Message;
+import top.zenyoung.netty.config.BaseProperties;
+import top.zenyoung.netty.executor.MessageExecutors;
+import top.zenyoung.netty.executor.SerialExecutor;
+import top.zenyoung.netty.metrics.NettyMetricsRegistry;
 import top.zenyoung.netty.session.Session;
 import top.zenyoung.netty.session.SessionFactory;
+import top.zenyoung.netty.session.SessionRegistry;
 import top.zenyoung.netty.strategy.StrategyHandlerFactory;
 import top.zenyoung.netty.util.NettyUtils;
 import top.zenyoung.netty.util.ScopeUtils;
@@ -17,6 +23,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
@@ -30,6 +37,8 @@ import java.util.function.BiConsumer;
 public abstract class BaseSocketHandler<M extends Message> extends ChannelInboundHandlerAdapter {
     private final AtomicLong heartbeatTotals = new AtomicLong(0L);
     private final AtomicReference<Session> refSession = new AtomicReference<>(null);
+    private SerialExecutor serialExecutor;
+    private boolean serialExecutorInited = false;
 
     /**
      * 获取会话对象
@@ -48,6 +57,55 @@ public abstract class BaseSocketHandler<M extends Message> extends ChannelInboun
      */
     protected abstract Integer getHeartbeatTimeoutTotal();
 
+    /**
+     * 获取会话注册中心
+     *
+     * @return 会话注册中心(为空时不注册)
+     */
+    @Nullable
+    protected SessionRegistry getSessionRegistry() {
+        return SessionRegistry.DEFAULT;
+    }
+
+    /**
+     * 获取指标注册中心
+     *
+     * @return 指标注册中心(为空时不统计)
+     */
+    @Nullable
+    protected NettyMetricsRegistry getMetricsRegistry() {
+        return NettyMetricsRegistry.DEFAULT;
+    }
+
+    /**
+     * 获取业务处理执行配置
+     *
+     * @return 执行配置(为空时在EventLoop中执行)
+     */
+    @Nullable
+    protected BaseProperties.Execution getExecution() {
+        return null;
+    }
+
+    /**
+     * 获取会话串行执行器(仅在EventLoop中调用)
+     *
+     * @param ctx 通道上下文
+     * @return 串行执行器(为空时在EventLoop中执行)
+     */
+    @Nullable
+    private Executor getSerialExecutor(@Nonnull final ChannelHandlerContext ctx) {
+        if (!serialExecutorInited) {
+            serialExecutorInited = true;
+            final BaseProperties.Execution execution = getExecution();
+            final Executor executor = MessageExecutors.getExecutor(execution);
+            if (Objects.nonNull(execution) && Objects.nonNull(executor)) {
+                serialExecutor = new SerialExecutor(ctx.channel(), executor, execution.getSessionQueueSize());
+            }
+        }
+        return serialExecutor;
+    }
+
     /**
      * 检查是否需要支持Scope prototype
      */
@@ -91,7 +149,7 @@ public abstract class BaseSocketHandler<M extends Message> extends ChannelInboun
 
     @Override
     public void channelActive(final ChannelHandlerContext ctx) {
-        if (Objects.nonNull(ctx) && !ctx.channel().config().isAutoRead()) {
+        if (Objects.nonNull(ctx) && !ctx.channel().config().isAutoRead() && !ReadFlowControlHandler.isPresent(ctx.channel())) {
             ctx.read();
         }
     }
@@ -104,35 +162,82 @@ public abstract class BaseSocketHandler<M extends Message> extends ChannelInboun
             super.channelRead(ctx, msg);
             return;
         }
-        final long start = System.currentTimeMillis();
-        try {
-            //检查心跳超时
-            if (heartbeatTotals.get() > 0) {
-                heartbeatTotals.set(0);
+        //检查心跳超时
+        if (heartbeatTotals.get() > 0) {
+            heartbeatTotals.set(0);
+        }
+        //检查是否已创建会话
+        if (Objects.isNull(getSession())) {
+            //设备ID转换
+            final String deviceId = buildSessionBefore(data);
+            //创建会话
+            final Session session = SessionFactory.of(ctx.channel(), deviceId);
+            try {
+                //存储会话
+                this.buildSessionAfter(session);
+            } finally {
+                refSession.set(session);
+                Optional.ofNullable(getSessionRegistry())
+                        .ifPresent(registry -> registry.register(session));
             }
-            //检查是否已创建会话
-            if (Objects.isNull(getSession())) {
-                //设备ID转换
-                final String deviceId = buildSessionBefore(data);
-                //创建会话
-                final Session session = SessionFactory.of(ctx.channel(), deviceId);
+        }
+        //调用业务处理
+        ReadFlowControlHandler.begin(ctx.channel());
+        final Executor executor = getSerialExecutor(ctx);
+        if (Objects.isNull(executor)) {
+            this.messageProcess(ctx, data);
+            return;
+        }
+        try {
+            executor.execute(() -> {
                 try {
-                    //存储会话
-                    this.buildSessionAfter(session);
-                } finally {
-                    refSession.set(session);
+                    this.messageProcess(ctx, data);
+                } catch (Throwable ex) {
+                    ctx.executor().execute(() -> this.exceptionCaught(ctx, ex));
                 }
-                //调用业务处理
-                this.messageReceived(ctx, data);
-                return;
-            }
-            //调用业务处理
+            });
+        } catch (Throwable ex) {
+            ReadFlowControlHandler.end(ctx.channel());
+            ReferenceCountUtil.release(data);
+            throw ex;
+        }
+    }
+
+    /**
+     * 消息处理,处理完成后释放入站消息(引用计数类型).
+     * 业务处理器如需在返回后继续使用消息(异步处理、作为响应返回或持有其payload切片),须先调用retain().
+     *
+     * @param ctx  上下文
+     * @param data 消息数据
+     */
+    private void messageProcess(@Nonnull final ChannelHandlerContext ctx, @Nonnull final M data) {
+        //消息处理后可能已释放,需提前读取指令
+        final String command = data.getCommand();
+        final NettyMetricsRegistry metrics = getMetricsRegistry();
+        //指令由对端上送,仅已注册处理器的指令单独统计
+        final String metricsCommand = Objects.isNull(metrics) ? null : getMetricsCommand(data, command);
+        final long start = System.nanoTime();
+        try {
             this.messageReceived(ctx, data);
         } finally {
-            final long totals = System.currentTimeMillis() - start;
-            final String channelId = NettyUtils.getChannelId(ctx);
-            log.info("[{}][session:{}]消息通道[{}]处理耗时: {}ms", data.getCommand(), getSession(), channelId, totals);
+            ReadFlowControlHandler.end(ctx.channel());
+            final long nanos = System.nanoTime() - start;
+            if (Objects.nonNull(metrics)) {
+                metrics.recordCommand(metricsCommand, nanos);
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("[{}][session:{}]消息通道[{}]处理耗时: {}μs", command, getSession(), NettyUtils.getChannelId(ctx), nanos / 1000);
+            }
+            ReferenceCountUtil.release(data);
+        }
+    }
+
+    private String getMetricsCommand(@Nonnull final M data, @Nullable final String command) {
+        final StrategyHandlerFactory handlerFactory = getStrategyHandlerFactory();
+        if (Objects.nonNull(handlerFactory) && handlerFactory.isRegistered(data)) {
+            return command;
         }
+        return NettyMetricsRegistry.UNKNOWN_COMMAND;
     }
 
     @Nullable
@@ -172,12 +277,17 @@ public abstract class BaseSocketHandler<M extends Message> extends ChannelInboun
             if (Objects.isNull(callback)) {
                 return;
             }
-            //发送反馈消息
-            NettyUtils.writeAndFlush(ctx, callback, f -> {
+            //发送反馈消息(业务在线程池中处理时切回EventLoop写出)
+            final Runnable writeHandler = () -> NettyUtils.writeAndFlush(ctx, callback, f -> {
                 final boolean ret = f.isSuccess();
                 log.info("[{}][{}]发送消息反馈[deviceId: {}]=> {}", callback.getCommand(), prefix, callback.getDeviceId(),
                         (ret ? "成功" : "失败," + f.cause().getMessage()));
             });
+            if (ctx.executor().inEventLoop()) {
+                writeHandler.run();
+            } else {
+                ctx.executor().execute(writeHandler);
+            }
         };
         //获取当前会话
         final Session session = getSession();
@@ -205,7 +315,7 @@ public abstract class BaseSocketHandler<M extends Message> extends ChannelInboun
     protected abstract StrategyHandlerFactory getStrategyHandlerFactory();
 
     /**
-     * 全局业务策略处理器
+     * 全局业务策略处理器(请求消息在处理完成后释放,返回请求本身或异步使用时须先retain())
      *
      * @param session Session会话
      * @param req     请求数据
@@ -1,77 +1,107 @@
 package top.zenyoung.netty.handler;
 
-import com.google.common.base.Splitter;
-import com.google.common.base.Strings;
-import com.google.common.collect.Lists;
+import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
-import io.netty.handler.ipfilter.IpFilterRule;
-import io.netty.handler.ipfilter.IpFilterRuleType;
-import io.netty.handler.ipfilter.IpSubnetFilterRule;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.util.CollectionUtils;
 import top.zenyoung.netty.config.BaseProperties;
+import top.zenyoung.netty.ipfilter.IpAddrFilter;
+import top.zenyoung.netty.metrics.NettyMetricsRegistry;
+import top.zenyoung.netty.metrics.PortMetrics;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
-import java.util.Collection;
-import java.util.List;
+import java.net.SocketAddress;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * IP地址过滤器
+ * <p>
+ * 共享处理器,名单取自{@link BaseProperties#getIpAddrFilter()},运行时变更即时生效.
+ * 拒绝连接数同时按监听端口记入{@link NettyMetricsRegistry}(JMX/Micrometer导出).
+ * </p>
  *
  * @author young
  */
 @Slf4j
+@ChannelHandler.Sharable
 public class IpAddrFilterHandler extends ChannelInboundHandlerAdapter {
-    private final List<IpFilterRule> backRules;
-    private final List<IpFilterRule> whiteRules;
+    private final BaseProperties properties;
+    private final LongAdder rejectedBlackList = new LongAdder();
+    private final LongAdder rejectedWhiteList = new LongAdder();
+    private final NettyMetricsRegistry metricsRegistry;
 
     public IpAddrFilterHandler(@Nonnull final BaseProperties properties) {
-        this.backRules = splitToRules(properties.getIpAddrBlackList(), IpFilterRuleType.REJECT);
-        this.whiteRules = splitToRules(properties.getIpAddrWhiteList(), IpFilterRuleType.ACCEPT);
+        this(properties, null);
+    }
+
+    public IpAddrFilterHandler(@Nonnull final BaseProperties properties, @Nullable final NettyMetricsRegistry metricsRegistry) {
+        this.properties = properties;
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    /**
+     * 黑名单拒绝连接数
+     *
+     * @return 拒绝连接数
+     */
+    public long getRejectedBlackList() {
+        return rejectedBlackList.sum();
+    }
+
+    /**
+     * 不在白名单拒绝连接数
+     *
+     * @return 拒绝连接数
+     */
+    public long getRejectedWhiteList() {
+        return rejectedWhiteList.sum();
     }
 
     @Override
     public void channelActive(final ChannelHandlerContext ctx) throws Exception {
+        final IpAddrFilter filter = properties.getIpAddrFilter();
         //黑,白名单都不存在则全部放行
-        if (CollectionUtils.isEmpty(this.backRules) && CollectionUtils.isEmpty(this.whiteRules)) {
+        if (filter.isEmpty()) {
             super.channelActive(ctx);
             return;
         }
-        final InetSocketAddress clientAddr = (InetSocketAddress) ctx.channel().remoteAddress();
+        final SocketAddress remoteAddr = ctx.channel().remoteAddress();
+        final InetAddress clientAddr = remoteAddr instanceof InetSocketAddress addr ? addr.getAddress() : null;
         if (Objects.isNull(clientAddr)) {
-            throw new IllegalStateException("客户端IP地址不存在! " + ctx.channel());
+            ctx.close();
+            log.warn("客户端IP地址不存在! {}", ctx.channel());
+            return;
         }
         //检查黑名单
-        if (!CollectionUtils.isEmpty(this.backRules)) {
-            for (IpFilterRule rule : this.backRules) {
-                if (rule.matches(clientAddr)) {
-                    //关闭通道
-                    ctx.close();
-                    throw new IllegalStateException("IP[" + clientAddr.getHostName() + "]属于黑名单禁止访问!");
-                }
-            }
+        if (filter.isBlocked(clientAddr)) {
+            rejectedBlackList.increment();
+            Optional.ofNullable(getPortMetrics(ctx)).ifPresent(PortMetrics::rejectedByBlackList);
+            ctx.close();
+            log.warn("IP[{}]属于黑名单禁止访问!", clientAddr.getHostAddress());
+            return;
         }
         //检查白名单
-        if (CollectionUtils.isEmpty(this.whiteRules)) {
-            //白名单为空,全部放行
-            super.channelActive(ctx);
+        if (!filter.isAllowed(clientAddr)) {
+            rejectedWhiteList.increment();
+            Optional.ofNullable(getPortMetrics(ctx)).ifPresent(PortMetrics::rejectedByWhiteList);
+            ctx.close();
+            log.warn("IP[{}]不在白名单内,禁止访问!", clientAddr.getHostAddress());
             return;
         }
-        //白名单处理
-        for (IpFilterRule rule : this.whiteRules) {
-            if (rule.matches(clientAddr)) {
-                //在白名单中,放行
-                super.channelActive(ctx);
-                break;
-            }
+        super.channelActive(ctx);
+    }
+
+    @Nullable
+    private PortMetrics getPortMetrics(@Nonnull final ChannelHandlerContext ctx) {
+        if (Objects.nonNull(metricsRegistry) && ctx.channel().localAddress() instanceof InetSocketAddress addr) {
+            return metricsRegistry.port(addr.getPort());
         }
-        //不在白名单内的,关闭通道
-        ctx.close();
-        throw new IllegalStateException("IP[" + clientAddr.getHostName() + "]不在白名单内,禁止访问!");
+        return null;
     }
 
     @Override
@@ -81,27 +111,4 @@ public class IpAddrFilterHandler extends ChannelInboundHandlerAdapter {
         }
         super.exceptionCaught(ctx, cause);
     }
-
-    private List<IpFilterRule> splitToRules(@Nonnull final List<String> ipAddrs, @Nonnull final IpFilterRuleType ruleType) {
-        if (CollectionUtils.isEmpty(ipAddrs)) {
-            return Lists.newArrayList();
-        }
-        final String sep = ",";
-        return ipAddrs.stream()
-                .map(ip -> {
-                    if (!Strings.isNullOrEmpty(ip)) {
-                        if (ip.contains(sep)) {
-                            return Splitter.on(sep).omitEmptyStrings().trimResults().splitToList(ip);
-                        }
-                        return Lists.newArrayList(ip);
-                    }
-                    return null;
-                })
-                .filter(Objects::nonNull)
-                .flatMap(Collection::stream)
-                .filter(ip -> !Strings.isNullOrEmpty(ip))
-                .distinct()
-                .map(ip -> new IpSubnetFilterRule(ip, 0, ruleType))
-                .collect(Collectors.toList());
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,171 @@
+package top.zenyoung.netty.handler;
+
+import com.google.common.base.Preconditions;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.AttributeKey;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 入站流量控制处理器(AUTO_READ关闭时使用)
+ * <p>
+ * 由本处理器统一发起读取: 每轮读取完成后,仅当在途消息数低于高水位且出站缓冲区可写时才继续读取;
+ * 否则暂停,待在途消息回落至低水位且通道可写时恢复.在途消息由业务处理器通过{@link #begin(Channel)}/{@link #end(Channel)}登记.
+ * 非共享处理器,每个通道独立实例.
+ * </p>
+ *
+ * @author young
+ */
+@Slf4j
+public class ReadFlowControlHandler extends ChannelInboundHandlerAdapter {
+    private static final AttributeKey<ReadFlowControlHandler> KEY = AttributeKey.valueOf(ReadFlowControlHandler.class, "flowControl");
+    private final int highWaterMark;
+    private final int lowWaterMark;
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+    private volatile boolean paused = false;
+    private ChannelHandlerContext ctx;
+
+    /**
+     * 构造函数
+     *
+     * @param highWaterMark 在途消息高水位(达到时暂停读取)
+     * @param lowWaterMark  在途消息低水位(回落至此恢复读取)
+     */
+    public ReadFlowControlHandler(final int highWaterMark, final int lowWaterMark) {
+        Preconditions.checkArgument(highWaterMark > 0, "highWaterMark必须大于0");
+        Preconditions.checkArgument(lowWaterMark >= 0 && lowWaterMark < highWaterMark, "lowWaterMark必须在[0,highWaterMark)之间");
+        this.highWaterMark = highWaterMark;
+        this.lowWaterMark = lowWaterMark;
+    }
+
+    @Nullable
+    private static ReadFlowControlHandler get(@Nullable final Channel channel) {
+        return Objects.isNull(channel) ? null : channel.attr(KEY).get();
+    }
+
+    /**
+     * 通道是否已挂载流量控制
+     *
+     * @param channel 通道
+     * @return 是否已挂载
+     */
+    public static boolean isPresent(@Nullable final Channel channel) {
+        return Objects.nonNull(get(channel));
+    }
+
+    /**
+     * 登记在途消息
+     *
+     * @param channel 通道
+     */
+    public static void begin(@Nonnull final Channel channel) {
+        final ReadFlowControlHandler handler = get(channel);
+        if (Objects.nonNull(handler)) {
+            handler.inFlight.incrementAndGet();
+        }
+    }
+
+    /**
+     * 在途消息处理完成
+     *
+     * @param channel 通道
+     */
+    public static void end(@Nonnull final Channel channel) {
+        final ReadFlowControlHandler handler = get(channel);
+        if (Objects.nonNull(handler) && handler.inFlight.decrementAndGet() <= handler.lowWaterMark) {
+            handler.tryResume();
+        }
+    }
+
+    /**
+     * 获取在途消息数
+     *
+     * @return 在途消息数
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * 是否已暂停读取
+     *
+     * @return 是否暂停
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+
+    @Override
+    public void handlerAdded(final ChannelHandlerContext ctx) {
+        this.ctx = ctx;
+        ctx.channel().attr(KEY).set(this);
+    }
+
+    @Override
+    public void handlerRemoved(final ChannelHandlerContext ctx) {
+        ctx.channel().attr(KEY).set(null);
+    }
+
+    @Override
+    public void channelActive(final ChannelHandlerContext ctx) {
+        ctx.read();
+        ctx.fireChannelActive();
+    }
+
+    @Override
+    public void channelReadComplete(final ChannelHandlerContext ctx) {
+        //先置暂停再检查,与end()中的先递减再检查配对,保证并发完成时不会丢失恢复
+        final boolean wasPaused = paused;
+        paused = true;
+        if (canRead()) {
+            paused = false;
+            ctx.read();
+        } else if (!wasPaused) {
+            log.debug("channelReadComplete[{}]-暂停读取(inFlight: {},writable: {})", ctx.channel().id().asShortText(),
+                    inFlight.get(), ctx.channel().isWritable());
+        }
+        ctx.fireChannelReadComplete();
+    }
+
+    @Override
+    public void channelWritabilityChanged(final ChannelHandlerContext ctx) {
+        if (ctx.channel().isWritable()) {
+            tryResume();
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    private boolean canRead() {
+        return inFlight.get() < highWaterMark && ctx.channel().isWritable();
+    }
+
+    private boolean canResume() {
+        return inFlight.get() <= lowWaterMark && ctx.channel().isWritable();
+    }
+
+    private void tryResume() {
+        final ChannelHandlerContext context = ctx;
+        if (!paused || Objects.isNull(context)) {
+            return;
+        }
+        if (context.executor().inEventLoop()) {
+            resume();
+        } else {
+            context.executor().execute(this::resume);
+        }
+    }
+
+    private void resume() {
+        if (paused && canResume()) {
+            paused = false;
+            log.debug("resume[{}]-恢复读取(inFlight: {})", ctx.channel().id().asShortText(), inFlight.get());
+            ctx.read();
+        }
+    }
+}
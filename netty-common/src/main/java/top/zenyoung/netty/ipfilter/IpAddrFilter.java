@@ -0,0 +1,216 @@
+package top.zenyoung.netty.ipfilter;
+
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.net.InetAddress;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * IP地址黑/白名单
+ * <p>
+ * 名单以不可变前缀树保存,读取无锁;运行时增删在锁内构建新前缀树后整体替换(写时复制).
+ * </p>
+ *
+ * @author young
+ */
+@Slf4j
+public class IpAddrFilter {
+    private static final Splitter SPLITTER = Splitter.on(",").omitEmptyStrings().trimResults();
+    private volatile IpSubnetTrie blackList;
+    private volatile IpSubnetTrie whiteList;
+
+    /**
+     * 构造函数
+     *
+     * @param blackList 黑名单(IP或CIDR网段,支持逗号分隔)
+     * @param whiteList 白名单(IP或CIDR网段,支持逗号分隔)
+     */
+    public IpAddrFilter(@Nullable final Collection<String> blackList, @Nullable final Collection<String> whiteList) {
+        this.blackList = build(blackList);
+        this.whiteList = build(whiteList);
+    }
+
+    private static IpSubnetTrie build(@Nullable final Collection<String> items) {
+        IpSubnetTrie trie = IpSubnetTrie.empty();
+        if (Objects.isNull(items)) {
+            return trie;
+        }
+        for (final String item : items) {
+            if (Strings.isNullOrEmpty(item)) {
+                continue;
+            }
+            for (final String cidr : SPLITTER.split(item)) {
+                try {
+                    trie = trie.add(cidr);
+                } catch (IllegalArgumentException ex) {
+                    log.warn("build(cidr: {})-exp: {}", cidr, ex.getMessage());
+                }
+            }
+        }
+        return trie;
+    }
+
+    /**
+     * 黑/白名单是否均为空
+     *
+     * @return 是否为空
+     */
+    public boolean isEmpty() {
+        return blackList.isEmpty() && whiteList.isEmpty();
+    }
+
+    /**
+     * IP地址是否在黑名单内
+     *
+     * @param address IP地址
+     * @return 是否禁止
+     */
+    public boolean isBlocked(@Nonnull final InetAddress address) {
+        final IpSubnetTrie trie = blackList;
+        return !trie.isEmpty() && trie.matches(address);
+    }
+
+    /**
+     * IP地址是否被白名单放行(白名单为空时全部放行)
+     *
+     * @param address IP地址
+     * @return 是否放行
+     */
+    public boolean isAllowed(@Nonnull final InetAddress address) {
+        final IpSubnetTrie trie = whiteList;
+        return trie.isEmpty() || trie.matches(address);
+    }
+
+    /**
+     * 黑名单是否包含IP地址或网段
+     *
+     * @param cidr IP地址或网段
+     * @return 是否包含
+     */
+    public boolean inBlackList(@Nonnull final String cidr) {
+        return contains(blackList, cidr);
+    }
+
+    /**
+     * 白名单是否包含IP地址或网段
+     *
+     * @param cidr IP地址或网段
+     * @return 是否包含
+     */
+    public boolean inWhiteList(@Nonnull final String cidr) {
+        return contains(whiteList, cidr);
+    }
+
+    private static boolean contains(@Nonnull final IpSubnetTrie trie, @Nonnull final String cidr) {
+        try {
+            return !trie.isEmpty() && trie.contains(cidr);
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * 添加到黑名单
+     *
+     * @param cidr IP地址或网段
+     * @return 是否成功
+     */
+    public synchronized boolean addBlackList(@Nonnull final String cidr) {
+        try {
+            blackList = blackList.add(cidr);
+            return true;
+        } catch (IllegalArgumentException ex) {
+            log.warn("addBlackList(cidr: {})-exp: {}", cidr, ex.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 从黑名单中移除
+     *
+     * @param cidr IP地址或网段
+     * @return 是否成功
+     */
+    public synchronized boolean removeBlackList(@Nonnull final String cidr) {
+        try {
+            blackList = blackList.remove(cidr);
+            return true;
+        } catch (IllegalArgumentException ex) {
+            log.warn("removeBlackList(cidr: {})-exp: {}", cidr, ex.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 添加到白名单
+     *
+     * @param cidr IP地址或网段
+     * @return 是否成功
+     */
+    public synchronized boolean addWhiteList(@Nonnull final String cidr) {
+        try {
+            whiteList = whiteList.add(cidr);
+            return true;
+        } catch (IllegalArgumentException ex) {
+            log.warn("addWhiteList(cidr: {})-exp: {}", cidr, ex.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 从白名单中移除
+     *
+     * @param cidr IP地址或网段
+     * @return 是否成功
+     */
+    public synchronized boolean removeWhiteList(@Nonnull final String cidr) {
+        try {
+            whiteList = whiteList.remove(cidr);
+            return true;
+        } catch (IllegalArgumentException ex) {
+            log.warn("removeWhiteList(cidr: {})-exp: {}", cidr, ex.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 替换黑名单
+     *
+     * @param items 黑名单
+     */
+    public synchronized void resetBlackList(@Nullable final Collection<String> items) {
+        blackList = build(items);
+    }
+
+    /**
+     * 替换白名单
+     *
+     * @param items 白名单
+     */
+    public synchronized void resetWhiteList(@Nullable final Collection<String> items) {
+        whiteList = build(items);
+    }
+
+    /**
+     * 黑名单条目数
+     *
+     * @return 条目数
+     */
+    public int blackListSize() {
+        return blackList.size();
+    }
+
+    /**
+     * 白名单条目数
+     *
+     * @return 条目数
+     */
+    public int whiteListSize() {
+        return whiteList.size();
+    }
+}
@@ -0,0 +1,314 @@
+package top.zenyoung.netty.ipfilter;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import io.netty.util.NetUtil;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * IP网段前缀树(路径压缩二叉树,支持IPv4/IPv6 CIDR)
+ * <p>
+ * 不可变对象: 增删返回新实例并共享未变更的节点(写时复制),可在多线程间安全共享.
+ * 查找按地址位逐级比较,复杂度为O(前缀位数),与网段数量无关.
+ * </p>
+ *
+ * @author young
+ */
+public final class IpSubnetTrie {
+    private static final IpSubnetTrie EMPTY = new IpSubnetTrie(null, null, 0);
+    private static final int IPV4_LENGTH = 4;
+    private static final int IPV6_LENGTH = 16;
+    private static final int IPV4_MAPPED_PREFIX = 96;
+
+    private final Node v4;
+    private final Node v6;
+    private final int size;
+
+    private IpSubnetTrie(@Nullable final Node v4, @Nullable final Node v6, final int size) {
+        this.v4 = v4;
+        this.v6 = v6;
+        this.size = size;
+    }
+
+    /**
+     * 获取空前缀树
+     *
+     * @return 空前缀树
+     */
+    public static IpSubnetTrie empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 网段数量
+     *
+     * @return 网段数量
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 是否为空
+     *
+     * @return 是否为空
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 添加网段
+     *
+     * @param cidr IP地址或网段(如: 192.168.1.1,10.0.0.0/8,2001:db8::/32)
+     * @return 新前缀树
+     * @throws IllegalArgumentException 格式错误
+     */
+    public IpSubnetTrie add(@Nonnull final String cidr) {
+        final Subnet subnet = Subnet.parse(cidr);
+        final Node root = root(subnet.address.length);
+        final Node added = insert(root, subnet.address, subnet.prefix);
+        return added == root ? this : with(subnet.address.length, added, size + 1);
+    }
+
+    /**
+     * 移除网段
+     *
+     * @param cidr IP地址或网段
+     * @return 新前缀树
+     * @throws IllegalArgumentException 格式错误
+     */
+    public IpSubnetTrie remove(@Nonnull final String cidr) {
+        final Subnet subnet = Subnet.parse(cidr);
+        final Node root = root(subnet.address.length);
+        final Node removed = remove(root, subnet.address, subnet.prefix);
+        return removed == root ? this : with(subnet.address.length, removed, size - 1);
+    }
+
+    /**
+     * 是否包含网段(精确匹配已添加的网段)
+     *
+     * @param cidr IP地址或网段
+     * @return 是否包含
+     * @throws IllegalArgumentException 格式错误
+     */
+    public boolean contains(@Nonnull final String cidr) {
+        final Subnet subnet = Subnet.parse(cidr);
+        Node node = root(subnet.address.length);
+        while (Objects.nonNull(node) && node.bits <= subnet.prefix
+                && commonPrefix(node.key, subnet.address, 0, node.bits) == node.bits) {
+            if (node.bits == subnet.prefix) {
+                return node.terminal;
+            }
+            node = node.child(bit(subnet.address, node.bits));
+        }
+        return false;
+    }
+
+    /**
+     * IP地址是否落在任一网段内
+     *
+     * @param address IP地址
+     * @return 是否匹配
+     */
+    public boolean matches(@Nonnull final InetAddress address) {
+        return matches(address.getAddress());
+    }
+
+    /**
+     * IP地址是否落在任一网段内
+     *
+     * @param address IP地址字节(4或16字节)
+     * @return 是否匹配
+     */
+    public boolean matches(@Nonnull final byte[] address) {
+        final byte[] addr = normalize(address);
+        final int maxBits = addr.length * 8;
+        Node node = root(addr.length);
+        int checked = 0;
+        while (Objects.nonNull(node)) {
+            if (commonPrefix(node.key, addr, checked, node.bits) < node.bits) {
+                return false;
+            }
+            if (node.terminal) {
+                return true;
+            }
+            if (node.bits >= maxBits) {
+                return false;
+            }
+            checked = node.bits;
+            node = node.child(bit(addr, node.bits));
+        }
+        return false;
+    }
+
+    @Nullable
+    private Node root(final int length) {
+        return length == IPV4_LENGTH ? v4 : v6;
+    }
+
+    private IpSubnetTrie with(final int length, @Nullable final Node root, final int size) {
+        if (size == 0) {
+            return EMPTY;
+        }
+        return length == IPV4_LENGTH ? new IpSubnetTrie(root, v6, size) : new IpSubnetTrie(v4, root, size);
+    }
+
+    private static Node insert(@Nullable final Node node, @Nonnull final byte[] key, final int bits) {
+        if (Objects.isNull(node)) {
+            return new Node(key, bits, true, null, null);
+        }
+        final int common = commonPrefix(node.key, key, 0, Math.min(node.bits, bits));
+        if (common == node.bits) {
+            if (bits == node.bits) {
+                return node.terminal ? node : node.withTerminal(true);
+            }
+            final int b = bit(key, node.bits);
+            final Node child = node.child(b);
+            final Node added = insert(child, key, bits);
+            return added == child ? node : node.withChild(b, added);
+        }
+        //新网段是当前节点的前缀
+        if (common == bits) {
+            return bit(node.key, bits) == 0
+                    ? new Node(key, bits, true, node, null)
+                    : new Node(key, bits, true, null, node);
+        }
+        //在分叉位插入中间节点
+        final Node leaf = new Node(key, bits, true, null, null);
+        return bit(key, common) == 0
+                ? new Node(key, common, false, leaf, node)
+                : new Node(key, common, false, node, leaf);
+    }
+
+    @Nullable
+    private static Node remove(@Nullable final Node node, @Nonnull final byte[] key, final int bits) {
+        if (Objects.isNull(node) || node.bits > bits || commonPrefix(node.key, key, 0, node.bits) < node.bits) {
+            return node;
+        }
+        if (node.bits == bits) {
+            if (!node.terminal) {
+                return node;
+            }
+            if (Objects.nonNull(node.zero) && Objects.nonNull(node.one)) {
+                return node.withTerminal(false);
+            }
+            return Objects.nonNull(node.zero) ? node.zero : node.one;
+        }
+        final int b = bit(key, node.bits);
+        final Node child = node.child(b);
+        final Node removed = remove(child, key, bits);
+        if (removed == child) {
+            return node;
+        }
+        //中间节点只剩一个子节点时合并
+        if (!node.terminal && Objects.isNull(removed)) {
+            return node.child(1 - b);
+        }
+        return node.withChild(b, removed);
+    }
+
+    private static int bit(@Nonnull final byte[] addr, final int idx) {
+        return (addr[idx >>> 3] >>> (7 - (idx & 7))) & 1;
+    }
+
+    /**
+     * 计算[from,limit)范围内的公共前缀位数(调用方保证from之前的位已相同)
+     */
+    private static int commonPrefix(@Nonnull final byte[] a, @Nonnull final byte[] b, final int from, final int limit) {
+        int idx = from;
+        while (idx < limit) {
+            if ((idx & 7) == 0 && limit - idx >= 8) {
+                final int diff = (a[idx >>> 3] ^ b[idx >>> 3]) & 0xFF;
+                if (diff == 0) {
+                    idx += 8;
+                    continue;
+                }
+                return idx + Integer.numberOfLeadingZeros(diff) - 24;
+            }
+            if (bit(a, idx) != bit(b, idx)) {
+                return idx;
+            }
+            idx++;
+        }
+        return limit;
+    }
+
+    /**
+     * IPv4映射的IPv6地址(::ffff:a.b.c.d)转换为IPv4地址
+     */
+    private static byte[] normalize(@Nonnull final byte[] addr) {
+        if (addr.length != IPV6_LENGTH) {
+            return addr;
+        }
+        for (int i = 0; i < 10; i++) {
+            if (addr[i] != 0) {
+                return addr;
+            }
+        }
+        if (addr[10] != (byte) 0xFF || addr[11] != (byte) 0xFF) {
+            return addr;
+        }
+        return new byte[]{addr[12], addr[13], addr[14], addr[15]};
+    }
+
+    private record Node(byte[] key, int bits, boolean terminal, Node zero, Node one) {
+
+        Node child(final int bit) {
+            return bit == 0 ? zero : one;
+        }
+
+        Node withChild(final int bit, @Nullable final Node child) {
+            return bit == 0 ? new Node(key, bits, terminal, child, one) : new Node(key, bits, terminal, zero, child);
+        }
+
+        Node withTerminal(final boolean terminal) {
+            return new Node(key, bits, terminal, zero, one);
+        }
+    }
+
+    private record Subnet(byte[] address, int prefix) {
+
+        static Subnet parse(@Nonnull final String cidr) {
+            final String val = cidr.trim();
+            Preconditions.checkArgument(!Strings.isNullOrEmpty(val), "IP地址不能为空");
+            final int idx = val.indexOf('/');
+            final String host = idx < 0 ? val : val.substring(0, idx).trim();
+            final byte[] parsed = NetUtil.createByteArrayFromIpAddressString(host);
+            Preconditions.checkArgument(Objects.nonNull(parsed), "IP地址格式错误: %s", cidr);
+            final int maxBits = parsed.length * 8;
+            int prefix = maxBits;
+            if (idx >= 0) {
+                try {
+                    prefix = Integer.parseInt(val.substring(idx + 1).trim());
+                } catch (NumberFormatException ex) {
+                    throw new IllegalArgumentException("网段前缀格式错误: " + cidr, ex);
+                }
+            }
+            Preconditions.checkArgument(prefix >= 0 && prefix <= maxBits, "网段前缀超出范围: %s", cidr);
+            byte[] addr = normalize(parsed);
+            if (addr.length != parsed.length) {
+                //IPv4映射地址的前缀小于96位时无法转换为IPv4网段
+                if (prefix < IPV4_MAPPED_PREFIX) {
+                    addr = parsed;
+                } else {
+                    prefix -= IPV4_MAPPED_PREFIX;
+                }
+            }
+            //清除前缀之后的主机位
+            for (int i = prefix; i < addr.length * 8; i++) {
+                if ((i & 7) == 0) {
+                    Arrays.fill(addr, i >>> 3, addr.length, (byte) 0);
+                    break;
+                }
+                addr[i >>> 3] &= (byte) ~(0x80 >>> (i & 7));
+            }
+            return new Subnet(addr, prefix);
+        }
+    }
+}
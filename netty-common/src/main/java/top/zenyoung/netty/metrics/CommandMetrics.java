@@ -0,0 +1,106 @@
+package top.zenyoung.netty.metrics;
+
+import com.google.common.collect.Lists;
+import lombok.Getter;
+import lombok.ToString;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+/**
+ * 指令处理指标
+ *
+ * @author young
+ */
+@ToString(onlyExplicitlyIncluded = true)
+public class CommandMetrics implements CommandMetricsMBean {
+    /**
+     * 处理耗时分布桶上限(微秒)
+     */
+    public static final long[] LATENCY_BUCKETS_MICROS = {100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 500_000, 1_000_000};
+
+    @Getter
+    @ToString.Include
+    private final String command;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong(0);
+    private final LongAdder[] buckets;
+    private final List<LongConsumer> listeners = Lists.newCopyOnWriteArrayList();
+
+    public CommandMetrics(@Nonnull final String command) {
+        this.command = command;
+        this.buckets = new LongAdder[LATENCY_BUCKETS_MICROS.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 记录一次处理
+     *
+     * @param nanos 耗时(纳秒)
+     */
+    public void record(final long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        if (nanos > maxNanos.get()) {
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+        final long micros = nanos / 1_000;
+        int idx = 0;
+        while (idx < LATENCY_BUCKETS_MICROS.length && micros > LATENCY_BUCKETS_MICROS[idx]) {
+            idx++;
+        }
+        buckets[idx].increment();
+        for (final LongConsumer listener : listeners) {
+            listener.accept(nanos);
+        }
+    }
+
+    /**
+     * 添加耗时监听器(用于对接外部直方图)
+     *
+     * @param listener 监听器(耗时纳秒)
+     */
+    public void addListener(@Nonnull final LongConsumer listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    @Override
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    @Override
+    public long[] getLatencyBuckets() {
+        final long[] ret = new long[buckets.length];
+        for (int i = 0; i < ret.length; i++) {
+            ret[i] = buckets[i].sum();
+        }
+        return ret;
+    }
+
+    /**
+     * 获取耗时分布桶计数
+     *
+     * @param idx 桶索引
+     * @return 计数
+     */
+    public long getLatencyBucket(final int idx) {
+        return buckets[idx].sum();
+    }
+}
@@ -0,0 +1,36 @@
+package top.zenyoung.netty.metrics;
+
+/**
+ * 指令处理指标MBean
+ *
+ * @author young
+ */
+public interface CommandMetricsMBean {
+    /**
+     * 获取处理次数
+     *
+     * @return 处理次数
+     */
+    long getCount();
+
+    /**
+     * 获取处理总耗时(纳秒)
+     *
+     * @return 总耗时
+     */
+    long getTotalNanos();
+
+    /**
+     * 获取处理最大耗时(纳秒)
+     *
+     * @return 最大耗时
+     */
+    long getMaxNanos();
+
+    /**
+     * 获取处理耗时分布(非累计,与{@link CommandMetrics#LATENCY_BUCKETS_MICROS}对应,最后一项为超出上限)
+     *
+     * @return 耗时分布
+     */
+    long[] getLatencyBuckets();
+}
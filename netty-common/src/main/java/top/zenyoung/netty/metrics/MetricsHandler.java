@@ -0,0 +1,45 @@
+package top.zenyoung.netty.metrics;
+
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import lombok.RequiredArgsConstructor;
+
+import javax.annotation.Nonnull;
+
+/**
+ * 端口连接指标处理器(挂载在编解码器之后,按消息计数)
+ *
+ * @author young
+ */
+@ChannelHandler.Sharable
+@RequiredArgsConstructor
+public class MetricsHandler extends ChannelDuplexHandler {
+    @Nonnull
+    private final PortMetrics metrics;
+
+    @Override
+    public void channelActive(final ChannelHandlerContext ctx) throws Exception {
+        metrics.channelActive();
+        super.channelActive(ctx);
+    }
+
+    @Override
+    public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+        metrics.channelInactive();
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+        metrics.messageRead();
+        super.channelRead(ctx, msg);
+    }
+
+    @Override
+    public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) throws Exception {
+        metrics.messageWritten();
+        super.write(ctx, msg, promise);
+    }
+}
@@ -0,0 +1,76 @@
+package top.zenyoung.netty.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Netty指标-Micrometer绑定
+ * <p>
+ * 指令/端口指标首次出现时自动绑定到MeterRegistry.
+ * </p>
+ *
+ * @author young
+ */
+@RequiredArgsConstructor
+public class NettyMetricsBinder implements MeterBinder {
+    private static final String PREFIX = "netty.";
+    private static final Duration[] COMMAND_SLO = Arrays.stream(CommandMetrics.LATENCY_BUCKETS_MICROS)
+            .mapToObj(micros -> Duration.ofNanos(micros * 1_000))
+            .toArray(Duration[]::new);
+    private final NettyMetricsRegistry registry;
+
+    @Override
+    public void bindTo(@Nonnull final MeterRegistry meterRegistry) {
+        registry.addCommandListener(metrics -> bindCommand(meterRegistry, metrics));
+        registry.addPortListener(metrics -> bindPort(meterRegistry, metrics));
+    }
+
+    private static void bindCommand(@Nonnull final MeterRegistry meterRegistry, @Nonnull final CommandMetrics metrics) {
+        final Tags tags = Tags.of("command", metrics.getCommand());
+        final Timer timer = Timer.builder(PREFIX + "command")
+                .tags(tags)
+                .description("指令处理耗时")
+                .serviceLevelObjectives(COMMAND_SLO)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        metrics.addListener(nanos -> timer.record(nanos, TimeUnit.NANOSECONDS));
+    }
+
+    private static void bindPort(@Nonnull final MeterRegistry meterRegistry, @Nonnull final PortMetrics metrics) {
+        final Tags tags = Tags.of("port", String.valueOf(metrics.getPort()));
+        Gauge.builder(PREFIX + "channels.active", metrics, PortMetrics::getActiveChannels)
+                .tags(tags)
+                .description("活跃连接数")
+                .register(meterRegistry);
+        FunctionCounter.builder(PREFIX + "channels.total", metrics, PortMetrics::getTotalChannels)
+                .tags(tags)
+                .description("累计连接数")
+                .register(meterRegistry);
+        FunctionCounter.builder(PREFIX + "messages.read", metrics, PortMetrics::getMessagesRead)
+                .tags(tags)
+                .description("接收消息数")
+                .register(meterRegistry);
+        FunctionCounter.builder(PREFIX + "messages.written", metrics, PortMetrics::getMessagesWritten)
+                .tags(tags)
+                .description("发送消息数")
+                .register(meterRegistry);
+        FunctionCounter.builder(PREFIX + "ipfilter.rejected", metrics, PortMetrics::getRejectedBlackList)
+                .tags(tags.and("list", "black"))
+                .description("IP过滤拒绝连接数")
+                .register(meterRegistry);
+        FunctionCounter.builder(PREFIX + "ipfilter.rejected", metrics, PortMetrics::getRejectedWhiteList)
+                .tags(tags.and("list", "white"))
+                .description("IP过滤拒绝连接数")
+                .register(meterRegistry);
+    }
+}
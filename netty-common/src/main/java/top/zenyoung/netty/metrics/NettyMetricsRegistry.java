@@ -0,0 +1,149 @@
+package top.zenyoung.netty.metrics;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Netty指标注册中心
+ * <p>
+ * 指令/端口指标首次出现时创建并注册JMX,之后只做一次ConcurrentMap查找,记录过程无对象分配.
+ * 指令由对端上送,调用方应只记录已注册处理器的指令,其余归入{@link #UNKNOWN_COMMAND};
+ * 指令数量达到{@link #MAX_COMMANDS}后新指令同样归入该项,保证指标数量有界.
+ * </p>
+ *
+ * @author young
+ */
+@Slf4j
+public class NettyMetricsRegistry {
+    public static final NettyMetricsRegistry DEFAULT = new NettyMetricsRegistry(true);
+    /**
+     * 未注册指令指标名
+     */
+    public static final String UNKNOWN_COMMAND = "unknown";
+    /**
+     * 指令指标数量上限
+     */
+    public static final int MAX_COMMANDS = 1024;
+    private static final String JMX_DOMAIN = "top.zenyoung.netty";
+
+    private final boolean jmx;
+    private final Map<String, CommandMetrics> commands = Maps.newConcurrentMap();
+    private final Map<Integer, PortMetrics> ports = Maps.newConcurrentMap();
+    private final List<Consumer<CommandMetrics>> commandListeners = Lists.newCopyOnWriteArrayList();
+    private final List<Consumer<PortMetrics>> portListeners = Lists.newCopyOnWriteArrayList();
+
+    public NettyMetricsRegistry(final boolean jmx) {
+        this.jmx = jmx;
+    }
+
+    /**
+     * 获取指令指标
+     *
+     * @param command 指令
+     * @return 指令指标
+     */
+    public CommandMetrics command(@Nonnull final String command) {
+        final CommandMetrics metrics = commands.get(command);
+        if (Objects.nonNull(metrics)) {
+            return metrics;
+        }
+        if (commands.size() >= MAX_COMMANDS && !UNKNOWN_COMMAND.equals(command)) {
+            return command(UNKNOWN_COMMAND);
+        }
+        final CommandMetrics created = new CommandMetrics(command);
+        final CommandMetrics prev = commands.putIfAbsent(command, created);
+        if (Objects.nonNull(prev)) {
+            return prev;
+        }
+        registerMbean(created, "type=CommandMetrics,command=" + ObjectName.quote(command));
+        commandListeners.forEach(listener -> listener.accept(created));
+        return created;
+    }
+
+    /**
+     * 记录指令处理耗时
+     *
+     * @param command 指令(为空时归入{@link #UNKNOWN_COMMAND})
+     * @param nanos   耗时(纳秒)
+     */
+    public void recordCommand(@Nullable final String command, final long nanos) {
+        command(Objects.isNull(command) || command.isEmpty() ? UNKNOWN_COMMAND : command).record(nanos);
+    }
+
+    /**
+     * 获取端口指标
+     *
+     * @param port 端口
+     * @return 端口指标
+     */
+    public PortMetrics port(final int port) {
+        final PortMetrics metrics = ports.get(port);
+        if (Objects.nonNull(metrics)) {
+            return metrics;
+        }
+        final PortMetrics created = new PortMetrics(port);
+        final PortMetrics prev = ports.putIfAbsent(port, created);
+        if (Objects.nonNull(prev)) {
+            return prev;
+        }
+        registerMbean(created, "type=PortMetrics,port=" + port);
+        portListeners.forEach(listener -> listener.accept(created));
+        return created;
+    }
+
+    /**
+     * 添加指令指标监听(立即回放已注册的指标)
+     *
+     * @param listener 监听器
+     */
+    public void addCommandListener(@Nonnull final Consumer<CommandMetrics> listener) {
+        commandListeners.add(listener);
+        commands.values().forEach(listener);
+    }
+
+    /**
+     * 添加端口指标监听(立即回放已注册的指标)
+     *
+     * @param listener 监听器
+     */
+    public void addPortListener(@Nonnull final Consumer<PortMetrics> listener) {
+        portListeners.add(listener);
+        ports.values().forEach(listener);
+    }
+
+    public Collection<CommandMetrics> getCommands() {
+        return Collections.unmodifiableCollection(commands.values());
+    }
+
+    public Collection<PortMetrics> getPorts() {
+        return Collections.unmodifiableCollection(ports.values());
+    }
+
+    private void registerMbean(@Nonnull final Object mbean, @Nonnull final String props) {
+        if (!jmx) {
+            return;
+        }
+        try {
+            final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName name = new ObjectName(JMX_DOMAIN + ":" + props);
+            if (!mBeanServer.isRegistered(name)) {
+                mBeanServer.registerMBean(mbean, name);
+            }
+        } catch (Throwable e) {
+            log.warn("registerMbean[{}]-exp: {}", props, e.getMessage());
+        }
+    }
+}
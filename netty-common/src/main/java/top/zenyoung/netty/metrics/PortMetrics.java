@@ -0,0 +1,89 @@
+package top.zenyoung.netty.metrics;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 端口连接指标
+ *
+ * @author young
+ */
+@ToString(onlyExplicitlyIncluded = true)
+public class PortMetrics implements PortMetricsMBean {
+    @Getter
+    @ToString.Include
+    private final int port;
+    private final LongAdder activeChannels = new LongAdder();
+    private final LongAdder totalChannels = new LongAdder();
+    private final LongAdder messagesRead = new LongAdder();
+    private final LongAdder messagesWritten = new LongAdder();
+    private final LongAdder rejectedBlackList = new LongAdder();
+    private final LongAdder rejectedWhiteList = new LongAdder();
+
+    public PortMetrics(final int port) {
+        this.port = port;
+    }
+
+    void channelActive() {
+        activeChannels.increment();
+        totalChannels.increment();
+    }
+
+    void channelInactive() {
+        activeChannels.decrement();
+    }
+
+    void messageRead() {
+        messagesRead.increment();
+    }
+
+    void messageWritten() {
+        messagesWritten.increment();
+    }
+
+    /**
+     * 记录一次黑名单拒绝连接
+     */
+    public void rejectedByBlackList() {
+        rejectedBlackList.increment();
+    }
+
+    /**
+     * 记录一次不在白名单拒绝连接
+     */
+    public void rejectedByWhiteList() {
+        rejectedWhiteList.increment();
+    }
+
+    @Override
+    public long getActiveChannels() {
+        return activeChannels.sum();
+    }
+
+    @Override
+    public long getTotalChannels() {
+        return totalChannels.sum();
+    }
+
+    @Override
+    public long getMessagesRead() {
+        return messagesRead.sum();
+    }
+
+    @Override
+    public long getMessagesWritten() {
+        return messagesWritten.sum();
+    }
+
+    @Override
+    public long getRejectedBlackList() {
+        return rejectedBlackList.sum();
+    }
+
+    @Override
+    public long getRejectedWhiteList() {
+        return rejectedWhiteList.sum();
+    }
+}
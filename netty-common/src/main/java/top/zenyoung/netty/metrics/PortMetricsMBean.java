@@ -0,0 +1,50 @@
+package top.zenyoung.netty.metrics;
+
+/**
+ * 端口连接指标MBean
+ *
+ * @author young
+ */
+public interface PortMetricsMBean {
+    /**
+     * 获取当前活跃连接数
+     *
+     * @return 活跃连接数
+     */
+    long getActiveChannels();
+
+    /**
+     * 获取累计连接数
+     *
+     * @return 累计连接数
+     */
+    long getTotalChannels();
+
+    /**
+     * 获取累计接收消息数
+     *
+     * @return 接收消息数
+     */
+    long getMessagesRead();
+
+    /**
+     * 获取累计发送消息数
+     *
+     * @return 发送消息数
+     */
+    long getMessagesWritten();
+
+    /**
+     * 获取黑名单拒绝连接数
+     *
+     * @return 拒绝连接数
+     */
+    long getRejectedBlackList();
+
+    /**
+     * 获取不在白名单拒绝连接数
+     *
+     * @return 拒绝连接数
+     */
+    long getRejectedWhiteList();
+}
@@ -1,5 +1,6 @@
 package top.zenyoung.netty.session;
 
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.util.AttributeMap;
 import top.zenyoung.netty.codec.Message;
@@ -14,6 +15,13 @@ import java.io.Serializable;
  * @author young
  */
 public interface Session extends AttributeMap, Serializable {
+    /**
+     * 获取连接通道
+     *
+     * @return 连接通道
+     */
+    Channel getChannel();
+
     /**
      * 获取通道ID
      *
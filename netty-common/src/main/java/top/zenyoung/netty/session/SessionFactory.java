@@ -15,6 +15,7 @@ import top.zenyoung.netty.util.NettyUtils;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -26,10 +27,9 @@ import java.util.Optional;
 @EqualsAndHashCode
 @RequiredArgsConstructor(staticName = "of")
 public class SessionFactory implements Session {
+    private static final AttributeKey<Map<String, Object>> PROPERTIES = AttributeKey.valueOf(SessionFactory.class, "properties");
     private final Channel channel;
     private final String deviceId;
-    private final Map<String, Object> locks = Maps.newHashMap();
-    private final Map<String, Object> properties = Maps.newHashMap();
 
     @Override
     public <T> Attribute<T> attr(@Nonnull final AttributeKey<T> key) {
@@ -41,6 +41,11 @@ public class SessionFactory implements Session {
         return channel.hasAttr(key);
     }
 
+    @Override
+    public Channel getChannel() {
+        return channel;
+    }
+
     @Override
     public String getChannelId() {
         return NettyUtils.getChannelId(channel);
@@ -54,19 +59,27 @@ public class SessionFactory implements Session {
     @Override
     public void addProperty(@Nonnull final String key, @Nonnull final Object val) {
         Assert.hasText(key, "'key'不能为空");
-        synchronized (locks.computeIfAbsent(key, k -> new Object())) {
-            try {
-                properties.put(key, val);
-            } finally {
-                locks.remove(key);
-            }
-        }
+        getProperties(true).put(key, val);
     }
 
     @Override
     public Object getProperty(@Nonnull final String key) {
         Assert.hasText(key, "'key'不能为空");
-        return properties.getOrDefault(key, null);
+        final Map<String, Object> properties = getProperties(false);
+        return Objects.isNull(properties) ? null : properties.get(key);
+    }
+
+    @Nullable
+    private Map<String, Object> getProperties(final boolean create) {
+        //属性集中存放在通道的单个属性中,随通道回收,不向AttributeKey常量池注册业务键
+        final Attribute<Map<String, Object>> attr = channel.attr(PROPERTIES);
+        final Map<String, Object> properties = attr.get();
+        if (Objects.nonNull(properties) || !create) {
+            return properties;
+        }
+        final Map<String, Object> created = Maps.newConcurrentMap();
+        final Map<String, Object> prev = attr.setIfAbsent(created);
+        return Objects.isNull(prev) ? created : prev;
     }
 
     @Override
@@ -106,6 +119,6 @@ public class SessionFactory implements Session {
     @Override
     public String toString() {
         final String channelId = NettyUtils.getChannelId(channel);
-        return "session(deviceId:" + channelId + ",channel: " + channelId + ",properties:" + properties + ")";
+        return "session(deviceId:" + deviceId + ",channel: " + channelId + ")";
     }
 }
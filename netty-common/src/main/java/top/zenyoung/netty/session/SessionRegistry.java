@@ -0,0 +1,215 @@
+package top.zenyoung.netty.session;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import io.netty.buffer.ByteBufHolder;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.ReferenceCounted;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import lombok.extern.slf4j.Slf4j;
+import top.zenyoung.netty.codec.Message;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * 会话注册中心
+ * <p>
+ * 按设备ID索引在线会话(O(1)查找),通道关闭时自动移除.
+ * 广播/组播按EventLoop分组,每个EventLoop只提交一次任务:先逐个write,最后统一flush.
+ * </p>
+ *
+ * @author young
+ */
+@Slf4j
+public class SessionRegistry {
+    /**
+     * 默认注册中心
+     */
+    public static final SessionRegistry DEFAULT = new SessionRegistry();
+
+    private final Map<String, Session> sessions = Maps.newConcurrentMap();
+    private final ChannelGroup channels = new DefaultChannelGroup("sessions", GlobalEventExecutor.INSTANCE);
+
+    /**
+     * 注册会话(同一设备ID的旧会话被替换,旧通道移出广播组,是否关闭由调用方决定)
+     *
+     * @param session 会话
+     * @return 被替换的旧会话
+     */
+    @Nullable
+    public Session register(@Nonnull final Session session) {
+        final String deviceId = session.getDeviceId();
+        final Channel channel = session.getChannel();
+        if (Strings.isNullOrEmpty(deviceId) || Objects.isNull(channel)) {
+            return null;
+        }
+        final Session prev = sessions.put(deviceId, session);
+        channels.add(channel);
+        channel.closeFuture().addListener(f -> sessions.remove(deviceId, session));
+        if (Objects.nonNull(prev) && prev != session) {
+            //旧通道移出广播组,避免替换后仍收到广播
+            final Channel prevChannel = prev.getChannel();
+            if (Objects.nonNull(prevChannel) && prevChannel != channel) {
+                channels.remove(prevChannel);
+            }
+            log.info("register(deviceId: {})-会话已替换: {}=> {}", deviceId, prev.getChannelId(), session.getChannelId());
+        }
+        return prev;
+    }
+
+    /**
+     * 注销会话
+     *
+     * @param session 会话
+     * @return 是否注销成功
+     */
+    public boolean unregister(@Nonnull final Session session) {
+        final String deviceId = session.getDeviceId();
+        if (!Strings.isNullOrEmpty(deviceId) && sessions.remove(deviceId, session)) {
+            Optional.ofNullable(session.getChannel()).ifPresent(channels::remove);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 获取设备会话
+     *
+     * @param deviceId 设备ID
+     * @return 会话
+     */
+    @Nullable
+    public Session get(@Nonnull final String deviceId) {
+        return sessions.get(deviceId);
+    }
+
+    /**
+     * 获取在线会话数
+     *
+     * @return 会话数
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * 获取在线会话集合(只读视图)
+     *
+     * @return 会话集合
+     */
+    public Collection<Session> getSessions() {
+        return Collections.unmodifiableCollection(sessions.values());
+    }
+
+    /**
+     * 发送消息到设备
+     *
+     * @param deviceId 设备ID
+     * @param data     消息数据
+     * @return 设备是否在线
+     */
+    public <M extends Message> boolean send(@Nonnull final String deviceId, @Nonnull final M data) {
+        final Session session = get(deviceId);
+        if (Objects.isNull(session) || !session.isActive()) {
+            ReferenceCountUtil.release(data);
+            return false;
+        }
+        session.send(data);
+        return true;
+    }
+
+    /**
+     * 广播消息到全部在线通道
+     *
+     * @param data 消息数据
+     * @return 发送通道数
+     */
+    public <M extends Message> int broadcast(@Nonnull final M data) {
+        return write(channels, data);
+    }
+
+    /**
+     * 组播消息到匹配的会话
+     *
+     * @param data   消息数据
+     * @param filter 会话过滤器
+     * @return 发送通道数
+     */
+    public <M extends Message> int multicast(@Nonnull final M data, @Nonnull final Predicate<Session> filter) {
+        final List<Channel> targets = Lists.newArrayList();
+        for (final Session session : sessions.values()) {
+            if (filter.test(session)) {
+                targets.add(session.getChannel());
+            }
+        }
+        return write(targets, data);
+    }
+
+    /**
+     * 组播消息到指定设备
+     *
+     * @param data      消息数据
+     * @param deviceIds 设备ID集合
+     * @return 发送通道数
+     */
+    public <M extends Message> int multicast(@Nonnull final M data, @Nonnull final Collection<String> deviceIds) {
+        final List<Channel> targets = Lists.newArrayListWithCapacity(deviceIds.size());
+        for (final String deviceId : deviceIds) {
+            final Session session = sessions.get(deviceId);
+            if (Objects.nonNull(session)) {
+                targets.add(session.getChannel());
+            }
+        }
+        return write(targets, data);
+    }
+
+    private static int write(@Nonnull final Iterable<Channel> targets, @Nonnull final Object data) {
+        //按EventLoop分组,引用计数消息每个通道独立持有一份
+        final Map<EventLoop, List<Map.Entry<Channel, Object>>> loops = Maps.newIdentityHashMap();
+        int count = 0;
+        try {
+            for (final Channel ch : targets) {
+                if (Objects.isNull(ch) || !ch.isActive()) {
+                    continue;
+                }
+                loops.computeIfAbsent(ch.eventLoop(), k -> Lists.newArrayList())
+                        .add(Maps.immutableEntry(ch, duplicate(data)));
+                count++;
+            }
+        } finally {
+            ReferenceCountUtil.release(data);
+        }
+        loops.forEach((loop, items) -> loop.execute(() -> {
+            for (final Map.Entry<Channel, Object> item : items) {
+                item.getKey().write(item.getValue(), item.getKey().voidPromise());
+            }
+            for (final Map.Entry<Channel, Object> item : items) {
+                item.getKey().flush();
+            }
+        }));
+        return count;
+    }
+
+    private static Object duplicate(@Nonnull final Object data) {
+        if (data instanceof ByteBufHolder holder) {
+            return holder.retainedDuplicate();
+        }
+        if (data instanceof ReferenceCounted counted) {
+            return counted.retain();
+        }
+        return data;
+    }
+}
@@ -18,6 +18,15 @@ public interface StrategyHandler<M extends Message> {
      */
     String[] getCommands();
 
+    /**
+     * 获取命令编码(与{@link Message#getCommandCode()}对应,按数组下标分发)
+     *
+     * @return 命令编码
+     */
+    default int[] getCommandCodes() {
+        return null;
+    }
+
     /**
      * 是否支持处理消息
      *
@@ -40,6 +49,9 @@ public interface StrategyHandler<M extends Message> {
 
     /**
      * 业务处理
+     * <p>
+     * 入站消息在本方法返回后由框架释放;如需异步使用、作为响应返回或持有其payload切片,须先调用retain().
+     * </p>
      *
      * @param session 当前会话用户
      * @param data    消息数据
@@ -21,4 +21,14 @@ public interface StrategyHandlerFactory {
      * @param callbackHandler 回调处理
      */
     <M extends Message> void process(@Nonnull final Session session, @Nonnull final M data, @Nonnull final Consumer<M> callbackHandler);
+
+    /**
+     * 消息是否有已注册的策略处理器(用于限定指标中的指令取值)
+     *
+     * @param data 请求数据
+     * @return 是否已注册
+     */
+    default boolean isRegistered(@Nonnull final Message data) {
+        return false;
+    }
 }
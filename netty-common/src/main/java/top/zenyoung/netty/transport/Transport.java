@@ -0,0 +1,161 @@
+package top.zenyoung.netty.transport;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 网络传输实现(EventLoopGroup/Channel类型)
+ * <p>
+ * io_uring通过反射加载,未引入依赖或内核不支持时退化为Epoll/NIO.
+ * </p>
+ *
+ * @author young
+ */
+@Slf4j
+@Getter
+public final class Transport {
+    private static final String IO_URING_PACKAGE = "io.netty.incubator.channel.uring.";
+    private static final Transport NIO = new Transport(TransportType.NIO, NioServerSocketChannel.class, NioSocketChannel.class);
+    private static volatile Transport epoll;
+    private static volatile Transport ioUring;
+
+    /**
+     * 传输类型
+     */
+    private final TransportType type;
+    /**
+     * 服务端通道类型
+     */
+    private final Class<? extends ServerChannel> serverChannelClass;
+    /**
+     * 客户端通道类型
+     */
+    private final Class<? extends SocketChannel> socketChannelClass;
+
+    private Transport(@Nonnull final TransportType type, @Nonnull final Class<? extends ServerChannel> serverChannelClass,
+                      @Nonnull final Class<? extends SocketChannel> socketChannelClass) {
+        this.type = type;
+        this.serverChannelClass = serverChannelClass;
+        this.socketChannelClass = socketChannelClass;
+    }
+
+    /**
+     * 解析传输实现
+     *
+     * @param type 传输类型
+     * @return 传输实现
+     */
+    public static Transport resolve(@Nullable final TransportType type) {
+        if (type == TransportType.NIO) {
+            return NIO;
+        }
+        if (type == TransportType.IO_URING) {
+            final Transport uring = getIoUring();
+            if (Objects.nonNull(uring)) {
+                return uring;
+            }
+        }
+        if (type == TransportType.EPOLL && !Epoll.isAvailable()) {
+            log.warn("resolve-Epoll不可用,使用NIO: {}", Epoll.unavailabilityCause().getMessage());
+        }
+        return Epoll.isAvailable() ? getEpoll() : NIO;
+    }
+
+    private static Transport getEpoll() {
+        if (Objects.isNull(epoll)) {
+            epoll = new Transport(TransportType.EPOLL, EpollServerSocketChannel.class, EpollSocketChannel.class);
+        }
+        return epoll;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static Transport getIoUring() {
+        if (Objects.isNull(ioUring)) {
+            synchronized (Transport.class) {
+                if (Objects.isNull(ioUring)) {
+                    try {
+                        final Class<?> cls = Class.forName(IO_URING_PACKAGE + "IOUring");
+                        final Method available = cls.getMethod("isAvailable");
+                        if (!Boolean.TRUE.equals(available.invoke(null))) {
+                            log.warn("getIoUring-io_uring不可用,退化为自动选择.");
+                            return null;
+                        }
+                        ioUring = new Transport(TransportType.IO_URING,
+                                (Class<? extends ServerChannel>) Class.forName(IO_URING_PACKAGE + "IOUringServerSocketChannel"),
+                                (Class<? extends SocketChannel>) Class.forName(IO_URING_PACKAGE + "IOUringSocketChannel"));
+                    } catch (Throwable ex) {
+                        log.warn("getIoUring-未引入io_uring传输,退化为自动选择-exp: {}", ex.getMessage());
+                        return null;
+                    }
+                }
+            }
+        }
+        return ioUring;
+    }
+
+    /**
+     * 是否支持SO_REUSEPORT(多个监听通道绑定同一端口,由内核分发连接)
+     *
+     * @return 是否支持
+     */
+    public boolean isReusePortSupported() {
+        return type == TransportType.EPOLL || type == TransportType.IO_URING;
+    }
+
+    /**
+     * 创建EventLoopGroup
+     *
+     * @param threads 线程数
+     * @param ioRatio IO处理时间占比(1-100,io_uring忽略)
+     * @param name    线程名前缀
+     * @return EventLoopGroup
+     */
+    public EventLoopGroup newEventLoopGroup(final int threads, final int ioRatio, @Nonnull final String name) {
+        final ThreadFactory factory = new DefaultThreadFactory(name);
+        final int ratio = Math.min(Math.max(ioRatio, 1), 100);
+        switch (type) {
+            case EPOLL -> {
+                final EpollEventLoopGroup group = new EpollEventLoopGroup(threads, factory);
+                group.setIoRatio(ratio);
+                return group;
+            }
+            case IO_URING -> {
+                try {
+                    return (EventLoopGroup) Class.forName(IO_URING_PACKAGE + "IOUringEventLoopGroup")
+                            .getConstructor(int.class, ThreadFactory.class)
+                            .newInstance(threads, factory);
+                } catch (Throwable ex) {
+                    throw new IllegalStateException("创建io_uring EventLoopGroup失败: " + ex.getMessage(), ex);
+                }
+            }
+            default -> {
+                final NioEventLoopGroup group = new NioEventLoopGroup(threads, factory);
+                group.setIoRatio(ratio);
+                return group;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return type.name();
+    }
+}
@@ -0,0 +1,25 @@
+package top.zenyoung.netty.transport;
+
+/**
+ * 网络传输类型
+ *
+ * @author young
+ */
+public enum TransportType {
+    /**
+     * 自动选择(Epoll可用时使用Epoll,否则使用NIO)
+     */
+    AUTO,
+    /**
+     * JDK NIO
+     */
+    NIO,
+    /**
+     * Linux Epoll
+     */
+    EPOLL,
+    /**
+     * Linux io_uring(需引入netty-incubator-transport-native-io_uring,不可用时退化为AUTO)
+     */
+    IO_URING
+}
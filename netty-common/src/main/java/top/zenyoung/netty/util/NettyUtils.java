@@ -5,6 +5,7 @@ import io.netty.channel.*;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.ScheduledFuture;
 import lombok.experimental.UtilityClass;
+import top.zenyoung.netty.handler.ReadFlowControlHandler;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -209,7 +210,8 @@ public class NettyUtils {
                     future.addListener(listener);
                 }
             } finally {
-                if (!channel.config().isAutoRead()) {
+                //未挂载流量控制时由写出触发读取
+                if (!channel.config().isAutoRead() && !ReadFlowControlHandler.isPresent(channel)) {
                     channel.read();
                 }
             }
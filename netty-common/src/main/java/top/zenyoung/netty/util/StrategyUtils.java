@@ -1,10 +1,12 @@
 package top.zenyoung.netty.util;
 
+import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.util.CollectionUtils;
 import top.zenyoung.netty.codec.Message;
 import top.zenyoung.netty.session.Session;
@@ -15,73 +17,130 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.*;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Slf4j
 @UtilityClass
 public class StrategyUtils {
+    /**
+     * 命令编码上限(按数组下标分发)
+     */
+    public static final int MAX_COMMAND_CODE = 0xFFFF;
+
     public static <M extends Message, H extends StrategyHandler<M>> StrategyHandlerFactory build(@Nullable final Collection<H> strategyHandlers) {
         return new StrategyHandlerFactoryInner<>(strategyHandlers);
     }
 
+    /**
+     * 策略处理器工厂
+     * <p>
+     * 构建时预编译不可变分发表(处理器按优先级降序排列并去重),消息处理时仅做一次查表和数组遍历.
+     * </p>
+     */
     private static class StrategyHandlerFactoryInner<M extends Message, H extends StrategyHandler<M>> implements StrategyHandlerFactory {
-        private final Map<String, List<H>> commandStrategyHandlers = Maps.newHashMap();
+        private final Map<String, ImmutableList<H>> commandStrategyHandlers;
+        private final ImmutableList<H>[] codeStrategyHandlers;
 
         public StrategyHandlerFactoryInner(@Nullable final Collection<H> strategyHandlers) {
-            if (CollectionUtils.isEmpty(strategyHandlers)) {
-                return;
+            final Map<String, List<H>> commands = Maps.newHashMap();
+            final Map<Integer, List<H>> codes = Maps.newHashMap();
+            if (!CollectionUtils.isEmpty(strategyHandlers)) {
+                buildHandler(strategyHandlers, commands, codes);
             }
-            buildHanlder(strategyHandlers);
+            this.commandStrategyHandlers = compile(commands);
+            this.codeStrategyHandlers = compileCodes(compile(codes));
         }
 
-        private void buildHanlder(@Nonnull final Collection<H> strategyHandlers) {
-            final Map<String, List<H>> cmdStrategyHandlers = strategyHandlers.stream()
-                    .filter(Objects::nonNull)
-                    .map(handler -> Stream.of(handler.getCommands())
-                            .filter(cmd -> !Strings.isNullOrEmpty(cmd))
-                            .distinct()
-                            .map(cmd -> {
-                                log.info("注册[策略处理器: {}]=> {}", cmd, handler);
-                                return Pair.of(cmd, handler);
-                            })
-                            .toList()
-                    )
-                    .flatMap(Collection::stream)
-                    .collect(Collectors.groupingBy(Pair::getLeft, Collectors.mapping(Pair::getRight, Collectors.toList())));
-            if (!CollectionUtils.isEmpty(cmdStrategyHandlers)) {
-                commandStrategyHandlers.putAll(cmdStrategyHandlers);
+        private static <M extends Message, H extends StrategyHandler<M>> void buildHandler(@Nonnull final Collection<H> strategyHandlers,
+                                                                                           @Nonnull final Map<String, List<H>> commands,
+                                                                                           @Nonnull final Map<Integer, List<H>> codes) {
+            for (final H handler : strategyHandlers) {
+                if (Objects.isNull(handler)) {
+                    continue;
+                }
+                final String[] cmds = handler.getCommands();
+                if (Objects.nonNull(cmds)) {
+                    for (final String cmd : cmds) {
+                        if (!Strings.isNullOrEmpty(cmd)) {
+                            log.info("注册[策略处理器: {}]=> {}", cmd, handler);
+                            commands.computeIfAbsent(cmd, k -> new ArrayList<>()).add(handler);
+                        }
+                    }
+                }
+                final int[] cmdCodes = handler.getCommandCodes();
+                if (Objects.nonNull(cmdCodes)) {
+                    for (final int code : cmdCodes) {
+                        Preconditions.checkArgument(code >= 0 && code <= MAX_COMMAND_CODE, "命令编码超出范围[0,%s]: %s", MAX_COMMAND_CODE, code);
+                        log.info("注册[策略处理器: #{}]=> {}", code, handler);
+                        codes.computeIfAbsent(code, k -> new ArrayList<>()).add(handler);
+                    }
+                }
             }
         }
 
+        private static <K, M extends Message, H extends StrategyHandler<M>> Map<K, ImmutableList<H>> compile(@Nonnull final Map<K, List<H>> source) {
+            final ImmutableMap.Builder<K, ImmutableList<H>> builder = ImmutableMap.builder();
+            source.forEach((key, handlers) -> {
+                //按优先级降序并去重(同一处理器注册多个相同命令时只执行一次)
+                final Set<H> ordered = new LinkedHashSet<>(handlers);
+                final List<H> items = new ArrayList<>(ordered);
+                items.sort(Comparator.comparing(StrategyHandler::priority, Comparator.reverseOrder()));
+                builder.put(key, ImmutableList.copyOf(items));
+            });
+            return builder.build();
+        }
+
+        @SuppressWarnings({"unchecked"})
+        private static <M extends Message, H extends StrategyHandler<M>> ImmutableList<H>[] compileCodes(@Nonnull final Map<Integer, ImmutableList<H>> codes) {
+            final int max = codes.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1);
+            final ImmutableList<H>[] table = new ImmutableList[max + 1];
+            codes.forEach((code, handlers) -> table[code] = handlers);
+            return table;
+        }
+
+        @Nullable
+        private ImmutableList<H> lookup(@Nonnull final Message data) {
+            final int code = data.getCommandCode();
+            if (code >= 0 && code < codeStrategyHandlers.length) {
+                final ImmutableList<H> handlers = codeStrategyHandlers[code];
+                if (Objects.nonNull(handlers)) {
+                    return handlers;
+                }
+            }
+            final String command = data.getCommand();
+            return Strings.isNullOrEmpty(command) ? null : commandStrategyHandlers.get(command);
+        }
+
+        @Override
+        public boolean isRegistered(@Nonnull final Message data) {
+            return Objects.nonNull(lookup(data));
+        }
+
         @Override
         @SuppressWarnings({"unchecked"})
         public <T extends Message> void process(@Nonnull final Session session, @Nonnull final T data, @Nonnull final Consumer<T> callbackHandler) {
-            final String command = data.getCommand();
-            if (Strings.isNullOrEmpty(command)) {
+            final ImmutableList<H> handlers = lookup(data);
+            if (Objects.isNull(handlers)) {
+                log.warn("process[command: {}]- 未找到命令处理器.", data.getCommand());
                 return;
             }
-            final var handlers = commandStrategyHandlers.getOrDefault(command, null);
-            if (CollectionUtils.isEmpty(handlers)) {
-                log.warn("process[command: {}]- 未找到命令处理器.", command);
-                return;
+            for (int i = 0, size = handlers.size(); i < size; i++) {
+                final H handler = handlers.get(i);
+                //判断是否支持
+                if (!handler.supported(session, (M) data)) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("process[command: {}]-不支持处理=> {}", data.getCommand(), handler);
+                    }
+                    continue;
+                }
+                //业务处理
+                if (log.isDebugEnabled()) {
+                    log.debug("process[command: {}]-策略处理器开始处理业务=> {}", data.getCommand(), handler);
+                }
+                final M callback = handler.process(session, (M) data);
+                if (Objects.nonNull(callback)) {
+                    callbackHandler.accept((T) callback);
+                }
             }
-            handlers.stream()
-                    .sorted(Comparator.comparing(StrategyHandler::priority, Comparator.reverseOrder()))
-                    .distinct()
-                    .forEach(handler -> {
-                        //判断是否支持
-                        if (!handler.supported(session, (M) data)) {
-                            log.warn("process[command: {}]-不支持处理=> {}", command, handler);
-                            return;
-                        }
-                        //业务处理
-                        log.info("process[command: {}]-策略处理器开始处理业务=> {}", command, handler);
-                        final M callback = handler.process(session, (M) data);
-                        if (Objects.nonNull(callback)) {
-                            callbackHandler.accept((T) callback);
-                        }
-                    });
         }
     }
 }
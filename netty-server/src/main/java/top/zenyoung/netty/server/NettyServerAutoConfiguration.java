@@ -1,23 +1,30 @@
 package top.zenyoung.netty.server;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import top.zenyoung.netty.codec.Message;
+import top.zenyoung.netty.metrics.NettyMetricsBinder;
+import top.zenyoung.netty.metrics.NettyMetricsRegistry;
 import top.zenyoung.netty.server.config.AsyncEventConfig;
 import top.zenyoung.netty.server.config.NettyServerProperties;
 import top.zenyoung.netty.server.server.NettyServer;
 import top.zenyoung.netty.server.server.impl.NettyServerImpl;
 import top.zenyoung.netty.server.strategy.ServerStrategyHandler;
 import top.zenyoung.netty.server.strategy.ServerStrategyHandlerFactory;
+import top.zenyoung.netty.session.Session;
 import top.zenyoung.netty.strategy.StrategyHandlerFactory;
 import top.zenyoung.netty.util.StrategyUtils;
 
 import javax.annotation.Nonnull;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * NettyServer-自动配置
@@ -34,7 +41,17 @@ public class NettyServerAutoConfiguration {
     @ConditionalOnMissingBean
     public <M extends Message> ServerStrategyHandlerFactory getStrategyHandlerFactory(final List<ServerStrategyHandler<M>> handlers) {
         final StrategyHandlerFactory factory = StrategyUtils.build(handlers);
-        return factory::process;
+        return new ServerStrategyHandlerFactory() {
+            @Override
+            public <T extends Message> void process(@Nonnull final Session session, @Nonnull final T data, @Nonnull final Consumer<T> callbackHandler) {
+                factory.process(session, data, callbackHandler);
+            }
+
+            @Override
+            public boolean isRegistered(@Nonnull final Message data) {
+                return factory.isRegistered(data);
+            }
+        };
     }
 
     @Bean
@@ -42,4 +59,16 @@ public class NettyServerAutoConfiguration {
     public NettyServer nettyServer(@Nonnull final NettyServerProperties properties) {
         return new NettyServerImpl(properties);
     }
+
+    @Configuration
+    @ConditionalOnClass(MeterRegistry.class)
+    @ConditionalOnProperty(prefix = "top.zenyoung.netty.server", name = "metrics-enabled", havingValue = "true", matchIfMissing = true)
+    public static class NettyMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public NettyMetricsBinder nettyMetricsBinder() {
+            return new NettyMetricsBinder(NettyMetricsRegistry.DEFAULT);
+        }
+    }
 }
@@ -4,12 +4,10 @@ import com.google.common.base.Strings;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import org.springframework.boot.context.properties.ConfigurationProperties;
-import org.springframework.util.CollectionUtils;
 import top.zenyoung.netty.config.BaseProperties;
 
 import javax.annotation.Nonnull;
 import java.util.Map;
-import java.util.Objects;
 
 /**
  * NettyServer-配置
@@ -38,39 +36,35 @@ public class NettyServerProperties extends BaseProperties {
      * @return 是否存在
      */
     public final boolean checkBlackList(@Nonnull final String ipAddr) {
-        if (Strings.isNullOrEmpty(ipAddr) && CollectionUtils.isEmpty(getIpAddrBlackList())) {
+        if (Strings.isNullOrEmpty(ipAddr)) {
             return false;
         }
-        return getIpAddrBlackList().contains(ipAddr);
+        return getIpAddrFilter().inBlackList(ipAddr);
     }
 
     /**
-     * 添加IP地址到黑名单
+     * 添加IP地址到黑名单(即时生效,不回写{@link #getIpAddrBlackList()})
      *
-     * @param ipAddr IP地址
+     * @param ipAddr IP地址或网段
      * @return 添加结果
      */
     public final boolean addBlackList(@Nonnull final String ipAddr) {
-        if (Strings.isNullOrEmpty(ipAddr) || Objects.isNull(getIpAddrBlackList())) {
+        if (Strings.isNullOrEmpty(ipAddr)) {
             return false;
         }
-        if (!getIpAddrBlackList().contains(ipAddr)) {
-            getIpAddrBlackList().add(ipAddr);
-        }
-        return true;
+        return getIpAddrFilter().addBlackList(ipAddr);
     }
 
     /**
-     * 从黑名单中移除IP地址
+     * 从黑名单中移除IP地址(即时生效,不回写{@link #getIpAddrBlackList()})
      *
-     * @param ipAddr IP地址
+     * @param ipAddr IP地址或网段
      * @return 移除结果
      */
     public final boolean removeBlackList(@Nonnull final String ipAddr) {
-        if (Strings.isNullOrEmpty(ipAddr) || Objects.isNull(getIpAddrBlackList())) {
+        if (Strings.isNullOrEmpty(ipAddr)) {
             return false;
         }
-        getIpAddrBlackList().remove(ipAddr);
-        return true;
+        return getIpAddrFilter().removeBlackList(ipAddr);
     }
 }
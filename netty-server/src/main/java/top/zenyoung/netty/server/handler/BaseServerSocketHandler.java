@@ -7,8 +7,10 @@ import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import top.zenyoung.netty.codec.Message;
+import top.zenyoung.netty.config.BaseProperties;
 import top.zenyoung.netty.event.IdleStateEvent;
 import top.zenyoung.netty.handler.BaseSocketHandler;
+import top.zenyoung.netty.metrics.NettyMetricsRegistry;
 import top.zenyoung.netty.server.config.NettyServerProperties;
 import top.zenyoung.netty.server.strategy.ServerStrategyHandlerFactory;
 import top.zenyoung.netty.session.Session;
@@ -50,6 +52,21 @@ public abstract class BaseServerSocketHandler<M extends Message> extends BaseSoc
      */
     protected abstract NettyServerProperties getProperties();
 
+    @Override
+    protected BaseProperties.Execution getExecution() {
+        return Optional.ofNullable(getProperties())
+                .map(NettyServerProperties::getExecution)
+                .orElse(null);
+    }
+
+    @Override
+    protected NettyMetricsRegistry getMetricsRegistry() {
+        return Optional.ofNullable(getProperties())
+                .filter(NettyServerProperties::isMetricsEnabled)
+                .map(p -> NettyMetricsRegistry.DEFAULT)
+                .orElse(null);
+    }
+
     @Override
     protected Integer getHeartbeatTimeoutTotal() {
         return Optional.ofNullable(getProperties())
@@ -1,5 +1,8 @@
 package top.zenyoung.netty.server.server.impl;
 
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelHandler;
@@ -7,6 +10,7 @@ import io.netty.channel.ChannelPipeline;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
@@ -16,7 +20,7 @@ import top.zenyoung.netty.config.BaseProperties;
 import top.zenyoung.netty.server.config.NettyServerProperties;
 import top.zenyoung.netty.server.handler.BaseServerSocketHandler;
 import top.zenyoung.netty.server.server.NettyServer;
-import top.zenyoung.netty.util.CodecUtils;
+import top.zenyoung.netty.util.ScopeUtils;
 
 import javax.annotation.Nonnull;
 import java.util.List;
@@ -35,6 +39,9 @@ import java.util.function.Consumer;
 public class NettyServerImpl extends BaseNettyImpl implements NettyServer, ApplicationContextAware {
     private final NettyServerProperties properites;
     private ApplicationContext context;
+    private volatile Map<Integer, List<HandlerRecipe>> codecRecipes = ImmutableMap.of();
+    private volatile Map<Integer, List<HandlerRecipe>> bizRecipes = ImmutableMap.of();
+    private volatile int listenPorts = 1;
 
     @Override
     public void setApplicationContext(@Nonnull final ApplicationContext context) throws BeansException {
@@ -70,58 +77,119 @@ public class NettyServerImpl extends BaseNettyImpl implements NettyServer, Appli
         return Math.max(backlog, 50);
     }
 
+    @Override
+    protected int getBossThreads() {
+        //每个监听通道独占一个监听线程
+        return Math.max(listenPorts, 1) * getAcceptorsPerPort();
+    }
+
+    @Override
+    protected String getThreadNamePrefix() {
+        return "netty-server";
+    }
+
     @Override
     public void run(final ApplicationArguments args) {
         log.info("Netty-Server 启动...");
         final List<Integer> ports = getPortCodecs().keySet().stream()
                 .filter(Objects::nonNull)
+                .filter(port -> port > 0)
                 .distinct()
                 .toList();
         if (CollectionUtils.isEmpty(ports)) {
             log.error("Netty-Server-未配置端口及编解码器!");
             return;
         }
+        //预编译各端口管道处理器
+        buildPipelineRecipes(ports);
         //启动
+        this.listenPorts = ports.size();
         final ServerBootstrap bootstrap = new ServerBootstrap();
         buildBootstrap(bootstrap);
+        final int acceptors = getAcceptorsPerPort();
         for (final Integer port : ports) {
-            if (Objects.isNull(port) || port <= 0) {
-                continue;
+            //启动端口监听(启用SO_REUSEPORT时同一端口绑定多个监听通道)
+            for (int i = 0; i < acceptors; i++) {
+                final int idx = i;
+                bootstrap.bind(port).addListener(future -> {
+                    final boolean ret = future.isSuccess();
+                    log.info("开始监听端口[{}/{}]: {}", port, idx, ret ? "成功" : "失败");
+                });
             }
-            //启动端口监听
-            bootstrap.bind(port).addListener(future -> {
-                final boolean ret = future.isSuccess();
-                log.info("开始监听端口[{}]: {}", port, ret ? "成功" : "失败");
-            });
         }
     }
 
-    @Override
-    protected void initChannelCodecHandler(final int port, @Nonnull final ChannelPipeline pipeline) {
-        final Map<String, String> codecMap = getPortCodecs().getOrDefault(port, null);
-        if (!CollectionUtils.isEmpty(codecMap)) {
-            contextHandler(ctx -> {
-                final Map<String, ChannelHandler> codecHandlerMap = CodecUtils.getCodecMap(ctx, codecMap, true);
-                if (!CollectionUtils.isEmpty(codecHandlerMap)) {
-                    codecHandlerMap.forEach(pipeline::addLast);
+    /**
+     * 预编译各端口管道处理器(启动时完成Bean查找和Scope检查,建立连接时仅实例化)
+     *
+     * @param ports 监听端口集合
+     */
+    private void buildPipelineRecipes(@Nonnull final List<Integer> ports) {
+        contextHandler(ctx -> {
+            final Map<Integer, Map<String, String>> portCodecs = getPortCodecs();
+            //每个业务处理器Bean仅探测一次(prototype每次getBean都会创建实例)
+            final Map<String, BaseServerSocketHandler<?>> probes = Maps.newLinkedHashMap();
+            for (final String name : ctx.getBeanNamesForType(BaseServerSocketHandler.class)) {
+                final BaseServerSocketHandler<?> probe = ctx.getBean(name, BaseServerSocketHandler.class);
+                probe.ensureHasScope();
+                probes.put(name, probe);
+            }
+            final ImmutableMap.Builder<Integer, List<HandlerRecipe>> codecBuilder = ImmutableMap.builder();
+            final ImmutableMap.Builder<Integer, List<HandlerRecipe>> bizBuilder = ImmutableMap.builder();
+            for (final Integer port : ports) {
+                if (Objects.isNull(port) || port <= 0) {
+                    continue;
+                }
+                //编解码器
+                final ImmutableList.Builder<HandlerRecipe> codecs = ImmutableList.builder();
+                final Map<String, String> codecMap = portCodecs.getOrDefault(port, null);
+                if (!CollectionUtils.isEmpty(codecMap)) {
+                    codecMap.forEach((name, beanName) -> {
+                        if (!Strings.isNullOrEmpty(name) && !Strings.isNullOrEmpty(beanName)) {
+                            ScopeUtils.checkPrototype(Objects.requireNonNull(ctx.getType(beanName), beanName));
+                            codecs.add(new HandlerRecipe(name, () -> ctx.getBean(beanName, ChannelHandler.class)));
+                        }
+                    });
                 }
-            });
+                codecBuilder.put(port, codecs.build());
+                //业务处理器
+                final ImmutableList.Builder<HandlerRecipe> bizs = ImmutableList.builder();
+                probes.forEach((name, probe) -> {
+                    if (probe.supportedPort(port)) {
+                        bizs.add(new HandlerRecipe("biz_" + name, () -> ctx.getBean(name, ChannelHandler.class)));
+                    }
+                });
+                bizBuilder.put(port, bizs.build());
+            }
+            this.codecRecipes = codecBuilder.build();
+            this.bizRecipes = bizBuilder.build();
+        });
+    }
+
+    private static void addHandlers(@Nonnull final List<HandlerRecipe> recipes, @Nonnull final ChannelPipeline pipeline) {
+        for (final HandlerRecipe recipe : recipes) {
+            pipeline.addLast(recipe.name(), recipe.factory().getObject());
         }
     }
 
+    @Override
+    protected void initChannelCodecHandler(final int port, @Nonnull final ChannelPipeline pipeline) {
+        addHandlers(codecRecipes.getOrDefault(port, ImmutableList.of()), pipeline);
+    }
+
     @Override
     protected void initBizHandlers(final int port, @Nonnull final ChannelPipeline pipeline) {
-        contextHandler(ctx -> {
-            final var handlerMap = ctx.getBeansOfType(BaseServerSocketHandler.class);
-            if (!CollectionUtils.isEmpty(handlerMap)) {
-                handlerMap.forEach((name, handler) -> {
-                    handler.ensureHasScope();
-                    if (handler.supportedPort(port)) {
-                        pipeline.addLast("biz_" + name, handler);
-                    }
-                });
-            }
-        });
+        addHandlers(bizRecipes.getOrDefault(port, ImmutableList.of()), pipeline);
+    }
+
+    /**
+     * 管道处理器配方
+     *
+     * @param name    处理器名称
+     * @param factory 处理器实例工厂
+     */
+    private record HandlerRecipe(String name, ObjectFactory<ChannelHandler> factory) {
+
     }
 
     @Override
@@ -7,12 +7,20 @@ import org.redisson.spring.cache.CacheConfig;
 import org.redisson.spring.cache.RedissonSpringCacheManager;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import top.zenyoung.boot.config.RateLimiterProperties;
 import top.zenyoung.graphics.service.CaptchaStorageService;
+import top.zenyoung.redis.cache.RedisNearCache;
+import top.zenyoung.redis.config.NearCacheProperties;
 import top.zenyoung.redis.lock.LockService;
 import top.zenyoung.redis.lock.impl.RedisLockServiceImpl;
 import top.zenyoung.redis.service.QueueService;
@@ -20,6 +28,7 @@ import top.zenyoung.redis.service.RedisEnhancedService;
 import top.zenyoung.redis.service.impl.RedisCaptchaStorageServiceImpl;
 import top.zenyoung.redis.service.impl.RedisEnhancedServiceImpl;
 import top.zenyoung.redis.service.impl.RedisQueueServiceImpl;
+import top.zenyoung.redis.util.RedisCacheUtils;
 
 import java.util.Map;
 
@@ -31,6 +40,7 @@ import java.util.Map;
 @Slf4j
 @Configuration
 @ComponentScan({"top.zenyoung.redis.aop"})
+@EnableConfigurationProperties({RateLimiterProperties.class, NearCacheProperties.class})
 public class RedisAutoConfiguration {
 
     @Bean
@@ -65,4 +75,26 @@ public class RedisAutoConfiguration {
     public CaptchaStorageService captchaStorageService(final ObjectProvider<StringRedisTemplate> redisTemplate) {
         return RedisCaptchaStorageServiceImpl.of(redisTemplate.getIfAvailable());
     }
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "top.zenyoung.redis.near-cache", name = "enabled", havingValue = "true")
+    public static class NearCacheConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public RedisNearCache redisNearCache(final StringRedisTemplate redisTemplate, final NearCacheProperties properties) {
+            final RedisNearCache nearCache = new RedisNearCache(redisTemplate, properties);
+            RedisCacheUtils.setNearCache(nearCache);
+            return nearCache;
+        }
+
+        @Bean
+        public RedisMessageListenerContainer nearCacheListenerContainer(final RedisConnectionFactory connectionFactory,
+                                                                        final RedisNearCache nearCache) {
+            final RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(connectionFactory);
+            container.addMessageListener(nearCache, new ChannelTopic(nearCache.getChannel()));
+            return container;
+        }
+    }
 }
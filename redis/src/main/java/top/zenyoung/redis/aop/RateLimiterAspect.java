@@ -1,8 +1,10 @@
 package top.zenyoung.redis.aop;
 
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import jakarta.servlet.http.HttpServletRequest;
-import lombok.RequiredArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.aspectj.lang.JoinPoint;
@@ -19,11 +21,16 @@ import org.springframework.stereotype.Component;
 import top.zenyoung.boot.annotation.LimitPolicy;
 import top.zenyoung.boot.annotation.RateLimiter;
 import top.zenyoung.boot.aop.BaseAspect;
+import top.zenyoung.boot.config.RateLimiterProperties;
 import top.zenyoung.boot.util.HttpUtils;
 import top.zenyoung.common.exception.ServiceException;
+import top.zenyoung.redis.limiter.HybridRateLimiter;
+import top.zenyoung.redis.limiter.RateLimiterMetrics;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
 
 /**
  * 请求限流-切面处理
@@ -33,47 +40,68 @@ import javax.annotation.Nullable;
 @Slf4j
 @Aspect
 @Component
-@RequiredArgsConstructor
 @ConditionalOnClass(RedissonClient.class)
 public class RateLimiterAspect extends BaseAspect {
     private static final String SEP = "-";
     private static final String RATE_LIMIT_PEFIX = "rate_limit:";
 
     private final RedissonClient redissonClient;
+    private final RateLimiterProperties properties;
+    private final Cache<String, HybridRateLimiter> limiters;
+    @Getter
+    private final RateLimiterMetrics metrics = new RateLimiterMetrics();
+
+    public RateLimiterAspect(@Nonnull final RedissonClient redissonClient, @Nullable final RateLimiterProperties properties) {
+        this.redissonClient = redissonClient;
+        this.properties = Objects.isNull(properties) ? new RateLimiterProperties() : properties;
+        this.limiters = CacheBuilder.newBuilder()
+                .maximumSize(this.properties.getMaxKeys())
+                .expireAfterAccess(this.properties.getKeyIdleTimeout())
+                .build();
+    }
 
     @Before("@annotation(rateLimiter)")
     public void doBefore(final JoinPoint joinPoint, final RateLimiter rateLimiter) {
         final int time = rateLimiter.time(), max = rateLimiter.max();
         if (time > 0 && max > 0) {
-            final String rateLimiterKey = RATE_LIMIT_PEFIX + getRateLimitKey(joinPoint, rateLimiter);
-            final long number = getRateLimiter(rateLimiter.policy(), rateLimiterKey, max, time);
-            if (number == -1) {
+            final String rateLimitKey = getRateLimitKey(joinPoint, rateLimiter);
+            final HybridRateLimiter limiter = getRateLimiter(rateLimiter.policy(), rateLimitKey, max, time);
+            if (!tryAcquire(limiter)) {
                 throw new ServiceException("访问过于频繁,请稍后再试");
             }
-            log.info("限流令牌: {}, 最大令牌数: {}, 剩余令牌: {}", rateLimiterKey, max, number);
+            log.debug("限流令牌: {}, 最大令牌数: {}, 本地剩余令牌: {}", limiter.getKey(), max, limiter.getLocalPermits());
         }
     }
 
-    private long getRateLimiter(@Nullable final LimitPolicy policy, @Nonnull final String limitKey, @Nonnull final Integer max, @Nonnull final Integer time) {
+    private HybridRateLimiter getRateLimiter(@Nullable final LimitPolicy policy, @Nonnull final String rateLimitKey, final int max, final int time) {
         try {
-            final RRateLimiter rateLimiter = redissonClient.getRateLimiter(limitKey);
-            if (rateLimiter != null) {
-                RateType rateType = RateType.OVERALL;
-                if (LimitPolicy.USER == policy) {
-                    rateType = RateType.PER_CLIENT;
-                }
+            //限流配置仅在本地首次创建时下发
+            return limiters.get(rateLimitKey + SEP + max + SEP + time, () -> {
+                final String limitKey = RATE_LIMIT_PEFIX + DigestUtils.md5Hex(rateLimitKey);
+                final RRateLimiter rateLimiter = redissonClient.getRateLimiter(limitKey);
+                final RateType rateType = LimitPolicy.USER == policy ? RateType.PER_CLIENT : RateType.OVERALL;
                 rateLimiter.trySetRate(rateType, max, time, RateIntervalUnit.SECONDS);
-                if (rateLimiter.tryAcquire()) {
-                    return rateLimiter.availablePermits();
+                long leaseSize = 1;
+                if (properties.isLocalEnabled()) {
+                    leaseSize = Math.min((long) (max * properties.getLeaseRatio()), properties.getMaxLease());
                 }
-            }
-        } catch (Exception ex) {
-            log.error("getRateLimiter(policy: {},limitKey: {},max: {},time: {})-exp: {}", policy, limitKey, max, time, ex.getMessage());
+                final long leaseNanos = Math.min(properties.getLeaseTimeout().toNanos(), time * 1_000_000_000L);
+                return new HybridRateLimiter(limitKey, rateLimiter, leaseSize, leaseNanos, metrics);
+            });
+        } catch (ExecutionException | RuntimeException ex) {
+            log.error("getRateLimiter(policy: {},limitKey: {},max: {},time: {})-exp: {}", policy, rateLimitKey, max, time, ex.getMessage());
             throw new ServiceException("服务器限流异常:" + ex.getMessage());
         }
-        return -1L;
     }
 
+    private static boolean tryAcquire(@Nonnull final HybridRateLimiter limiter) {
+        try {
+            return limiter.tryAcquire();
+        } catch (RuntimeException ex) {
+            log.error("tryAcquire(limitKey: {})-exp: {}", limiter.getKey(), ex.getMessage());
+            throw new ServiceException("服务器限流异常:" + ex.getMessage());
+        }
+    }
 
     private String getRateLimitKey(@Nonnull final JoinPoint joinPoint, @Nonnull final RateLimiter rateLimiter) {
         final StringBuilder builder = new StringBuilder();
@@ -106,6 +134,6 @@ public class RateLimiterAspect extends BaseAspect {
         if (signature != null) {
             builder.append(signature.getDeclaringTypeName()).append(".").append(signature.getName());
         }
-        return DigestUtils.md5Hex(builder.toString());
+        return builder.toString();
     }
 }
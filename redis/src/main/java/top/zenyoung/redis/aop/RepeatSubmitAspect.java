@@ -3,7 +3,6 @@ package top.zenyoung.redis.aop;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Joiner;
 import com.google.common.base.Strings;
-import com.google.common.collect.Maps;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,11 +19,11 @@ import top.zenyoung.boot.annotation.RepeatSubmit;
 import top.zenyoung.boot.aop.BaseAspect;
 import top.zenyoung.boot.config.RepeatSubmitProperties;
 import top.zenyoung.common.exception.ServiceException;
+import top.zenyoung.common.util.KeyedLocks;
 import top.zenyoung.boot.util.HttpUtils;
 import top.zenyoung.common.util.JsonUtils;
 
 import java.time.Duration;
-import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
@@ -39,7 +38,7 @@ import java.util.concurrent.TimeUnit;
 @RequiredArgsConstructor
 @ConditionalOnClass(RedissonClient.class)
 public class RepeatSubmitAspect extends BaseAspect {
-    private static final Map<String, Object> LOCKS = Maps.newConcurrentMap();
+    private static final KeyedLocks LOCKS = new KeyedLocks();
     private static final String REPEAT_SUBMIT_PEFIX = "zy:repeat-submit:";
     private final RepeatSubmitProperties properties;
 
@@ -74,7 +73,7 @@ public class RepeatSubmitAspect extends BaseAspect {
         }));
         //唯一标识(指定key + 消息头)
         final String cacheRepeatKey = REPEAT_SUBMIT_PEFIX + submitKey;
-        synchronized (LOCKS.computeIfAbsent(cacheRepeatKey, k -> new Object())) {
+        LOCKS.sync(cacheRepeatKey, () -> {
             try {
                 final long time = interval.toMillis(), wait = time * 10;
                 //分布式锁处理
@@ -89,10 +88,8 @@ public class RepeatSubmitAspect extends BaseAspect {
             } catch (InterruptedException ex) {
                 log.warn("doBefore(joinPoint: {},repeatSubmit: {})[cacheRepeatKey: {}]-exp: {}", joinPoint, repeatSubmit, cacheRepeatKey, ex.getMessage());
                 throw new ServiceException(repeatSubmit.message() + ":" + ex.getMessage());
-            } finally {
-                LOCKS.remove(cacheRepeatKey);
             }
-        }
+        });
     }
 
 }
@@ -0,0 +1,162 @@
+package top.zenyoung.redis.cache;
+
+import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import top.zenyoung.redis.config.NearCacheProperties;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Redis本地近端缓存(L1)
+ * <p>
+ * 读取优先命中本地缓存;写入/删除/缩短有效期时通过Redis发布订阅通知其他节点失效本地副本.
+ * 本地副本最长存活ttl,失效消息丢失或读写并发时的脏读时间不超过ttl.
+ * </p>
+ *
+ * @author young
+ */
+@Slf4j
+public class RedisNearCache implements MessageListener {
+    private static final String SEP = "|";
+    private final String nodeId = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final long ttlNanos;
+    private final List<String> keyPrefixes;
+    private final Cache<String, Entry> cache;
+
+    public RedisNearCache(@Nonnull final StringRedisTemplate redisTemplate, @Nonnull final NearCacheProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.channel = properties.getChannel();
+        this.ttlNanos = properties.getTtl().toNanos();
+        this.keyPrefixes = properties.getKeyPrefixes();
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * 键是否启用本地缓存
+     *
+     * @param key 缓存键
+     * @return 是否启用
+     */
+    public boolean accept(@Nonnull final String key) {
+        if (keyPrefixes == null || keyPrefixes.isEmpty()) {
+            return true;
+        }
+        for (final String prefix : keyPrefixes) {
+            if (key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 读取本地缓存
+     *
+     * @param key 缓存键
+     * @return 缓存值,未命中返回null
+     */
+    @Nullable
+    public String get(@Nonnull final String key) {
+        final Entry entry = cache.getIfPresent(key);
+        if (Objects.isNull(entry)) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expireAt >= 0) {
+            cache.invalidate(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * 写入本地缓存
+     *
+     * @param key     缓存键
+     * @param val     缓存值
+     * @param timeout Redis中的有效期(为空时使用本地ttl)
+     */
+    public void put(@Nonnull final String key, @Nonnull final String val, @Nullable final Duration timeout) {
+        final long nanos = Objects.isNull(timeout) ? ttlNanos : Math.min(ttlNanos, timeout.toNanos());
+        if (nanos > 0) {
+            cache.put(key, new Entry(val, System.nanoTime() + nanos));
+        }
+    }
+
+    /**
+     * 更新本地缓存并通知其他节点失效
+     *
+     * @param key     缓存键
+     * @param val     缓存值
+     * @param timeout Redis中的有效期(为空时使用本地ttl)
+     */
+    public void update(@Nonnull final String key, @Nonnull final String val, @Nullable final Duration timeout) {
+        invalidate(key);
+        put(key, val, timeout);
+    }
+
+    /**
+     * 失效本地缓存并通知其他节点
+     *
+     * @param key 缓存键
+     */
+    public void invalidate(@Nonnull final String key) {
+        cache.invalidate(key);
+        try {
+            redisTemplate.convertAndSend(channel, nodeId + SEP + key);
+        } catch (Throwable ex) {
+            log.warn("invalidate(key: {})-exp: {}", key, ex.getMessage());
+        }
+    }
+
+    /**
+     * 变更有效期(缩短到本地ttl以内时失效各节点本地副本)
+     *
+     * @param key         缓存键
+     * @param renewalTime 新的有效期
+     */
+    public void renewal(@Nonnull final String key, @Nonnull final Duration renewalTime) {
+        if (renewalTime.toNanos() < ttlNanos) {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public void onMessage(@Nonnull final Message message, @Nullable final byte[] pattern) {
+        final String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        final int idx = body.indexOf(SEP);
+        if (idx <= 0) {
+            return;
+        }
+        //忽略本节点发出的通知
+        if (body.regionMatches(0, nodeId, 0, idx) && idx == nodeId.length()) {
+            return;
+        }
+        final String key = body.substring(idx + 1);
+        if (!Strings.isNullOrEmpty(key)) {
+            cache.invalidate(key);
+        }
+    }
+
+    private record Entry(String value, long expireAt) {
+    }
+}
@@ -0,0 +1,39 @@
+package top.zenyoung.redis.config;
+
+import com.google.common.collect.Lists;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Redis本地近端缓存配置
+ *
+ * @author young
+ */
+@Data
+@ConfigurationProperties("top.zenyoung.redis.near-cache")
+public class NearCacheProperties implements Serializable {
+    /**
+     * 是否启用
+     */
+    private boolean enabled = false;
+    /**
+     * 本地缓存数量上限
+     */
+    private long maximumSize = 10_000;
+    /**
+     * 本地缓存有效期(跨节点失效消息丢失时的最大脏读时间)
+     */
+    private Duration ttl = Duration.ofSeconds(30);
+    /**
+     * 失效通知频道
+     */
+    private String channel = "zy-near-cache:invalidate";
+    /**
+     * 启用本地缓存的键前缀(为空时全部键)
+     */
+    private List<String> keyPrefixes = Lists.newArrayList();
+}
@@ -0,0 +1,111 @@
+package top.zenyoung.redis.limiter;
+
+import lombok.Getter;
+import org.redisson.api.RRateLimiter;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 本地令牌桶+分布式限流器
+ * <p>
+ * 本地令牌不足时按批(leaseSize)从Redis限流器租借令牌,大部分请求在内存中完成判定;
+ * 批量租借由单个线程完成(其余线程等待后直接消费本地令牌),批量租借失败时退化为单个令牌申请.
+ * 租借的令牌超过有效期未用完即丢弃,不会突破分布式限流上限.
+ * </p>
+ *
+ * @author young
+ */
+public class HybridRateLimiter {
+    private final RRateLimiter rateLimiter;
+    private final long leaseSize;
+    private final long leaseNanos;
+    private final RateLimiterMetrics metrics;
+    private final AtomicLong tokens = new AtomicLong(0);
+    private final Lock leaseLock = new ReentrantLock();
+    private volatile long expireAt = System.nanoTime();
+    @Getter
+    private final String key;
+
+    public HybridRateLimiter(@Nonnull final String key, @Nonnull final RRateLimiter rateLimiter, final long leaseSize,
+                             final long leaseNanos, @Nonnull final RateLimiterMetrics metrics) {
+        this.key = key;
+        this.rateLimiter = rateLimiter;
+        this.leaseSize = Math.max(leaseSize, 1);
+        this.leaseNanos = leaseNanos;
+        this.metrics = metrics;
+    }
+
+    /**
+     * 尝试获取令牌
+     *
+     * @return 是否获取成功
+     */
+    public boolean tryAcquire() {
+        if (tryTakeLocal()) {
+            metrics.recordLocalHit();
+            return true;
+        }
+        if (leaseSize > 1 && tryLease()) {
+            return true;
+        }
+        if (rateLimiter.tryAcquire()) {
+            metrics.recordRemoteAcquire();
+            return true;
+        }
+        metrics.recordReject();
+        return false;
+    }
+
+    /**
+     * 获取本地剩余令牌数
+     *
+     * @return 剩余令牌数
+     */
+    public long getLocalPermits() {
+        return System.nanoTime() - expireAt < 0 ? tokens.get() : 0;
+    }
+
+    /**
+     * 批量租借(单线程执行)
+     *
+     * @return 是否获取成功(含等待期间其他线程已补充本地令牌)
+     */
+    private boolean tryLease() {
+        leaseLock.lock();
+        try {
+            //等待期间其他线程可能已完成租借
+            if (tryTakeLocal()) {
+                metrics.recordLocalHit();
+                return true;
+            }
+            if (!rateLimiter.tryAcquire(leaseSize)) {
+                return false;
+            }
+            //本地令牌已耗尽或已过期,先清零再延长有效期,避免读到过期批次的残留令牌;当前请求消耗一个,其余放入本地
+            tokens.set(0);
+            expireAt = System.nanoTime() + leaseNanos;
+            tokens.addAndGet(leaseSize - 1);
+            metrics.recordLease(leaseSize);
+            return true;
+        } finally {
+            leaseLock.unlock();
+        }
+    }
+
+    private boolean tryTakeLocal() {
+        if (System.nanoTime() - expireAt >= 0) {
+            return false;
+        }
+        long current;
+        do {
+            current = tokens.get();
+            if (current <= 0) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - 1));
+        return true;
+    }
+}
@@ -0,0 +1,78 @@
+package top.zenyoung.redis.limiter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 限流指标
+ *
+ * @author young
+ */
+public class RateLimiterMetrics {
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder leases = new LongAdder();
+    private final LongAdder leasedPermits = new LongAdder();
+    private final LongAdder remoteAcquires = new LongAdder();
+    private final LongAdder rejects = new LongAdder();
+
+    void recordLocalHit() {
+        localHits.increment();
+    }
+
+    void recordLease(final long permits) {
+        leases.increment();
+        leasedPermits.add(permits);
+    }
+
+    void recordRemoteAcquire() {
+        remoteAcquires.increment();
+    }
+
+    void recordReject() {
+        rejects.increment();
+    }
+
+    /**
+     * 获取本地令牌命中次数
+     *
+     * @return 命中次数
+     */
+    public long getLocalHits() {
+        return localHits.sum();
+    }
+
+    /**
+     * 获取批量租借次数
+     *
+     * @return 租借次数
+     */
+    public long getLeases() {
+        return leases.sum();
+    }
+
+    /**
+     * 获取批量租借令牌总数
+     *
+     * @return 令牌总数
+     */
+    public long getLeasedPermits() {
+        return leasedPermits.sum();
+    }
+
+    /**
+     * 获取单个令牌直接向Redis申请的次数
+     *
+     * @return 申请次数
+     */
+    public long getRemoteAcquires() {
+        return remoteAcquires.sum();
+    }
+
+    /**
+     * 获取拒绝次数
+     *
+     * @return 拒绝次数
+     */
+    public long getRejects() {
+        return rejects.sum();
+    }
+}
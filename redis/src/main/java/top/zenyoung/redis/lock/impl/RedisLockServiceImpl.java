@@ -1,17 +1,16 @@
 package top.zenyoung.redis.lock.impl;
 
-import com.google.common.collect.Maps;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.springframework.util.Assert;
+import top.zenyoung.common.util.KeyedLocks;
 import top.zenyoung.redis.lock.LockService;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.time.Duration;
-import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
@@ -23,15 +22,14 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 @RequiredArgsConstructor
 public class RedisLockServiceImpl implements LockService {
-    private static final Map<String, Object> LOCKS = Maps.newConcurrentMap();
+    private static final KeyedLocks LOCKS = new KeyedLocks();
     private final RedissonClient client;
 
     @Override
     public void sync(@Nonnull final String key, @Nonnull final Duration expire,
                      @Nonnull final Runnable lockHandler, @Nullable final Runnable unlockHandler) {
         Assert.hasText(key, "'key'不能为空!");
-        final String syncKey = "lock-" + key;
-        synchronized (LOCKS.computeIfAbsent(syncKey, k -> new Object())) {
+        LOCKS.sync("lock-" + key, () -> {
             try {
                 //获取锁
                 final RLock lock = this.client.getLock(key);
@@ -49,9 +47,7 @@ public class RedisLockServiceImpl implements LockService {
                 }
             } catch (InterruptedException e) {
                 log.warn("获取同步锁失败[key:{}]-exp: {}", key, e.getMessage());
-            } finally {
-                LOCKS.remove(syncKey);
             }
-        }
+        });
     }
 }
@@ -1,7 +1,11 @@
 package top.zenyoung.redis.service;
 
 import javax.annotation.Nonnull;
+import java.io.Closeable;
 import java.io.Serializable;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
 import java.util.function.Consumer;
 
 /**
@@ -31,4 +35,65 @@ public interface QueueService {
      * @return 出队数据处理数量
      */
     <T extends Serializable> int popQueue(@Nonnull final String key, @Nonnull final Class<T> dataClass, @Nonnull final Consumer<T> consumer);
+
+    /**
+     * 批量数据入队(单次网络往返)
+     *
+     * @param key   队列键名
+     * @param items 队列数据集合
+     * @param <T>   队列数据类型
+     */
+    <T extends Serializable> void pushAll(@Nonnull final String key, @Nonnull final Collection<T> items);
+
+    /**
+     * 批量数据出队(单次网络往返,依赖LPOP count,需Redis 6.2+)
+     *
+     * @param key       队列键名
+     * @param dataClass 队列数据类型Class
+     * @param max       最大出队数量
+     * @param <T>       队列数据类型
+     * @return 出队数据(队列为空时返回空集合)
+     */
+    <T extends Serializable> List<T> pollBatch(@Nonnull final String key, @Nonnull final Class<T> dataClass, final int max);
+
+    /**
+     * 启动阻塞消费(队列为空时阻塞等待,有数据时按批量拉取)
+     * <p>
+     * 批量拉取通过管道逐条出队,不依赖Redis 6.2+;拉取或处理异常时本批数据按原顺序放回队首(至少一次投递).
+     * </p>
+     *
+     * @param key         队列键名
+     * @param dataClass   队列数据类型Class
+     * @param batchSize   每批最大数量
+     * @param parallelism 并行消费线程数
+     * @param consumer    批量数据处理
+     * @param <T>         队列数据类型
+     * @return 消费句柄(关闭后停止消费)
+     */
+    <T extends Serializable> Subscription subscribe(@Nonnull final String key, @Nonnull final Class<T> dataClass,
+                                                    final int batchSize, final int parallelism,
+                                                    @Nonnull final Consumer<List<T>> consumer);
+
+    /**
+     * 消费句柄
+     */
+    interface Subscription extends Closeable {
+        /**
+         * 阻塞等待的最长时间(到期后检查是否已关闭)
+         */
+        Duration POLL_TIMEOUT = Duration.ofSeconds(5);
+
+        /**
+         * 是否已关闭
+         *
+         * @return 是否已关闭
+         */
+        boolean isClosed();
+
+        /**
+         * 停止消费
+         */
+        @Override
+        void close();
+    }
 }
@@ -1,11 +1,10 @@
 package top.zenyoung.redis.service.impl;
 
-import com.google.common.collect.Maps;
 import lombok.extern.slf4j.Slf4j;
+import top.zenyoung.common.util.KeyedLocks;
 import top.zenyoung.redis.service.TaskService;
 
 import javax.annotation.Nonnull;
-import java.util.Map;
 
 /**
  * 任务基础实现类
@@ -14,7 +13,7 @@ import java.util.Map;
  */
 @Slf4j
 abstract class BaseTaskServiceImpl implements TaskService {
-    private static final Map<String, Object> LOCKS = Maps.newConcurrentMap();
+    private static final KeyedLocks LOCKS = new KeyedLocks();
 
     /**
      * 获取当前执行并发数
@@ -44,29 +43,24 @@ abstract class BaseTaskServiceImpl implements TaskService {
     @Override
     public final void startTask(@Nonnull final String key, @Nonnull final Runnable process) {
         log.debug("startTask(key: {},process: {})...", key, process);
-        final String lockKey = key + ":lock";
-        synchronized (LOCKS.computeIfAbsent(lockKey, k -> new Object())) {
+        LOCKS.sync(key + ":lock", () -> {
+            final int max = this.getMaxConcurrencyTotal();
+            final int run = this.getRunConcurrencyTotal(key);
+            if (run >= max) {
+                log.debug("任务正在执行中,等待处理完成[{}/{}]", run, max);
+                return;
+            }
+            //计数器累加
+            this.addConcurrency(key, 1);
+            final long start = System.currentTimeMillis();
             try {
-                final int max = this.getMaxConcurrencyTotal();
-                final int run = this.getRunConcurrencyTotal(key);
-                if (run >= max) {
-                    log.debug("任务正在执行中,等待处理完成[{}/{}]", run, max);
-                    return;
-                }
-                //计数器累加
-                this.addConcurrency(key, 1);
-                final long start = System.currentTimeMillis();
-                try {
-                    //执行任务
-                    process.run();
-                } finally {
-                    //计数器递减
-                    this.addConcurrency(key, -1);
-                    log.info("任务执行耗时: {}ms", (System.currentTimeMillis() - start));
-                }
+                //执行任务
+                process.run();
             } finally {
-                LOCKS.remove(lockKey);
+                //计数器递减
+                this.addConcurrency(key, -1);
+                log.info("任务执行耗时: {}ms", (System.currentTimeMillis() - start));
             }
-        }
+        });
     }
 }
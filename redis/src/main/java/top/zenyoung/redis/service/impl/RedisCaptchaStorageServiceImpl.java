@@ -1,15 +1,17 @@
 package top.zenyoung.redis.service.impl;
 
-import com.google.common.base.Joiner;
 import com.google.common.base.Strings;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import top.zenyoung.boot.service.impl.BaseServiceImpl;
 import top.zenyoung.graphics.service.CaptchaStorageService;
 
 import javax.annotation.Nonnull;
 import java.time.Duration;
+import java.util.Collections;
 
 /**
  * 验证码存储-Redis存储
@@ -19,11 +21,16 @@ import java.time.Duration;
 @Slf4j
 @RequiredArgsConstructor(staticName = "of")
 public class RedisCaptchaStorageServiceImpl extends BaseServiceImpl implements CaptchaStorageService {
-    private final static String SEP = ":";
+    private final static String KEY_PREFIX = "zy-framework:captcha:";
+    /**
+     * 原子取出并删除(兼容Redis 6.2以下版本,不依赖GETDEL)
+     */
+    private final static RedisScript<String> TAKE_SCRIPT = new DefaultRedisScript<>(
+            "local v=redis.call('GET',KEYS[1]); if v then redis.call('DEL',KEYS[1]) end; return v", String.class);
     private final StringRedisTemplate redisTemplate;
 
     private static String getCaptchaCodeKey(final long captchaId) {
-        return Joiner.on(SEP).skipNulls().join("zy-framework", "captcha", captchaId);
+        return KEY_PREFIX + captchaId;
     }
 
     @Override
@@ -45,4 +52,11 @@ public class RedisCaptchaStorageServiceImpl extends BaseServiceImpl implements C
         final String key = getCaptchaCodeKey(id);
         redisTemplate.delete(key);
     }
+
+    @Override
+    public String takeCaptcha(@Nonnull final Long id) {
+        final String key = getCaptchaCodeKey(id);
+        //Lua脚本单次往返原子取出并删除
+        return redisTemplate.execute(TAKE_SCRIPT, Collections.singletonList(key));
+    }
 }
@@ -1,19 +1,31 @@
 package top.zenyoung.redis.service.impl;
 
-import com.google.common.collect.Maps;
+import com.google.common.collect.Lists;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBatch;
+import org.redisson.api.RBlockingDeque;
+import org.redisson.api.RDeque;
 import org.redisson.api.RQueue;
+import org.redisson.api.RQueueAsync;
 import org.redisson.api.RedissonClient;
 import org.springframework.dao.QueryTimeoutException;
 import org.springframework.util.Assert;
+import top.zenyoung.common.util.StripedLocks;
+import top.zenyoung.common.util.ThreadUtils;
 import top.zenyoung.redis.service.QueueService;
 
 import javax.annotation.Nonnull;
 import java.io.Serializable;
-import java.util.Map;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
 import java.util.function.Consumer;
 
 /**
@@ -25,7 +37,7 @@ import java.util.function.Consumer;
 @Slf4j
 @RequiredArgsConstructor
 public class RedisQueueServiceImpl implements QueueService {
-    private static final Map<String, Object> LOCKS = Maps.newConcurrentMap();
+    private static final StripedLocks LOCKS = new StripedLocks();
     private final RedissonClient redissonClient;
 
     /**
@@ -47,16 +59,15 @@ public class RedisQueueServiceImpl implements QueueService {
         final String queueKey = getRedisQueueKey(key);
         Assert.hasText(queueKey, "'queueKey'不能为空!");
         //入队处理
-        final String lock = queueKey + "-push";
-        synchronized (LOCKS.computeIfAbsent(lock, k -> new Object())) {
-            try {
-                this.redissonClient.getQueue(queueKey).add(data);
-            } catch (Throwable ex) {
-                log.warn("pushQueue(key: {},data: {})-exp: {}", key, data, ex.getMessage());
-                throw new RuntimeException(ex);
-            } finally {
-                LOCKS.remove(lock);
-            }
+        final Lock lock = LOCKS.getLock(queueKey + "-push");
+        lock.lock();
+        try {
+            this.redissonClient.getQueue(queueKey).add(data);
+        } catch (Throwable ex) {
+            log.warn("pushQueue(key: {},data: {})-exp: {}", key, data, ex.getMessage());
+            throw new RuntimeException(ex);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -69,27 +80,157 @@ public class RedisQueueServiceImpl implements QueueService {
         Assert.hasText(queueKey, "'queueKey'不能为空!");
         //出队处理
         final AtomicInteger refCounts = new AtomicInteger(0);
-        final String lock = queueKey + "-pop";
-        synchronized (LOCKS.computeIfAbsent(lock, k -> new Object())) {
+        final Lock lock = LOCKS.getLock(queueKey + "-pop");
+        lock.lock();
+        try {
+            //出队处理
+            final RQueue<T> queue = this.redissonClient.getQueue(queueKey);
+            T data;
+            while (Objects.nonNull(data = queue.poll())) {
+                //计数器累加
+                refCounts.incrementAndGet();
+                //业务处理
+                consumer.accept(data);
+            }
+        } catch (QueryTimeoutException ex) {
+            log.debug("popQueue(key: {},dataClass: {},consumer: {})-exp: {}", key, dataClass, consumer, ex.getMessage());
+        } catch (Throwable ex) {
+            log.warn("popQueue(key: {},dataClass: {},consumer: {})-exp: {}", key, dataClass, consumer, ex.getMessage());
+            throw new RuntimeException(ex);
+        } finally {
+            lock.unlock();
+        }
+        return refCounts.get();
+    }
+
+    @Override
+    public <T extends Serializable> void pushAll(@Nonnull final String key, @Nonnull final Collection<T> items) {
+        log.debug("pushAll(key: {},items: {})...", key, items.size());
+        Assert.hasText(key, "'key'不能为空!");
+        if (items.isEmpty()) {
+            return;
+        }
+        final String queueKey = getRedisQueueKey(key);
+        try {
+            //单条RPUSH命令批量入队
+            this.redissonClient.getQueue(queueKey).addAll(items);
+        } catch (Throwable ex) {
+            log.warn("pushAll(key: {},items: {})-exp: {}", key, items.size(), ex.getMessage());
+            throw new RuntimeException(ex);
+        }
+    }
+
+    @Override
+    public <T extends Serializable> List<T> pollBatch(@Nonnull final String key, @Nonnull final Class<T> dataClass, final int max) {
+        log.debug("pollBatch(key: {},dataClass: {},max: {})...", key, dataClass, max);
+        Assert.hasText(key, "'key'不能为空!");
+        Assert.isTrue(max > 0, "'max'必须大于0!");
+        final String queueKey = getRedisQueueKey(key);
+        try {
+            //单条LPOP count命令批量出队
+            final RQueue<T> queue = this.redissonClient.getQueue(queueKey);
+            return queue.poll(max);
+        } catch (QueryTimeoutException ex) {
+            log.debug("pollBatch(key: {},dataClass: {},max: {})-exp: {}", key, dataClass, max, ex.getMessage());
+            return Collections.emptyList();
+        } catch (Throwable ex) {
+            log.warn("pollBatch(key: {},dataClass: {},max: {})-exp: {}", key, dataClass, max, ex.getMessage());
+            throw new RuntimeException(ex);
+        }
+    }
+
+    @Override
+    public <T extends Serializable> Subscription subscribe(@Nonnull final String key, @Nonnull final Class<T> dataClass,
+                                                           final int batchSize, final int parallelism,
+                                                           @Nonnull final Consumer<List<T>> consumer) {
+        log.info("subscribe(key: {},dataClass: {},batchSize: {},parallelism: {})...", key, dataClass, batchSize, parallelism);
+        Assert.hasText(key, "'key'不能为空!");
+        Assert.isTrue(batchSize > 0, "'batchSize'必须大于0!");
+        Assert.isTrue(parallelism > 0, "'parallelism'必须大于0!");
+        final String queueKey = getRedisQueueKey(key);
+        final RBlockingDeque<T> queue = this.redissonClient.getBlockingDeque(queueKey);
+        final ExecutorService executor = Executors.newFixedThreadPool(parallelism, ThreadUtils.createThreadFactory(true, queueKey));
+        final BlockingSubscription subscription = new BlockingSubscription(executor);
+        for (int i = 0; i < parallelism; i++) {
+            executor.execute(() -> consume(subscription, queue, batchSize, consumer));
+        }
+        return subscription;
+    }
+
+    private <T extends Serializable> void consume(@Nonnull final Subscription subscription, @Nonnull final RBlockingDeque<T> queue,
+                                                  final int batchSize, @Nonnull final Consumer<List<T>> consumer) {
+        final long timeout = Subscription.POLL_TIMEOUT.toMillis();
+        while (!subscription.isClosed()) {
+            final List<T> items = Lists.newArrayListWithCapacity(batchSize);
             try {
-                //出队处理
-                final RQueue<T> queue = this.redissonClient.getQueue(queueKey);
-                T data;
-                while (Objects.nonNull(data = queue.poll())) {
-                    //计数器累加
-                    refCounts.incrementAndGet();
-                    //业务处理
-                    consumer.accept(data);
+                //BLPOP阻塞等待首条数据
+                final T first = queue.poll(timeout, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                items.add(first);
+                if (batchSize > 1) {
+                    pollRest(queue.getName(), batchSize - 1, items);
                 }
-            } catch (QueryTimeoutException ex) {
-                log.debug("popQueue(key: {},dataClass: {},consumer: {})-exp: {}", key, dataClass, consumer, ex.getMessage());
+                consumer.accept(items);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
             } catch (Throwable ex) {
-                log.warn("popQueue(key: {},dataClass: {},consumer: {})-exp: {}", key, dataClass, consumer, ex.getMessage());
-                throw new RuntimeException(ex);
-            } finally {
-                LOCKS.remove(lock);
+                log.warn("consume(queue: {})-exp: {}", queue.getName(), ex.getMessage());
+                requeue(queue, items);
             }
         }
-        return refCounts.get();
+        log.info("consume(queue: {})-closed.", queue.getName());
+    }
+
+    /**
+     * 拉取剩余批量(单次管道往返逐条LPOP,兼容Redis 6.2以下版本)
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends Serializable> void pollRest(@Nonnull final String queueKey, final int count, @Nonnull final List<T> items) {
+        final RBatch batch = this.redissonClient.createBatch();
+        final RQueueAsync<T> queue = batch.getQueue(queueKey);
+        for (int i = 0; i < count; i++) {
+            queue.pollAsync();
+        }
+        for (final Object item : batch.execute().getResponses()) {
+            if (Objects.nonNull(item)) {
+                items.add((T) item);
+            }
+        }
+    }
+
+    /**
+     * 已出队数据按原顺序放回队首
+     */
+    private <T extends Serializable> void requeue(@Nonnull final RDeque<T> queue, @Nonnull final List<T> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        try {
+            for (int i = items.size() - 1; i >= 0; i--) {
+                queue.addFirst(items.get(i));
+            }
+        } catch (Throwable ex) {
+            log.error("requeue(queue: {},items: {})-exp: {}", queue.getName(), items, ex.getMessage());
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class BlockingSubscription implements Subscription {
+        private final ExecutorService executor;
+        private volatile boolean closed = false;
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            executor.shutdownNow();
+        }
     }
 }
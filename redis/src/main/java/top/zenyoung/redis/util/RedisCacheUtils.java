@@ -3,11 +3,16 @@ package top.zenyoung.redis.util;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.util.Assert;
+import top.zenyoung.redis.cache.RedisNearCache;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * Redis-缓存-工具类
@@ -18,6 +23,22 @@ import java.time.Duration;
 @Slf4j
 @UtilityClass
 public class RedisCacheUtils {
+    private static volatile RedisNearCache nearCache;
+
+    /**
+     * 设置本地近端缓存(为空时关闭)
+     *
+     * @param cache 本地近端缓存
+     */
+    public static void setNearCache(@Nullable final RedisNearCache cache) {
+        nearCache = cache;
+    }
+
+    @Nullable
+    private static RedisNearCache getNearCache(@Nonnull final String key) {
+        final RedisNearCache cache = nearCache;
+        return Objects.nonNull(cache) && cache.accept(key) ? cache : null;
+    }
 
     public static void saveCacheValue(@Nonnull final StringRedisTemplate redisTemplate, @Nonnull final String key, @Nonnull final String val) {
         log.debug("saveCacheValue(key: {},val: {})...", key, val);
@@ -26,6 +47,10 @@ public class RedisCacheUtils {
         try {
             //保存缓存
             redisTemplate.opsForValue().set(key, val);
+            final RedisNearCache cache = getNearCache(key);
+            if (Objects.nonNull(cache)) {
+                cache.update(key, val, null);
+            }
         } catch (QueryTimeoutException ex) {
             log.debug("saveCacheValue(key: {},val: {})-exp: {}", key, val, ex.getMessage());
         }
@@ -38,6 +63,10 @@ public class RedisCacheUtils {
         try {
             //保存缓存
             redisTemplate.opsForValue().set(key, val, timeout);
+            final RedisNearCache cache = getNearCache(key);
+            if (Objects.nonNull(cache)) {
+                cache.update(key, val, timeout);
+            }
         } catch (QueryTimeoutException ex) {
             log.debug("saveCacheValue(key: {},val: {},timeout: {})-exp: {}", key, val, timeout, ex.getMessage());
         }
@@ -46,9 +75,35 @@ public class RedisCacheUtils {
     public static String getCacheValue(@Nonnull final StringRedisTemplate redisTemplate, @Nonnull final String key) {
         log.debug("getCacheValue(key: {})...", key);
         Assert.hasText(key, "'key'不能为空!");
+        final RedisNearCache cache = getNearCache(key);
+        if (Objects.nonNull(cache)) {
+            final String val = cache.get(key);
+            if (Objects.nonNull(val)) {
+                return val;
+            }
+        }
         try {
-            //读取缓存
-            return redisTemplate.opsForValue().get(key);
+            if (Objects.isNull(cache)) {
+                //读取缓存
+                return redisTemplate.opsForValue().get(key);
+            }
+            //同一管道读取值及剩余有效期,本地副本不超过Redis中的有效期
+            final byte[] rawKey = redisTemplate.getStringSerializer().serialize(key);
+            final List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.stringCommands().get(rawKey);
+                connection.keyCommands().pTtl(rawKey);
+                return null;
+            });
+            final String val = (String) results.get(0);
+            if (Objects.nonNull(val)) {
+                final Long pttl = (Long) results.get(1);
+                if (Objects.isNull(pttl) || pttl == -1) {
+                    cache.put(key, val, null);
+                } else if (pttl > 0) {
+                    cache.put(key, val, Duration.ofMillis(pttl));
+                }
+            }
+            return val;
         } catch (QueryTimeoutException ex) {
             log.debug("getCacheValue(key: {})-exp: {}", key, ex.getMessage());
         }
@@ -61,6 +116,10 @@ public class RedisCacheUtils {
         try {
             //清空数据
             redisTemplate.delete(key);
+            final RedisNearCache cache = getNearCache(key);
+            if (Objects.nonNull(cache)) {
+                cache.invalidate(key);
+            }
         } catch (QueryTimeoutException ex) {
             log.debug("clearCacheValue(key: {})-exp: {}", key, ex.getMessage());
         }
@@ -71,6 +130,10 @@ public class RedisCacheUtils {
         Assert.hasText(key, "'key'不能为空!");
         try {
             redisTemplate.expire(key, renewalTime);
+            final RedisNearCache cache = getNearCache(key);
+            if (Objects.nonNull(cache)) {
+                cache.renewal(key, renewalTime);
+            }
         } catch (QueryTimeoutException ex) {
             log.debug("renewalCacheValue(key: {},renewalTime: {})-exp: {}", key, renewalTime, ex.getMessage());
         }
@@ -0,0 +1,58 @@
+package top.zenyoung.segment;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import javax.annotation.Nonnull;
+import java.io.Serializable;
+import java.util.Collection;
+
+/**
+ * 连续ID区间(闭区间)
+ *
+ * @author young
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor(staticName = "of")
+public class IdRange implements Serializable {
+    /**
+     * 起始ID(包含)
+     */
+    private final long start;
+    /**
+     * 结束ID(包含)
+     */
+    private final long end;
+
+    /**
+     * 获取区间ID数量
+     *
+     * @return ID数量
+     */
+    public long size() {
+        return end - start + 1;
+    }
+
+    /**
+     * 展开区间集合为ID数组
+     *
+     * @param ranges 区间集合
+     * @return ID数组
+     */
+    public static long[] toArray(@Nonnull final Collection<IdRange> ranges) {
+        long total = 0;
+        for (final IdRange range : ranges) {
+            total += range.size();
+        }
+        final long[] ids = new long[Math.toIntExact(total)];
+        int idx = 0;
+        for (final IdRange range : ranges) {
+            for (long id = range.getStart(); id <= range.getEnd(); id++) {
+                ids[idx++] = id;
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,30 @@
+package top.zenyoung.segment.concurrent;
+
+/**
+ * 可合并刷新的任务执行器
+ *
+ * @author young
+ */
+public interface BatchAffinityJob extends AffinityJob {
+
+    /**
+     * 获取批处理器
+     *
+     * @return 批处理器,为空时按单任务执行
+     */
+    PrefetchBatcher getBatcher();
+
+    /**
+     * 计算本轮预取步长
+     *
+     * @return 预取步长,小于等于0时无需预取
+     */
+    long prepare();
+
+    /**
+     * 完成预取
+     *
+     * @param maxId 最大ID
+     */
+    void complete(final long maxId);
+}
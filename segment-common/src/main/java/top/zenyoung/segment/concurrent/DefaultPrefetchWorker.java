@@ -1,11 +1,15 @@
 package top.zenyoung.segment.concurrent;
 
 import com.google.common.base.Strings;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nonnull;
 import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.LockSupport;
@@ -20,12 +24,21 @@ public class DefaultPrefetchWorker extends Thread implements PrefetchWorker {
     private static final AtomicInteger THREAD_COUNTER = new AtomicInteger(0);
     private volatile boolean shutdown = false;
     private final Duration prefetchPeriod;
+    private final boolean batchRefill;
+    @Getter
+    private final PrefetchWorkerMetrics metrics;
 
     private final CopyOnWriteArraySet<AffinityJob> affinityJobs = Sets.newCopyOnWriteArraySet();
 
     public DefaultPrefetchWorker(@Nonnull final Duration prefetchPeriod) {
+        this(prefetchPeriod, true);
+    }
+
+    public DefaultPrefetchWorker(@Nonnull final Duration prefetchPeriod, final boolean batchRefill) {
         super(Strings.lenientFormat("DefaultPrefetchWorker-" + THREAD_COUNTER.incrementAndGet()));
         this.prefetchPeriod = prefetchPeriod;
+        this.batchRefill = batchRefill;
+        this.metrics = new PrefetchWorkerMetrics(getName());
     }
 
     @Override
@@ -40,6 +53,7 @@ public class DefaultPrefetchWorker extends Thread implements PrefetchWorker {
     @Override
     public void wakeup(@Nonnull final AffinityJob job) {
         log.debug("wakeup - [{}] state: [{}]", job.getJobId(), getState());
+        metrics.recordHunger();
         if (shutdown) {
             log.warn("wakeup - [{}] - PrefetchWorker is shutdown,Can't be awakened.", job.getJobId());
             return;
@@ -55,13 +69,22 @@ public class DefaultPrefetchWorker extends Thread implements PrefetchWorker {
     public void run() {
         while (!shutdown) {
             try {
+                final Map<PrefetchBatcher, Map<BatchAffinityJob, Long>> batches = Maps.newHashMap();
                 affinityJobs.forEach(job -> {
                     try {
+                        if (batchRefill && job instanceof BatchAffinityJob batchJob && Objects.nonNull(batchJob.getBatcher())) {
+                            final long step = batchJob.prepare();
+                            if (step > 0) {
+                                batches.computeIfAbsent(batchJob.getBatcher(), k -> Maps.newHashMap()).put(batchJob, step);
+                            }
+                            return;
+                        }
                         job.run();
                     } catch (Throwable e) {
                         log.error(e.getMessage(), e);
                     }
                 });
+                batches.forEach(this::refill);
                 LockSupport.parkNanos(this, prefetchPeriod.toNanos());
             } catch (Throwable e) {
                 log.error(e.getMessage(), e);
@@ -69,6 +92,31 @@ public class DefaultPrefetchWorker extends Thread implements PrefetchWorker {
         }
     }
 
+    private void refill(@Nonnull final PrefetchBatcher batcher, @Nonnull final Map<BatchAffinityJob, Long> jobSteps) {
+        final Map<String, Long> steps = Maps.newHashMapWithExpectedSize(jobSteps.size());
+        jobSteps.forEach((job, step) -> steps.put(job.getJobId(), step));
+        try {
+            final long start = System.nanoTime();
+            final Map<String, Long> maxIds = batcher.nextMaxIds(steps);
+            metrics.recordRefill(steps.size(), System.nanoTime() - start);
+            log.debug("refill - batchSize: [{}] - fetched: [{}].", steps.size(), maxIds.size());
+            jobSteps.keySet().forEach(job -> {
+                final Long maxId = maxIds.get(job.getJobId());
+                if (Objects.isNull(maxId)) {
+                    log.warn("refill - [{}] - max id not found.", job.getJobId());
+                    return;
+                }
+                try {
+                    job.complete(maxId);
+                } catch (Throwable e) {
+                    log.error(e.getMessage(), e);
+                }
+            });
+        } catch (Throwable e) {
+            log.error("refill - batchSize: [{}] - exp: {}", steps.size(), e.getMessage(), e);
+        }
+    }
+
     @Override
     public void shutdown() {
         if (log.isInfoEnabled()) {
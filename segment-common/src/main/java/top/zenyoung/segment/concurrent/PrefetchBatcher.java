@@ -0,0 +1,20 @@
+package top.zenyoung.segment.concurrent;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+
+/**
+ * 预取批处理器(多业务类型合并刷新)
+ *
+ * @author young
+ */
+public interface PrefetchBatcher {
+
+    /**
+     * 批量获取最大ID
+     *
+     * @param steps 步长集合(key: 业务类型,value: 步长)
+     * @return 最大ID集合(key: 业务类型,value: 最大ID),缺失的业务类型不返回
+     */
+    Map<String, Long> nextMaxIds(@Nonnull final Map<String, Long> steps);
+}
@@ -23,6 +23,13 @@ public interface PrefetchWorker {
      */
     void wakeup(@Nonnull final AffinityJob job);
 
+    /**
+     * 获取指标
+     *
+     * @return 指标
+     */
+    PrefetchWorkerMetrics getMetrics();
+
     /**
      * 关闭
      */
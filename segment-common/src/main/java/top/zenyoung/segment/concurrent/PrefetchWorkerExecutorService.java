@@ -5,8 +5,11 @@ import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nonnull;
 import java.time.Duration;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * 预取器线程池管理
@@ -26,6 +29,7 @@ public class PrefetchWorkerExecutorService {
     private volatile boolean shutdown = false;
     private final int corePoolSize;
     private final Duration prefetchPeriod;
+    private final boolean batchRefill;
     private final PrefetchWorker[] workers;
     private boolean initialized = false;
     private final AtomicLong threadIdx = new AtomicLong(0L);
@@ -35,9 +39,14 @@ public class PrefetchWorkerExecutorService {
     }
 
     public PrefetchWorkerExecutorService(final Duration prefetchPeriod, final int corePoolSize, final boolean shutdownHook) {
+        this(prefetchPeriod, corePoolSize, shutdownHook, true);
+    }
+
+    public PrefetchWorkerExecutorService(final Duration prefetchPeriod, final int corePoolSize, final boolean shutdownHook, final boolean batchRefill) {
         Preconditions.checkArgument(corePoolSize > 0, "corePoolSize:[%s] must be greater than 0.", corePoolSize);
         this.prefetchPeriod = prefetchPeriod;
         this.corePoolSize = corePoolSize;
+        this.batchRefill = batchRefill;
         this.workers = new PrefetchWorker[corePoolSize];
         if (shutdownHook) {
             Runtime.getRuntime().addShutdownHook(new GracefullyCloser(this));
@@ -50,7 +59,7 @@ public class PrefetchWorkerExecutorService {
         }
         initialized = true;
         for (int i = 0; i < corePoolSize; i++) {
-            final DefaultPrefetchWorker prefetchWorker = new DefaultPrefetchWorker(prefetchPeriod);
+            final DefaultPrefetchWorker prefetchWorker = new DefaultPrefetchWorker(prefetchPeriod, batchRefill);
             prefetchWorker.setDaemon(true);
             workers[i] = prefetchWorker;
             log.debug("initWorkers - [{}].", prefetchWorker.getName());
@@ -86,6 +95,18 @@ public class PrefetchWorkerExecutorService {
         }
     }
 
+    /**
+     * 获取已初始化预取器的指标
+     *
+     * @return 指标集合
+     */
+    public List<PrefetchWorkerMetrics> getMetrics() {
+        return Stream.of(workers)
+                .filter(Objects::nonNull)
+                .map(PrefetchWorker::getMetrics)
+                .collect(Collectors.toList());
+    }
+
     public void shutdown() {
         log.info("shutdown.");
         if (shutdown) {
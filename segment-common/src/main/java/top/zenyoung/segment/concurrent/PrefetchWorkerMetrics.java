@@ -0,0 +1,75 @@
+package top.zenyoung.segment.concurrent;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 预取器指标
+ *
+ * @author young
+ */
+@RequiredArgsConstructor
+public class PrefetchWorkerMetrics {
+    @Getter
+    private final String name;
+    private final LongAdder refills = new LongAdder();
+    private final LongAdder refillJobs = new LongAdder();
+    private final LongAdder refillNanos = new LongAdder();
+    private final AtomicLong maxRefillNanos = new AtomicLong(0);
+    private final AtomicLong maxBatchSize = new AtomicLong(0);
+    private final LongAdder hungerEvents = new LongAdder();
+    @Getter
+    private volatile long lastBatchSize;
+    @Getter
+    private volatile long lastRefillNanos;
+
+    /**
+     * 记录一次刷新
+     *
+     * @param batchSize 批量任务数
+     * @param nanos     耗时(纳秒)
+     */
+    public void recordRefill(final int batchSize, final long nanos) {
+        refills.increment();
+        refillJobs.add(batchSize);
+        refillNanos.add(nanos);
+        maxRefillNanos.accumulateAndGet(nanos, Math::max);
+        maxBatchSize.accumulateAndGet(batchSize, Math::max);
+        lastBatchSize = batchSize;
+        lastRefillNanos = nanos;
+    }
+
+    /**
+     * 记录一次饥饿
+     */
+    public void recordHunger() {
+        hungerEvents.increment();
+    }
+
+    public long getRefills() {
+        return refills.sum();
+    }
+
+    public long getRefillJobs() {
+        return refillJobs.sum();
+    }
+
+    public long getRefillNanos() {
+        return refillNanos.sum();
+    }
+
+    public long getMaxRefillNanos() {
+        return maxRefillNanos.get();
+    }
+
+    public long getMaxBatchSize() {
+        return maxBatchSize.get();
+    }
+
+    public long getHungerEvents() {
+        return hungerEvents.sum();
+    }
+}
@@ -1,10 +1,13 @@
 package top.zenyoung.segment.config;
 
+import com.google.common.collect.Maps;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import top.zenyoung.segment.concurrent.PrefetchWorkerExecutorService;
+import top.zenyoung.segment.distributor.SegmentDialect;
 
 import java.time.Duration;
+import java.util.Map;
 
 /**
  * 分段编码配置
@@ -15,6 +18,22 @@ import java.time.Duration;
 @ConfigurationProperties(prefix = "top.zenyoung.segment")
 public class SegmentProperties {
     private Chain chain = new Chain();
+    /**
+     * 数据库方言(为空时根据数据源自动识别)
+     */
+    private SegmentDialect dialect;
+    /**
+     * 条带化配置(key: bizType)
+     */
+    private Map<String, Striped> striped = Maps.newHashMap();
+    /**
+     * 本地分段日志配置
+     */
+    private Journal journal = new Journal();
+    /**
+     * 指标配置
+     */
+    private Metrics metrics = new Metrics();
 
     @Data
     public static class Chain {
@@ -30,5 +49,49 @@ public class SegmentProperties {
         private Duration prefetchPeriod = PrefetchWorkerExecutorService.DEFAULT_PREFETCH_PERIOD;
         private int corePoolSize = Runtime.getRuntime().availableProcessors();
         private boolean shutdownHook = true;
+        /**
+         * 是否合并多业务类型的预取刷新
+         */
+        private boolean batchRefill = true;
+    }
+
+    @Data
+    public static class Striped {
+        /**
+         * 条带数量(向上取整为2的幂)
+         */
+        private int stripes = Runtime.getRuntime().availableProcessors();
+        /**
+         * 每次租借的ID数量
+         */
+        private int leaseSize = 100;
+    }
+
+    @Data
+    public static class Journal {
+        /**
+         * 是否启用
+         */
+        private boolean enabled = false;
+        /**
+         * 日志目录(须为每个实例单独指定,为空时不启用)
+         */
+        private String dir;
+        /**
+         * 每个业务类型记录的区间数量
+         */
+        private int capacity = 64;
+        /**
+         * 高水位预留间隔(重启最多浪费的ID数量)
+         */
+        private long checkpointInterval = 100;
+    }
+
+    @Data
+    public static class Metrics {
+        /**
+         * 是否启用
+         */
+        private boolean enabled = true;
     }
 }
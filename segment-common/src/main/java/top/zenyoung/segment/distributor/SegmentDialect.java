@@ -0,0 +1,125 @@
+package top.zenyoung.segment.distributor;
+
+import com.google.common.base.Strings;
+import lombok.Getter;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * 分段ID-数据库方言
+ * <p>
+ * 参数顺序统一为: step, bizType;递增只推进max_id,step列保持分段定义不变(批量申请的数量不写回).
+ * version列统一记录最近一次分配的时间戳(秒),与MySQL的unix_timestamp()语义一致.
+ * </p>
+ *
+ * @author young
+ */
+@Getter
+public enum SegmentDialect {
+    /**
+     * 通用(事务内更新+查询)
+     */
+    DEFAULT(new String[0], "unix_timestamp()",
+            "update tbl_segment_id set max_id=(max_id + :{step}), version={version} where biz_type = :{bizType}",
+            "select max_id from tbl_segment_id where biz_type = :{bizType}",
+            true),
+    /**
+     * MySQL/MariaDB(LAST_INSERT_ID(expr),查询不再访问表)
+     */
+    MYSQL(new String[]{"mysql", "mariadb"}, "unix_timestamp()",
+            "update tbl_segment_id set max_id=last_insert_id(max_id + :{step}), version={version} where biz_type = :{bizType}",
+            "select last_insert_id()",
+            false),
+    /**
+     * PostgreSQL(UPDATE ... RETURNING)
+     */
+    POSTGRESQL(new String[]{"postgresql"}, "cast(extract(epoch from current_timestamp) as bigint)",
+            "update tbl_segment_id set max_id=(max_id + :{step}), version={version} where biz_type = :{bizType} returning max_id",
+            null,
+            false),
+    /**
+     * H2(FINAL TABLE)
+     */
+    H2(new String[]{"h2"}, "cast(extract(epoch from current_timestamp) as bigint)",
+            "select max_id from final table (update tbl_segment_id set max_id=(max_id + :{step}), version={version} where biz_type = :{bizType})",
+            null,
+            false),
+    /**
+     * SQL Server(UPDATE ... OUTPUT)
+     */
+    SQLSERVER(new String[]{"sql server"}, "datediff_big(second, '1970-01-01', getutcdate())",
+            "update tbl_segment_id set max_id=(max_id + :{step}), version={version} output inserted.max_id where biz_type = :{bizType}",
+            null,
+            false);
+
+    private final String[] productNames;
+    /**
+     * 版本号(时间戳秒)表达式
+     */
+    private final String versionSql;
+    /**
+     * 递增SQL(命名参数)
+     */
+    private final String incrementSql;
+    /**
+     * 查询SQL(命名参数),为空时递增SQL直接返回max_id
+     */
+    private final String fetchSql;
+    /**
+     * 是否需要在事务内执行
+     */
+    private final boolean transactional;
+    /**
+     * 递增SQL(JDBC占位符)
+     */
+    private final String jdbcIncrementSql;
+    /**
+     * 查询SQL(JDBC占位符)
+     */
+    private final String jdbcFetchSql;
+
+    SegmentDialect(final String[] productNames, final String versionSql, final String incrementSql,
+                   final String fetchSql, final boolean transactional) {
+        this.productNames = productNames;
+        this.versionSql = versionSql;
+        this.incrementSql = incrementSql.replace("{version}", versionSql);
+        this.fetchSql = fetchSql;
+        this.transactional = transactional;
+        this.jdbcIncrementSql = toJdbcSql(this.incrementSql);
+        this.jdbcFetchSql = toJdbcSql(fetchSql);
+    }
+
+    private static String toJdbcSql(final String sql) {
+        return Objects.isNull(sql) ? null : sql.replaceAll(":\\{\\w+}", "?");
+    }
+
+    /**
+     * 递增SQL是否直接返回max_id
+     *
+     * @return 是否返回
+     */
+    public boolean isReturning() {
+        return Objects.isNull(fetchSql);
+    }
+
+    /**
+     * 根据数据库产品名称解析方言
+     *
+     * @param productName 数据库产品名称
+     * @return 方言
+     */
+    public static SegmentDialect parse(final String productName) {
+        if (!Strings.isNullOrEmpty(productName)) {
+            final String name = productName.toLowerCase(Locale.ROOT);
+            for (final SegmentDialect dialect : SegmentDialect.values()) {
+                for (final String productNamePart : dialect.getProductNames()) {
+                    if (name.contains(productNamePart)) {
+                        return dialect;
+                    }
+                }
+            }
+        }
+        return DEFAULT;
+    }
+}
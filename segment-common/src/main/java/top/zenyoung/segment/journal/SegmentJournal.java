@@ -0,0 +1,214 @@
+package top.zenyoung.segment.journal;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import lombok.extern.slf4j.Slf4j;
+import top.zenyoung.segment.IdRange;
+import top.zenyoung.segment.SegmentIdDefinition;
+import top.zenyoung.segment.exception.SegmentException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 本地分段日志(内存映射文件)
+ * <p>
+ * 记录从数据库租借的分段区间以及已分配ID的高水位,重启后可继续使用未分配的区间.
+ * 高水位按checkpointInterval预留写入,重启时最多跳过checkpointInterval个ID,保证不会重复.
+ * 日志文件在整个生命周期内持有排他文件锁,同一文件不会被多个进程同时恢复.
+ * </p>
+ *
+ * @author young
+ */
+@Slf4j
+public class SegmentJournal {
+    private static final int MAGIC = 0x53474A4C;
+    private static final int VERSION = 1;
+    private static final int POS_MAGIC = 0;
+    private static final int POS_VERSION = 4;
+    private static final int POS_RESERVED = 8;
+    private static final int POS_COUNT = 16;
+    private static final int POS_STEP = 24;
+    private static final int POS_SAFE_DISTANCE = 32;
+    private static final int HEADER_SIZE = 64;
+    private static final int ENTRY_SIZE = 16;
+
+    private final String bizType;
+    private final int capacity;
+    private final long checkpointInterval;
+    private final MappedByteBuffer buffer;
+    /**
+     * 文件锁(随进程退出释放)
+     */
+    private final FileLock lock;
+    private volatile long reserved;
+
+    private SegmentJournal(@Nonnull final String bizType, final int capacity, final long checkpointInterval,
+                           @Nonnull final MappedByteBuffer buffer, @Nonnull final FileLock lock) {
+        this.bizType = bizType;
+        this.lock = lock;
+        this.capacity = capacity;
+        this.checkpointInterval = checkpointInterval;
+        this.buffer = buffer;
+        if (buffer.getInt(POS_MAGIC) != MAGIC || buffer.getInt(POS_VERSION) != VERSION) {
+            for (int i = 0; i < HEADER_SIZE; i += Long.BYTES) {
+                buffer.putLong(i, 0L);
+            }
+            buffer.putInt(POS_MAGIC, MAGIC);
+            buffer.putInt(POS_VERSION, VERSION);
+        }
+        this.reserved = buffer.getLong(POS_RESERVED);
+    }
+
+    /**
+     * 打开(不存在时创建)业务类型日志
+     *
+     * @param dir                日志目录
+     * @param bizType            业务类型
+     * @param capacity           区间记录容量
+     * @param checkpointInterval 高水位预留间隔
+     * @return 日志,文件已被其他进程占用时返回null
+     */
+    @Nullable
+    public static SegmentJournal open(@Nonnull final Path dir, @Nonnull final String bizType,
+                                      final int capacity, final long checkpointInterval) {
+        Preconditions.checkArgument(capacity > 0, "capacity:[%s] must be greater than 0.", capacity);
+        Preconditions.checkArgument(checkpointInterval > 0, "checkpointInterval:[%s] must be greater than 0.", checkpointInterval);
+        final Path file = dir.resolve(bizType.replaceAll("[^A-Za-z0-9_.-]", "_") + ".journal");
+        final long size = HEADER_SIZE + (long) capacity * ENTRY_SIZE;
+        FileChannel channel = null;
+        try {
+            Files.createDirectories(dir);
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            //排他锁随通道一直持有,防止多个进程恢复同一区间导致ID重复
+            final FileLock lock = tryLock(channel);
+            if (Objects.isNull(lock)) {
+                log.warn("open - [{}] - file: [{}] - locked by another process, journal disabled.", bizType, file);
+                channel.close();
+                return null;
+            }
+            final boolean resized = channel.size() != size;
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (resized) {
+                //容量变更后旧记录不可信,整体重置
+                buffer.putInt(POS_MAGIC, 0);
+            }
+            log.info("open - [{}] - file: [{}] - capacity: [{}].", bizType, file, capacity);
+            return new SegmentJournal(bizType, capacity, checkpointInterval, buffer, lock);
+        } catch (IOException e) {
+            log.error("open - [{}] - file: [{}] - exp: {}", bizType, file, e.getMessage(), e);
+            closeQuietly(channel);
+            throw new SegmentException(e.getMessage(), e);
+        }
+    }
+
+    private static FileLock tryLock(@Nonnull final FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            //同一进程内已持有
+            return null;
+        }
+    }
+
+    private static void closeQuietly(@Nullable final FileChannel channel) {
+        if (Objects.nonNull(channel)) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("closeQuietly-exp: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 读取日志中缓存的分段定义
+     *
+     * @return 分段定义,未记录时返回null
+     */
+    public synchronized SegmentIdDefinition getDefinition() {
+        final long step = buffer.getLong(POS_STEP);
+        if (step <= 0) {
+            return null;
+        }
+        return SegmentIdDefinition.of(bizType, buffer.getInt(POS_SAFE_DISTANCE), 0, step);
+    }
+
+    /**
+     * 记录分段定义
+     *
+     * @param definition 分段定义
+     */
+    public synchronized void saveDefinition(@Nonnull final SegmentIdDefinition definition) {
+        buffer.putInt(POS_SAFE_DISTANCE, definition.getSafeDistance());
+        buffer.putLong(POS_STEP, definition.getStep());
+    }
+
+    /**
+     * 恢复未分配的区间
+     *
+     * @return 区间集合(按起始ID升序)
+     */
+    public synchronized List<IdRange> recover() {
+        final long count = buffer.getLong(POS_COUNT);
+        final long from = Math.max(0, count - capacity);
+        final List<IdRange> ranges = Lists.newArrayList();
+        for (long i = from; i < count; i++) {
+            final int pos = entryPosition(i);
+            final long start = buffer.getLong(pos), end = buffer.getLong(pos + Long.BYTES);
+            if (end > reserved) {
+                ranges.add(IdRange.of(Math.max(start, reserved + 1), end));
+            }
+        }
+        ranges.sort(Comparator.comparingLong(IdRange::getStart));
+        log.info("recover - [{}] - reserved: [{}] - ranges: {}", bizType, reserved, ranges);
+        return ranges;
+    }
+
+    /**
+     * 记录租借区间(须在区间投入使用前调用)
+     *
+     * @param range 区间
+     */
+    public synchronized void append(@Nonnull final IdRange range) {
+        final long count = buffer.getLong(POS_COUNT);
+        final int pos = entryPosition(count);
+        buffer.putLong(pos, range.getStart());
+        buffer.putLong(pos + Long.BYTES, range.getEnd());
+        buffer.putLong(POS_COUNT, count + 1);
+    }
+
+    /**
+     * 标记已分配ID(须在ID返回调用方前调用)
+     *
+     * @param id 已分配ID
+     */
+    public void mark(final long id) {
+        if (id <= reserved) {
+            return;
+        }
+        synchronized (this) {
+            if (id <= reserved) {
+                return;
+            }
+            final long next = id + checkpointInterval;
+            buffer.putLong(POS_RESERVED, next);
+            reserved = next;
+        }
+    }
+
+    private int entryPosition(final long idx) {
+        return HEADER_SIZE + (int) (idx % capacity) * ENTRY_SIZE;
+    }
+}
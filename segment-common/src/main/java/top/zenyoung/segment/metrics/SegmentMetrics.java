@@ -0,0 +1,178 @@
+package top.zenyoung.segment.metrics;
+
+import com.google.common.collect.Lists;
+import lombok.Getter;
+import lombok.ToString;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * 分段ID指标
+ *
+ * @author young
+ */
+@ToString(onlyExplicitlyIncluded = true)
+public class SegmentMetrics implements SegmentMetricsMBean {
+    /**
+     * 刷新耗时分布桶上限(毫秒)
+     */
+    public static final long[] REFILL_BUCKETS_MILLIS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000};
+
+    @Getter
+    @ToString.Include
+    private final String bizType;
+    private final LongSupplier remaining;
+    private final IntSupplier chainLength;
+    private final IntSupplier prefetchDistance;
+
+    private final LongAdder hungerCount = new LongAdder();
+    private final LongAdder refillCount = new LongAdder();
+    private final LongAdder refillTotalNanos = new LongAdder();
+    private final AtomicLong refillMaxNanos = new AtomicLong(0);
+    private final LongAdder[] refillBuckets;
+    private final LongAdder expiredCount = new LongAdder();
+    private final LongAdder spinCount = new LongAdder();
+    private final LongAdder spinNanos = new LongAdder();
+    private final List<LongConsumer> refillListeners = Lists.newCopyOnWriteArrayList();
+
+    public SegmentMetrics(@Nonnull final String bizType, @Nonnull final LongSupplier remaining,
+                          @Nonnull final IntSupplier chainLength, @Nonnull final IntSupplier prefetchDistance) {
+        this.bizType = bizType;
+        this.remaining = remaining;
+        this.chainLength = chainLength;
+        this.prefetchDistance = prefetchDistance;
+        this.refillBuckets = new LongAdder[REFILL_BUCKETS_MILLIS.length + 1];
+        for (int i = 0; i < refillBuckets.length; i++) {
+            refillBuckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 记录一次饥饿
+     */
+    public void recordHunger() {
+        hungerCount.increment();
+    }
+
+    /**
+     * 记录一次刷新
+     *
+     * @param nanos 耗时(纳秒)
+     */
+    public void recordRefill(final long nanos) {
+        refillCount.increment();
+        refillTotalNanos.add(nanos);
+        refillMaxNanos.accumulateAndGet(nanos, Math::max);
+        final long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int idx = 0;
+        while (idx < REFILL_BUCKETS_MILLIS.length && millis > REFILL_BUCKETS_MILLIS[idx]) {
+            idx++;
+        }
+        refillBuckets[idx].increment();
+        for (final LongConsumer listener : refillListeners) {
+            listener.accept(nanos);
+        }
+    }
+
+    /**
+     * 添加刷新耗时监听器(用于对接外部直方图)
+     *
+     * @param listener 监听器(耗时纳秒)
+     */
+    public void addRefillListener(@Nonnull final LongConsumer listener) {
+        refillListeners.add(listener);
+    }
+
+    /**
+     * 记录一次分段过期
+     */
+    public void recordExpired() {
+        expiredCount.increment();
+    }
+
+    /**
+     * 记录一次调用方等待
+     *
+     * @param nanos 耗时(纳秒)
+     */
+    public void recordSpin(final long nanos) {
+        spinCount.increment();
+        spinNanos.add(nanos);
+    }
+
+    @Override
+    public long getRemaining() {
+        return remaining.getAsLong();
+    }
+
+    @Override
+    public int getChainLength() {
+        return chainLength.getAsInt();
+    }
+
+    @Override
+    public int getPrefetchDistance() {
+        return prefetchDistance.getAsInt();
+    }
+
+    @Override
+    public long getHungerCount() {
+        return hungerCount.sum();
+    }
+
+    @Override
+    public long getRefillCount() {
+        return refillCount.sum();
+    }
+
+    @Override
+    public long getRefillTotalNanos() {
+        return refillTotalNanos.sum();
+    }
+
+    @Override
+    public long getRefillMaxNanos() {
+        return refillMaxNanos.get();
+    }
+
+    @Override
+    public long[] getRefillLatencyBuckets() {
+        final long[] buckets = new long[refillBuckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = refillBuckets[i].sum();
+        }
+        return buckets;
+    }
+
+    /**
+     * 获取耗时分布桶计数
+     *
+     * @param idx 桶索引
+     * @return 计数
+     */
+    public long getRefillLatencyBucket(final int idx) {
+        return refillBuckets[idx].sum();
+    }
+
+    @Override
+    public long getExpiredCount() {
+        return expiredCount.sum();
+    }
+
+    @Override
+    public long getSpinCount() {
+        return spinCount.sum();
+    }
+
+    @Override
+    public long getSpinNanos() {
+        return spinNanos.sum();
+    }
+}
@@ -0,0 +1,72 @@
+package top.zenyoung.segment.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分段ID指标-Micrometer绑定
+ * <p>
+ * 分段生成器按需创建,注册中心新增指标时自动绑定到MeterRegistry.
+ * </p>
+ *
+ * @author young
+ */
+@RequiredArgsConstructor
+public class SegmentMetricsBinder implements MeterBinder {
+    private static final String PREFIX = "segment.";
+    private static final Duration[] REFILL_SLO = Arrays.stream(SegmentMetrics.REFILL_BUCKETS_MILLIS)
+            .mapToObj(Duration::ofMillis)
+            .toArray(Duration[]::new);
+    private final SegmentMetricsRegistry registry;
+
+    @Override
+    public void bindTo(@Nonnull final MeterRegistry meterRegistry) {
+        registry.addListener(metrics -> bind(meterRegistry, metrics));
+    }
+
+    private static void bind(@Nonnull final MeterRegistry meterRegistry, @Nonnull final SegmentMetrics metrics) {
+        final Tags tags = Tags.of("bizType", metrics.getBizType());
+        Gauge.builder(PREFIX + "remaining", metrics, SegmentMetrics::getRemaining)
+                .tags(tags)
+                .description("链路剩余可分配ID数量")
+                .register(meterRegistry);
+        Gauge.builder(PREFIX + "chain.length", metrics, SegmentMetrics::getChainLength)
+                .tags(tags)
+                .description("链路长度")
+                .register(meterRegistry);
+        Gauge.builder(PREFIX + "prefetch.distance", metrics, SegmentMetrics::getPrefetchDistance)
+                .tags(tags)
+                .description("预取距离")
+                .register(meterRegistry);
+        FunctionCounter.builder(PREFIX + "hunger", metrics, SegmentMetrics::getHungerCount)
+                .tags(tags)
+                .description("饥饿次数")
+                .register(meterRegistry);
+        FunctionCounter.builder(PREFIX + "expired", metrics, SegmentMetrics::getExpiredCount)
+                .tags(tags)
+                .description("分段过期次数")
+                .register(meterRegistry);
+        final Timer refill = Timer.builder(PREFIX + "refill")
+                .tags(tags)
+                .description("数据库取号耗时")
+                .serviceLevelObjectives(REFILL_SLO)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        metrics.addRefillListener(nanos -> refill.record(nanos, TimeUnit.NANOSECONDS));
+        FunctionTimer.builder(PREFIX + "spin", metrics, SegmentMetrics::getSpinCount, SegmentMetrics::getSpinNanos, TimeUnit.NANOSECONDS)
+                .tags(tags)
+                .description("调用方等待补充分段耗时")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,92 @@
+package top.zenyoung.segment.metrics;
+
+/**
+ * 分段ID指标-JMX接口
+ *
+ * @author young
+ */
+public interface SegmentMetricsMBean {
+    /**
+     * 获取业务类型
+     *
+     * @return 业务类型
+     */
+    String getBizType();
+
+    /**
+     * 获取链路剩余可分配ID数量
+     *
+     * @return 剩余数量
+     */
+    long getRemaining();
+
+    /**
+     * 获取链路长度(头节点到尾节点)
+     *
+     * @return 链路长度
+     */
+    int getChainLength();
+
+    /**
+     * 获取当前预取距离
+     *
+     * @return 预取距离
+     */
+    int getPrefetchDistance();
+
+    /**
+     * 获取饥饿次数
+     *
+     * @return 饥饿次数
+     */
+    long getHungerCount();
+
+    /**
+     * 获取刷新(数据库取号)次数
+     *
+     * @return 刷新次数
+     */
+    long getRefillCount();
+
+    /**
+     * 获取刷新总耗时(纳秒)
+     *
+     * @return 总耗时
+     */
+    long getRefillTotalNanos();
+
+    /**
+     * 获取刷新最大耗时(纳秒)
+     *
+     * @return 最大耗时
+     */
+    long getRefillMaxNanos();
+
+    /**
+     * 获取刷新耗时分布(与{@link SegmentMetrics#REFILL_BUCKETS_MILLIS}对应,最后一个为溢出桶)
+     *
+     * @return 耗时分布
+     */
+    long[] getRefillLatencyBuckets();
+
+    /**
+     * 获取分段过期(NextIdSegmentExpiredException)次数
+     *
+     * @return 过期次数
+     */
+    long getExpiredCount();
+
+    /**
+     * 获取调用方等待补充分段的次数
+     *
+     * @return 等待次数
+     */
+    long getSpinCount();
+
+    /**
+     * 获取调用方等待补充分段的总耗时(纳秒)
+     *
+     * @return 总耗时
+     */
+    long getSpinNanos();
+}
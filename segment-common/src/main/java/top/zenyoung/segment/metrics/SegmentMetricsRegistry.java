@@ -0,0 +1,75 @@
+package top.zenyoung.segment.metrics;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 分段ID指标注册中心
+ *
+ * @author young
+ */
+@Slf4j
+public class SegmentMetricsRegistry {
+    public static final SegmentMetricsRegistry DEFAULT = new SegmentMetricsRegistry(true);
+    private static final String JMX_DOMAIN = "top.zenyoung.segment";
+
+    private final boolean jmx;
+    private final Map<String, SegmentMetrics> metrics = Maps.newConcurrentMap();
+    private final List<Consumer<SegmentMetrics>> listeners = Lists.newCopyOnWriteArrayList();
+
+    public SegmentMetricsRegistry(final boolean jmx) {
+        this.jmx = jmx;
+    }
+
+    /**
+     * 注册指标
+     *
+     * @param segmentMetrics 指标
+     */
+    public void register(@Nonnull final SegmentMetrics segmentMetrics) {
+        if (metrics.putIfAbsent(segmentMetrics.getBizType(), segmentMetrics) != null) {
+            return;
+        }
+        if (jmx) {
+            registerMbean(segmentMetrics);
+        }
+        listeners.forEach(listener -> listener.accept(segmentMetrics));
+    }
+
+    /**
+     * 添加注册监听(立即回放已注册的指标)
+     *
+     * @param listener 监听器
+     */
+    public void addListener(@Nonnull final Consumer<SegmentMetrics> listener) {
+        listeners.add(listener);
+        metrics.values().forEach(listener);
+    }
+
+    public Collection<SegmentMetrics> getMetrics() {
+        return Collections.unmodifiableCollection(metrics.values());
+    }
+
+    private void registerMbean(@Nonnull final SegmentMetrics segmentMetrics) {
+        try {
+            final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName name = new ObjectName(JMX_DOMAIN + ":type=SegmentMetrics,bizType=" + ObjectName.quote(segmentMetrics.getBizType()));
+            if (!mBeanServer.isRegistered(name)) {
+                mBeanServer.registerMBean(segmentMetrics, name);
+            }
+        } catch (Throwable e) {
+            log.warn("registerMbean[{}]-exp: {}", segmentMetrics.getBizType(), e.getMessage());
+        }
+    }
+}
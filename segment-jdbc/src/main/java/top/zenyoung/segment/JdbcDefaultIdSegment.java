@@ -45,4 +45,18 @@ public class JdbcDefaultIdSegment implements JdbcIdSegment {
         }
         return nextSeq;
     }
+
+    @Override
+    public IdRange incrementRange(final long size) {
+        Preconditions.checkArgument(size > 0, "size:[%s] must be greater than 0.", size);
+        if (isOverflow()) {
+            return null;
+        }
+        final long last = S.addAndGet(this, size);
+        final long first = last - size + 1;
+        if (isOverflow(first)) {
+            return null;
+        }
+        return IdRange.of(first, Math.min(last, maxId));
+    }
 }
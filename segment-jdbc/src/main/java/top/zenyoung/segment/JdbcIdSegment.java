@@ -38,6 +38,14 @@ public interface JdbcIdSegment extends IdSegment {
 
     long incrementAndGet();
 
+    /**
+     * 批量递增并获取连续序列区间
+     *
+     * @param size 数量
+     * @return 序列区间(可能不足size),溢出返回null
+     */
+    IdRange incrementRange(final long size);
+
     /**
      * 获取是否可用
      *
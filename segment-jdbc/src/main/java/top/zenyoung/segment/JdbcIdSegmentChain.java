@@ -97,4 +97,9 @@ public class JdbcIdSegmentChain implements JdbcIdSegment {
     public long incrementAndGet() {
         return idSegment.incrementAndGet();
     }
+
+    @Override
+    public IdRange incrementRange(final long size) {
+        return idSegment.incrementRange(size);
+    }
 }
@@ -51,4 +51,9 @@ public class JdbcMergedIdSegment implements JdbcIdSegment {
     public long incrementAndGet() {
         return idSegment.incrementAndGet();
     }
+
+    @Override
+    public IdRange incrementRange(final long size) {
+        return idSegment.incrementRange(size);
+    }
 }
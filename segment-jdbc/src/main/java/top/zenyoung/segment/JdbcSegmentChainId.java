@@ -2,15 +2,24 @@ package top.zenyoung.segment;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
-import top.zenyoung.segment.concurrent.AffinityJob;
+import top.zenyoung.segment.concurrent.BatchAffinityJob;
+import top.zenyoung.segment.concurrent.PrefetchBatcher;
 import top.zenyoung.segment.concurrent.PrefetchWorker;
 import top.zenyoung.segment.concurrent.PrefetchWorkerExecutorService;
 import top.zenyoung.segment.distributor.JdbcSegmentDistributor;
 import top.zenyoung.segment.exception.NextIdSegmentExpiredException;
+import top.zenyoung.segment.journal.SegmentJournal;
+import top.zenyoung.segment.metrics.SegmentMetrics;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
 
 /**
  * 分段ID实现
@@ -23,19 +32,42 @@ public class JdbcSegmentChainId implements SegmentIdGenerator {
     private final long idSegmentTtl;
     private final int safeDistance;
     private final JdbcSegmentDistributor maxIdDistributor;
+    private final PrefetchBatcher prefetchBatcher;
+    private final SegmentJournal journal;
     private final PrefetchJob prefetchJob;
     @Getter
+    private final SegmentMetrics metrics;
+    @Getter
     private volatile JdbcIdSegmentChain headChain = JdbcIdSegmentChain.newRoot();
 
     public JdbcSegmentChainId(final long idSegmentTtl, final int safeDistance,
                               @Nonnull final JdbcSegmentDistributor maxIdDistributor,
                               @Nonnull final PrefetchWorkerExecutorService prefetchWorkerExecutorService) {
+        this(idSegmentTtl, safeDistance, maxIdDistributor, prefetchWorkerExecutorService, null);
+    }
+
+    public JdbcSegmentChainId(final long idSegmentTtl, final int safeDistance,
+                              @Nonnull final JdbcSegmentDistributor maxIdDistributor,
+                              @Nonnull final PrefetchWorkerExecutorService prefetchWorkerExecutorService,
+                              @Nullable final PrefetchBatcher prefetchBatcher) {
+        this(idSegmentTtl, safeDistance, maxIdDistributor, prefetchWorkerExecutorService, prefetchBatcher, null);
+    }
+
+    public JdbcSegmentChainId(final long idSegmentTtl, final int safeDistance,
+                              @Nonnull final JdbcSegmentDistributor maxIdDistributor,
+                              @Nonnull final PrefetchWorkerExecutorService prefetchWorkerExecutorService,
+                              @Nullable final PrefetchBatcher prefetchBatcher,
+                              @Nullable final SegmentJournal journal) {
         Preconditions.checkArgument(idSegmentTtl > 0, Strings.lenientFormat("Illegal idSegmentTtl parameter:[%s].", idSegmentTtl));
         Preconditions.checkArgument(safeDistance > 0, "The safety distance must be greater than 0.");
         this.idSegmentTtl = idSegmentTtl;
         this.safeDistance = safeDistance;
         this.maxIdDistributor = maxIdDistributor;
-        this.prefetchJob = new PrefetchJob(this, headChain);
+        this.prefetchBatcher = prefetchBatcher;
+        this.journal = journal;
+        this.metrics = new SegmentMetrics(maxIdDistributor.getNamespace(), this::getRemaining, this::getChainLength,
+                () -> this.prefetchJob.prefetchDistance);
+        this.prefetchJob = new PrefetchJob(this, recover());
         prefetchWorkerExecutorService.submit(this.prefetchJob);
     }
 
@@ -51,11 +83,36 @@ public class JdbcSegmentChainId implements SegmentIdGenerator {
     }
 
     private JdbcIdSegmentChain generateNext(@Nonnull final JdbcIdSegmentChain previousChain, final int segments) {
-        return maxIdDistributor.nextIdSegmentChain(previousChain, segments, idSegmentTtl);
+        final long start = System.nanoTime();
+        final JdbcIdSegmentChain chain = maxIdDistributor.nextIdSegmentChain(previousChain, segments, idSegmentTtl);
+        metrics.recordRefill(System.nanoTime() - start);
+        return journal(chain);
+    }
+
+    private JdbcIdSegmentChain journal(@Nonnull final JdbcIdSegmentChain chain) {
+        if (Objects.nonNull(journal)) {
+            journal.append(IdRange.of(chain.getOffset() + 1, chain.getMaxId()));
+        }
+        return chain;
+    }
+
+    private JdbcIdSegmentChain recover() {
+        JdbcIdSegmentChain tail = headChain;
+        if (Objects.isNull(journal)) {
+            return tail;
+        }
+        for (final IdRange range : journal.recover()) {
+            final JdbcIdSegment idSegment = new JdbcDefaultIdSegment(range.getEnd(), range.size(), Clock.CACHE.secondTime(), idSegmentTtl);
+            final JdbcIdSegmentChain next = new JdbcIdSegmentChain(tail, idSegment);
+            tail.setNext(next);
+            tail = next;
+        }
+        return tail;
     }
 
     @Override
     public long nextId() {
+        long spinStart = 0;
         while (true) {
             JdbcIdSegmentChain chain = headChain;
             while (chain != null) {
@@ -63,35 +120,133 @@ public class JdbcSegmentChainId implements SegmentIdGenerator {
                     long nextSeq = chain.incrementAndGet();
                     if (!chain.isOverflow(nextSeq)) {
                         forward(chain);
+                        if (Objects.nonNull(journal)) {
+                            journal.mark(nextSeq);
+                        }
+                        if (spinStart > 0) {
+                            metrics.recordSpin(System.nanoTime() - spinStart);
+                        }
                         return nextSeq;
                     }
                 }
                 chain = chain.getNext();
             }
-            try {
-                final JdbcIdSegmentChain preIdSegmentChain = headChain;
-                if (preIdSegmentChain.trySetNext(preChain -> generateNext(preChain, getSafeDistance()))) {
-                    final JdbcIdSegmentChain nextChain = preIdSegmentChain.getNext();
-                    forward(nextChain);
-                    log.debug("generate - [{}] - headChain.version:[{}->{}].",
-                            maxIdDistributor.getNamespace(), preIdSegmentChain.getVersion(), nextChain.getVersion());
+            if (spinStart == 0) {
+                spinStart = System.nanoTime();
+            }
+            generateHead();
+        }
+    }
+
+    /**
+     * 批量获取连续ID区间
+     *
+     * @param size 期望数量
+     * @return ID区间(当前分段剩余不足时区间长度小于size)
+     */
+    public IdRange nextRange(final long size) {
+        Preconditions.checkArgument(size > 0, "size:[%s] must be greater than 0.", size);
+        while (true) {
+            JdbcIdSegmentChain chain = headChain;
+            while (chain != null) {
+                if (chain.isAvailable()) {
+                    final IdRange range = chain.incrementRange(size);
+                    if (Objects.nonNull(range)) {
+                        forward(chain);
+                        if (Objects.nonNull(journal)) {
+                            journal.mark(range.getEnd());
+                        }
+                        return range;
+                    }
                 }
+                chain = chain.getNext();
+            }
+            generateHead();
+        }
+    }
 
-            } catch (NextIdSegmentExpiredException e) {
-                log.warn("generate - [{}] - gave up this next IdSegmentChain.", maxIdDistributor.getNamespace(), e);
+    /**
+     * 批量获取ID区间
+     * <p>
+     * 链路剩余容量不足时,直接向分配器申请一个完整区间(一次数据库往返),不再逐段遍历.
+     * </p>
+     *
+     * @param size 数量
+     * @return ID区间集合(区间总数量等于size)
+     */
+    public List<IdRange> nextRanges(final long size) {
+        Preconditions.checkArgument(size > 0, "size:[%s] must be greater than 0.", size);
+        if (size > getRemaining()) {
+            final long start = System.nanoTime();
+            final long maxId = maxIdDistributor.nextMaxId(size);
+            metrics.recordRefill(System.nanoTime() - start);
+            return Collections.singletonList(IdRange.of(maxId - size + 1, maxId));
+        }
+        final List<IdRange> ranges = Lists.newArrayList();
+        long rest = size;
+        while (rest > 0) {
+            final IdRange range = nextRange(rest);
+            ranges.add(range);
+            rest -= range.size();
+        }
+        return ranges;
+    }
+
+    @Override
+    public long[] nextIds(final int size) {
+        return IdRange.toArray(nextRanges(size));
+    }
+
+    private long getRemaining() {
+        long remaining = 0;
+        JdbcIdSegmentChain chain = headChain;
+        while (chain != null) {
+            if (chain.isAvailable()) {
+                remaining += Math.max(0, chain.getMaxId() - chain.getSequence());
+            }
+            chain = chain.getNext();
+        }
+        return remaining;
+    }
+
+    private int getChainLength() {
+        int length = 0;
+        JdbcIdSegmentChain chain = headChain;
+        while (chain != null) {
+            length++;
+            chain = chain.getNext();
+        }
+        return length;
+    }
+
+    private void generateHead() {
+        try {
+            final JdbcIdSegmentChain preIdSegmentChain = headChain;
+            if (preIdSegmentChain.trySetNext(preChain -> generateNext(preChain, getSafeDistance()))) {
+                final JdbcIdSegmentChain nextChain = preIdSegmentChain.getNext();
+                forward(nextChain);
+                log.debug("generate - [{}] - headChain.version:[{}->{}].",
+                        maxIdDistributor.getNamespace(), preIdSegmentChain.getVersion(), nextChain.getVersion());
             }
-            this.prefetchJob.hungry();
+
+        } catch (NextIdSegmentExpiredException e) {
+            metrics.recordExpired();
+            log.warn("generate - [{}] - gave up this next IdSegmentChain.", maxIdDistributor.getNamespace(), e);
         }
+        metrics.recordHunger();
+        this.prefetchJob.hungry();
     }
 
-    private static class PrefetchJob implements AffinityJob {
-        private final ThreadLocal<PrefetchWorker> refPrefetchWorker = ThreadLocal.withInitial(() -> null);
+    private static class PrefetchJob implements BatchAffinityJob {
         private static final int MAX_PREFETCH_DISTANCE = 100_000_000;
         private static final long HUNGER_THRESHOLD = 1;
+        private volatile PrefetchWorker prefetchWorker;
         private volatile long lastHungerTime;
         private final JdbcSegmentChainId segmentChainId;
         private JdbcIdSegmentChain tailChain;
-        private int prefetchDistance;
+        private volatile int prefetchDistance;
+        private int pendingSegments;
+        private long pendingStep;
 
         public PrefetchJob(@Nonnull final JdbcSegmentChainId segmentChainId, @Nonnull final JdbcIdSegmentChain tailChain) {
             this.segmentChainId = segmentChainId;
@@ -111,15 +266,20 @@ public class JdbcSegmentChainId implements SegmentIdGenerator {
 
         @Override
         public PrefetchWorker getPrefetchWorker() {
-            return refPrefetchWorker.get();
+            return prefetchWorker;
         }
 
         @Override
         public void setPrefetchWorker(@Nonnull final PrefetchWorker worker) {
-            if (this.refPrefetchWorker.get() != null) {
+            if (this.prefetchWorker != null) {
                 return;
             }
-            this.refPrefetchWorker.set(worker);
+            this.prefetchWorker = worker;
+        }
+
+        @Override
+        public PrefetchBatcher getBatcher() {
+            return this.segmentChainId.prefetchBatcher;
         }
 
         @Override
@@ -127,7 +287,35 @@ public class JdbcSegmentChainId implements SegmentIdGenerator {
             prefetch();
         }
 
+        @Override
+        public long prepare() {
+            this.pendingSegments = prefetchSegments();
+            //记录提交给数据库的步长,complete时按同一步长构建分段
+            this.pendingStep = this.pendingSegments > 0 ? this.segmentChainId.maxIdDistributor.getStep(this.pendingSegments) : 0;
+            return this.pendingStep;
+        }
+
+        @Override
+        public void complete(final long maxId) {
+            final int segments = this.pendingSegments;
+            final long totalStep = this.pendingStep;
+            if (segments <= 0) {
+                return;
+            }
+            this.pendingSegments = 0;
+            this.pendingStep = 0;
+            final JdbcIdSegment idSegment = this.segmentChainId.maxIdDistributor.newIdSegment(maxId, totalStep, segments, this.segmentChainId.idSegmentTtl);
+            appendChain(segments, preChain -> this.segmentChainId.journal(new JdbcIdSegmentChain(preChain, idSegment)));
+        }
+
         public void prefetch() {
+            final int prefetchSegments = prefetchSegments();
+            if (prefetchSegments > 0) {
+                appendChain(prefetchSegments, preChain -> this.segmentChainId.generateNext(preChain, prefetchSegments));
+            }
+        }
+
+        private int prefetchSegments() {
             final long wakeupTimeGap = Clock.CACHE.secondTime() - lastHungerTime;
             final boolean hunger = wakeupTimeGap < HUNGER_THRESHOLD;
             final int prePrefetchDistance = this.prefetchDistance;
@@ -154,18 +342,20 @@ public class JdbcSegmentChainId implements SegmentIdGenerator {
             if (safeGap <= 0 && !hunger) {
                 log.trace("prefetch - [{}] - safeGap is less than or equal to 0, and is not hungry - headChain.version:[{}] - tailChain.version:[{}].",
                         getJobId(), availableHeadChain.getVersion(), tailChain.getVersion());
-                return;
+                return 0;
             }
             final int prefetchSegments = hunger ? this.prefetchDistance : safeGap;
-            appendChain(availableHeadChain, prefetchSegments);
+            log.debug("prefetch - [{}] - headChain.version:[{}] - tailChain.version:[{}] - prefetchSegments:[{}].",
+                    getJobId(), availableHeadChain.getVersion(), tailChain.getVersion(), prefetchSegments);
+            return prefetchSegments;
         }
 
-        private void appendChain(@Nonnull final JdbcIdSegmentChain availableHeadChain, final int prefetchSegments) {
-            log.debug("appendChain - [{}] - headChain.version:[{}] - tailChain.version:[{}] - prefetchSegments:[{}].",
-                    getJobId(), availableHeadChain.getVersion(), tailChain.getVersion(), prefetchSegments);
+        private void appendChain(final int prefetchSegments, @Nonnull final UnaryOperator<JdbcIdSegmentChain> idSegmentChainSupplier) {
+            log.debug("appendChain - [{}] - tailChain.version:[{}] - prefetchSegments:[{}].",
+                    getJobId(), tailChain.getVersion(), prefetchSegments);
             try {
                 final JdbcIdSegmentChain preTail = tailChain;
-                tailChain = tailChain.ensureSetNext(preChain -> this.segmentChainId.generateNext(preChain, prefetchSegments)).getNext();
+                tailChain = tailChain.ensureSetNext(idSegmentChainSupplier).getNext();
                 while (tailChain.getNext() != null) {
                     tailChain = tailChain.getNext();
                 }
@@ -174,6 +364,7 @@ public class JdbcSegmentChainId implements SegmentIdGenerator {
                         preTail.gap(tailChain, this.segmentChainId.maxIdDistributor.getStep()),
                         preTail.getVersion(), tailChain.getVersion());
             } catch (NextIdSegmentExpiredException e) {
+                this.segmentChainId.metrics.recordExpired();
                 log.warn("appendChain - [{}] - gave up this next IdSegmentChain.", getJobId(), e);
             }
         }
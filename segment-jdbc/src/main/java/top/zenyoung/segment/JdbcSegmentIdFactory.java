@@ -1,22 +1,30 @@
 package top.zenyoung.segment;
 
+import com.google.common.base.Strings;
 import com.google.common.collect.Maps;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.Assert;
+import top.zenyoung.segment.concurrent.PrefetchBatcher;
 import top.zenyoung.segment.concurrent.PrefetchWorkerExecutorService;
-import top.zenyoung.segment.distributor.JdbcSegmentDistributor;
+import top.zenyoung.segment.config.SegmentProperties;
+import top.zenyoung.segment.distributor.JdbcIdSegmentBatchDistributor;
 import top.zenyoung.segment.distributor.JdbcIdSegmentDistributor;
 import top.zenyoung.segment.exception.NotFoundMaxIdException;
 import top.zenyoung.segment.exception.SegmentException;
+import top.zenyoung.segment.journal.SegmentJournal;
+import top.zenyoung.segment.metrics.SegmentMetricsRegistry;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 import static top.zenyoung.segment.JdbcIdSegment.TIME_TO_LIVE_FOREVER;
 
@@ -26,7 +34,6 @@ import static top.zenyoung.segment.JdbcIdSegment.TIME_TO_LIVE_FOREVER;
  * @author young
  */
 @Slf4j
-@RequiredArgsConstructor
 public class JdbcSegmentIdFactory implements SegmentIdFactory {
     private static final Map<String, Object> LOCKS = Maps.newHashMap();
     private static final Map<String, SegmentIdGenerator> GENERATORS = Maps.newConcurrentMap();
@@ -35,6 +42,20 @@ public class JdbcSegmentIdFactory implements SegmentIdFactory {
 
     private final DataSource dataSource;
     private final PrefetchWorkerExecutorService prefetchWorkerExecutorService;
+    private final SegmentProperties properties;
+    private final PrefetchBatcher prefetchBatcher;
+
+    public JdbcSegmentIdFactory(@Nonnull final DataSource dataSource, @Nonnull final PrefetchWorkerExecutorService prefetchWorkerExecutorService) {
+        this(dataSource, prefetchWorkerExecutorService, new SegmentProperties());
+    }
+
+    public JdbcSegmentIdFactory(@Nonnull final DataSource dataSource, @Nonnull final PrefetchWorkerExecutorService prefetchWorkerExecutorService,
+                                @Nonnull final SegmentProperties properties) {
+        this.dataSource = dataSource;
+        this.prefetchWorkerExecutorService = prefetchWorkerExecutorService;
+        this.properties = properties;
+        this.prefetchBatcher = new JdbcIdSegmentBatchDistributor(dataSource, properties.getDialect());
+    }
 
     @Override
     public SegmentIdGenerator getIdGenerator(@Nonnull final String bizType) {
@@ -42,9 +63,24 @@ public class JdbcSegmentIdFactory implements SegmentIdFactory {
         synchronized (LOCKS.computeIfAbsent(bizType, k -> new Object())) {
             try {
                 return GENERATORS.computeIfAbsent(bizType, key -> {
-                    final SegmentIdDefinition definition = getIdDefinition(key);
-                    final JdbcSegmentDistributor distributor = new JdbcIdSegmentDistributor(bizType, definition.getStep(), dataSource);
-                    return new JdbcSegmentChainId(TIME_TO_LIVE_FOREVER, definition.getSafeDistance(), distributor, prefetchWorkerExecutorService);
+                    final SegmentJournal journal = openJournal(key);
+                    //优先使用本地日志缓存的定义,避免启动时阻塞在数据库查询
+                    final SegmentIdDefinition cached = Objects.isNull(journal) ? null : journal.getDefinition();
+                    final SegmentIdDefinition definition = Objects.nonNull(cached) ? cached : getIdDefinition(key, journal);
+                    final JdbcIdSegmentDistributor distributor = new JdbcIdSegmentDistributor(bizType, definition.getStep(), dataSource, properties.getDialect());
+                    if (Objects.nonNull(cached)) {
+                        refreshIdDefinition(key, journal, distributor);
+                    }
+                    final JdbcSegmentChainId chainId = new JdbcSegmentChainId(TIME_TO_LIVE_FOREVER, definition.getSafeDistance(), distributor,
+                            prefetchWorkerExecutorService, prefetchBatcher, journal);
+                    if (properties.getMetrics().isEnabled()) {
+                        SegmentMetricsRegistry.DEFAULT.register(chainId.getMetrics());
+                    }
+                    final SegmentProperties.Striped striped = properties.getStriped().get(key);
+                    if (Objects.nonNull(striped)) {
+                        return new JdbcStripedSegmentChainId(chainId, striped.getStripes(), striped.getLeaseSize());
+                    }
+                    return chainId;
                 });
             } finally {
                 LOCKS.remove(bizType);
@@ -52,6 +88,41 @@ public class JdbcSegmentIdFactory implements SegmentIdFactory {
         }
     }
 
+    private SegmentJournal openJournal(@Nonnull final String bizType) {
+        final SegmentProperties.Journal journal = properties.getJournal();
+        if (Objects.isNull(journal) || !journal.isEnabled()) {
+            return null;
+        }
+        if (Strings.isNullOrEmpty(journal.getDir())) {
+            log.warn("openJournal - [{}] - journal dir not configured, journal disabled.", bizType);
+            return null;
+        }
+        return SegmentJournal.open(Paths.get(journal.getDir()), bizType, journal.getCapacity(), journal.getCheckpointInterval());
+    }
+
+    private SegmentIdDefinition getIdDefinition(@Nonnull final String bizType, @Nullable final SegmentJournal journal) {
+        final SegmentIdDefinition definition = getIdDefinition(bizType);
+        if (Objects.nonNull(journal)) {
+            journal.saveDefinition(definition);
+        }
+        return definition;
+    }
+
+    private void refreshIdDefinition(@Nonnull final String bizType, @Nonnull final SegmentJournal journal,
+                                     @Nonnull final JdbcIdSegmentDistributor distributor) {
+        //启动后异步回表刷新定义,使tbl_segment_id中调整的step生效
+        CompletableFuture.runAsync(() -> {
+            final SegmentIdDefinition definition = getIdDefinition(bizType, journal);
+            if (definition.getStep() != distributor.getStep()) {
+                log.info("refreshIdDefinition - [{}] - step: [{}] => [{}].", bizType, distributor.getStep(), definition.getStep());
+                distributor.setStep(definition.getStep());
+            }
+        }).exceptionally(e -> {
+            log.warn("refreshIdDefinition(bizType: {})-exp: {}", bizType, e.getMessage());
+            return null;
+        });
+    }
+
     private SegmentIdDefinition getIdDefinition(@Nonnull final String bizType) {
         try (final Connection conn = dataSource.getConnection()) {
             SegmentIdDefinition definition;
@@ -1,5 +1,6 @@
 package top.zenyoung.segment;
 
+import com.google.common.base.Preconditions;
 import top.zenyoung.common.sequence.Sequence;
 
 /**
@@ -9,4 +10,18 @@ import top.zenyoung.common.sequence.Sequence;
  */
 public interface SegmentIdGenerator extends Sequence {
 
+    /**
+     * 批量生成序号数据
+     *
+     * @param size 数量
+     * @return 序号数据
+     */
+    default long[] nextIds(final int size) {
+        Preconditions.checkArgument(size > 0, "size:[%s] must be greater than 0.", size);
+        final long[] ids = new long[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = nextId();
+        }
+        return ids;
+    }
 }
@@ -1,13 +1,18 @@
 package top.zenyoung.segment;
 
 import com.google.common.base.Preconditions;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import top.zenyoung.segment.concurrent.PrefetchWorkerExecutorService;
 import top.zenyoung.segment.concurrent.PrefetchWorkerExecutorServiceLifecycle;
 import top.zenyoung.segment.config.SegmentProperties;
+import top.zenyoung.segment.metrics.SegmentMetricsBinder;
+import top.zenyoung.segment.metrics.SegmentMetricsRegistry;
 
 import javax.annotation.Nonnull;
 import javax.sql.DataSource;
@@ -27,7 +32,7 @@ public class SegmentJdbcAutoConfiguration {
         final SegmentProperties.PrefetchWorker prefetchWorker = prop.getChain().getPrefetchWorker();
         Preconditions.checkNotNull(prefetchWorker, "segment.chain.prefetch-worker can not be null!");
         return new PrefetchWorkerExecutorService(prefetchWorker.getPrefetchPeriod(),
-                prefetchWorker.getCorePoolSize(), prefetchWorker.isShutdownHook());
+                prefetchWorker.getCorePoolSize(), prefetchWorker.isShutdownHook(), prefetchWorker.isBatchRefill());
     }
 
     @Bean
@@ -38,7 +43,20 @@ public class SegmentJdbcAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public SegmentIdFactory segmentIdFactory(@Nonnull final DataSource dataSource, @Nonnull final PrefetchWorkerExecutorService pwes) {
-        return new JdbcSegmentIdFactory(dataSource, pwes);
+    public SegmentIdFactory segmentIdFactory(@Nonnull final DataSource dataSource, @Nonnull final PrefetchWorkerExecutorService pwes,
+                                             @Nonnull final SegmentProperties prop) {
+        return new JdbcSegmentIdFactory(dataSource, pwes, prop);
+    }
+
+    @Configuration
+    @ConditionalOnClass(MeterRegistry.class)
+    @ConditionalOnProperty(prefix = "top.zenyoung.segment.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public static class SegmentMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public SegmentMetricsBinder segmentMetricsBinder() {
+            return new SegmentMetricsBinder(SegmentMetricsRegistry.DEFAULT);
+        }
     }
 }
@@ -0,0 +1,142 @@
+package top.zenyoung.segment.distributor;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import lombok.extern.slf4j.Slf4j;
+import top.zenyoung.segment.concurrent.PrefetchBatcher;
+import top.zenyoung.segment.exception.SegmentException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Jdbc分布式分段ID-批量实现
+ * <p>
+ * 单次事务内通过一条多行update(case when)和一条select完成多个业务类型的最大ID递增(仅推进max_id,不改写step).
+ * </p>
+ *
+ * @author young
+ */
+@Slf4j
+public class JdbcIdSegmentBatchDistributor implements PrefetchBatcher {
+    public static final int MAX_BATCH_SIZE = 100;
+    private static final Map<Integer, String> FETCH_SQL_CACHE = Maps.newConcurrentMap();
+
+    private final Map<Integer, String> incrementSqlCache = Maps.newConcurrentMap();
+    private final DataSource dataSource;
+    private volatile SegmentDialect dialect;
+
+    public JdbcIdSegmentBatchDistributor(@Nonnull final DataSource dataSource) {
+        this(dataSource, null);
+    }
+
+    public JdbcIdSegmentBatchDistributor(@Nonnull final DataSource dataSource, @Nullable final SegmentDialect dialect) {
+        Preconditions.checkNotNull(dataSource, "dataSource can not be null!");
+        this.dataSource = dataSource;
+        this.dialect = dialect;
+    }
+
+    private static String placeholders(final int size) {
+        return String.join(",", Collections.nCopies(size, "?"));
+    }
+
+    private SegmentDialect getDialect(@Nonnull final Connection connection) throws SQLException {
+        if (Objects.isNull(dialect)) {
+            dialect = SegmentDialect.parse(connection.getMetaData().getDatabaseProductName());
+            log.info("getDialect - dialect: [{}].", dialect);
+        }
+        return dialect;
+    }
+
+    private String getIncrementSql(@Nonnull final SegmentDialect sd, final int size) {
+        return incrementSqlCache.computeIfAbsent(size, key -> {
+            final String cases = Strings.repeat(" when ? then ?", key);
+            return "update tbl_segment_id set max_id=(max_id + case biz_type" + cases + " end), " +
+                    "version=" + sd.getVersionSql() + " " +
+                    "where biz_type in (" + placeholders(key) + ")";
+        });
+    }
+
+    private static String getFetchSql(final int size) {
+        return FETCH_SQL_CACHE.computeIfAbsent(size, key ->
+                "select biz_type, max_id from tbl_segment_id where biz_type in (" + placeholders(key) + ")");
+    }
+
+    @Override
+    public Map<String, Long> nextMaxIds(@Nonnull final Map<String, Long> steps) {
+        if (steps.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        //按业务类型排序,保证多节点间加锁顺序一致
+        final List<String> bizTypes = Lists.newArrayList(steps.keySet());
+        Collections.sort(bizTypes);
+        final Map<String, Long> maxIds = Maps.newHashMapWithExpectedSize(bizTypes.size());
+        try (final Connection connection = dataSource.getConnection()) {
+            final SegmentDialect sd = getDialect(connection);
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                for (final List<String> part : Lists.partition(bizTypes, MAX_BATCH_SIZE)) {
+                    increment(connection, sd, part, steps);
+                    fetch(connection, part, maxIds);
+                    connection.commit();
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            log.error(e.getMessage(), e);
+            throw new SegmentException(e.getMessage(), e);
+        }
+        return maxIds;
+    }
+
+    private void increment(@Nonnull final Connection connection, @Nonnull final SegmentDialect sd, @Nonnull final List<String> bizTypes,
+                           @Nonnull final Map<String, Long> steps) throws SQLException {
+        try (final PreparedStatement statement = connection.prepareStatement(getIncrementSql(sd, bizTypes.size()))) {
+            int idx = 1;
+            //max_id
+            for (final String bizType : bizTypes) {
+                statement.setString(idx++, bizType);
+                statement.setLong(idx++, steps.get(bizType));
+            }
+            //biz_type
+            for (final String bizType : bizTypes) {
+                statement.setString(idx++, bizType);
+            }
+            final int affected = statement.executeUpdate();
+            if (affected < bizTypes.size()) {
+                log.warn("increment - bizTypes: {} - affected: [{}].", bizTypes, affected);
+            }
+        }
+    }
+
+    private void fetch(@Nonnull final Connection connection, @Nonnull final List<String> bizTypes,
+                       @Nonnull final Map<String, Long> maxIds) throws SQLException {
+        try (final PreparedStatement statement = connection.prepareStatement(getFetchSql(bizTypes.size()))) {
+            int idx = 1;
+            for (final String bizType : bizTypes) {
+                statement.setString(idx++, bizType);
+            }
+            try (final ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    maxIds.put(resultSet.getString(1), resultSet.getLong(2));
+                }
+            }
+        }
+    }
+}
@@ -8,11 +8,13 @@ import top.zenyoung.segment.exception.SegmentException;
 import top.zenyoung.segment.exception.SegmentNameMissingException;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Objects;
 
 /**
  * Jdbc分布式分段ID实现
@@ -22,25 +24,26 @@ import java.sql.SQLException;
 @Slf4j
 public class JdbcIdSegmentDistributor implements JdbcSegmentDistributor {
     public static final Integer MAX_STEP = 5000;
-    public static final String INCREMENT_MAX_ID_SQL = "update tbl_segment_id set max_id=(max_id + ?), step = ?, version=unix_timestamp() where biz_type = ?";
-    public static final String FETCH_MAX_ID_SQL = "select max_id from tbl_segment_id where biz_type = ?";
 
     private final String namespace;
-    private final long step;
+    private volatile long step;
     private final DataSource dataSource;
-    private final String incrementMaxIdSql;
-    private final String fetchMaxIdSql;
+    private volatile SegmentDialect dialect;
 
     public JdbcIdSegmentDistributor(@Nonnull final String namespace, final long step, @Nonnull final DataSource dataSource) {
+        this(namespace, step, dataSource, null);
+    }
+
+    public JdbcIdSegmentDistributor(@Nonnull final String namespace, final long step, @Nonnull final DataSource dataSource,
+                                    @Nullable final SegmentDialect dialect) {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(namespace), "namespace can not be empty!");
         Preconditions.checkArgument(step > 0, "step:[%s] must be greater than 0!", step);
         Preconditions.checkNotNull(dataSource, "dataSource can not be null!");
 
         this.namespace = namespace;
         this.step = step;
-        this.incrementMaxIdSql = INCREMENT_MAX_ID_SQL;
-        this.fetchMaxIdSql = FETCH_MAX_ID_SQL;
         this.dataSource = dataSource;
+        this.dialect = dialect;
     }
 
     @Override
@@ -53,36 +56,101 @@ public class JdbcIdSegmentDistributor implements JdbcSegmentDistributor {
         return step;
     }
 
+    /**
+     * 更新步长(分段定义刷新后调用)
+     * <p>
+     * 分配过程中步长可能被更新,同一次分配的递增与分段构造须只读取一次步长.
+     * </p>
+     *
+     * @param step 步长
+     */
+    public void setStep(final long step) {
+        Preconditions.checkArgument(step > 0, "step:[%s] must be greater than 0!", step);
+        this.step = step;
+    }
+
+    private SegmentDialect getDialect(@Nonnull final Connection connection) throws SQLException {
+        if (Objects.isNull(dialect)) {
+            dialect = SegmentDialect.parse(connection.getMetaData().getDatabaseProductName());
+            log.info("getDialect - [{}] - dialect: [{}].", getNamespace(), dialect);
+        }
+        return dialect;
+    }
+
     @Override
     public long nextMaxId(final long step) {
         final long sep = Math.min(step, MAX_STEP);
         ensureStep(sep);
         try (final Connection connection = dataSource.getConnection()) {
-            connection.setAutoCommit(false);
-            try (final PreparedStatement statement = connection.prepareStatement(incrementMaxIdSql)) {
-                statement.setLong(1, step);
-                statement.setLong(2, step);
-                statement.setString(3, getNamespace());
-                final int affected = statement.executeUpdate();
-                if (affected == 0) {
-                    throw new SegmentNameMissingException(getNamespace());
+            final SegmentDialect sd = getDialect(connection);
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(!sd.isTransactional());
+            try {
+                final long nextMaxId;
+                if (sd.isReturning()) {
+                    //单条语句完成递增并返回,缩短行锁持有时间
+                    nextMaxId = incrementAndFetch(connection, sd, step);
+                } else {
+                    increment(connection, sd, step);
+                    nextMaxId = fetch(connection, sd);
                 }
-            }
-            long nextMaxId;
-            try (final PreparedStatement statement = connection.prepareStatement(fetchMaxIdSql)) {
-                statement.setString(1, getNamespace());
-                try (final ResultSet resultSet = statement.executeQuery()) {
-                    if (!resultSet.next()) {
-                        throw new NotFoundMaxIdException(getNamespace());
-                    }
-                    nextMaxId = resultSet.getLong(1);
+                if (sd.isTransactional()) {
+                    connection.commit();
                 }
+                return nextMaxId;
+            } catch (SQLException | SegmentException e) {
+                if (sd.isTransactional()) {
+                    connection.rollback();
+                }
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
             }
-            connection.commit();
-            return nextMaxId;
         } catch (SQLException e) {
             log.error(e.getMessage(), e);
             throw new SegmentException(e.getMessage(), e);
         }
     }
+
+    private long incrementAndFetch(@Nonnull final Connection connection, @Nonnull final SegmentDialect sd, final long step) throws SQLException {
+        try (final PreparedStatement statement = connection.prepareStatement(sd.getJdbcIncrementSql())) {
+            bindIncrement(statement, step);
+            try (final ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    throw new SegmentNameMissingException(getNamespace());
+                }
+                return resultSet.getLong(1);
+            }
+        }
+    }
+
+    private void increment(@Nonnull final Connection connection, @Nonnull final SegmentDialect sd, final long step) throws SQLException {
+        try (final PreparedStatement statement = connection.prepareStatement(sd.getJdbcIncrementSql())) {
+            bindIncrement(statement, step);
+            final int affected = statement.executeUpdate();
+            if (affected == 0) {
+                throw new SegmentNameMissingException(getNamespace());
+            }
+        }
+    }
+
+    private long fetch(@Nonnull final Connection connection, @Nonnull final SegmentDialect sd) throws SQLException {
+        final String fetchSql = sd.getJdbcFetchSql();
+        try (final PreparedStatement statement = connection.prepareStatement(fetchSql)) {
+            if (fetchSql.indexOf('?') > 0) {
+                statement.setString(1, getNamespace());
+            }
+            try (final ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    throw new NotFoundMaxIdException(getNamespace());
+                }
+                return resultSet.getLong(1);
+            }
+        }
+    }
+
+    private void bindIncrement(@Nonnull final PreparedStatement statement, final long step) throws SQLException {
+        statement.setLong(1, step);
+        statement.setString(2, getNamespace());
+    }
 }
@@ -20,8 +20,10 @@ public interface JdbcSegmentDistributor extends SegmentDistributor {
     default JdbcIdSegment nextIdSegment(final long ttl) {
         Preconditions.checkArgument(ttl > 0, "ttl:[%s] must be greater than 0.", ttl);
 
-        final long maxId = nextMaxId();
-        return new JdbcDefaultIdSegment(maxId, getStep(), Clock.CACHE.secondTime(), ttl);
+        //步长可能在运行时刷新,递增与分段构造须使用同一步长
+        final long step = getStep();
+        final long maxId = nextMaxId(step);
+        return new JdbcDefaultIdSegment(maxId, step, Clock.CACHE.secondTime(), ttl);
     }
 
     default JdbcIdSegment nextIdSegment(final int segments, final long ttl) {
@@ -43,6 +45,25 @@ public interface JdbcSegmentDistributor extends SegmentDistributor {
         return new JdbcIdSegmentChain(previousChain, nextIdSegment);
     }
 
+    /**
+     * 根据已递增的最大ID构建分段
+     *
+     * @param maxId     最大ID
+     * @param totalStep 递增时使用的总步长(须与递增时一致)
+     * @param segments  分段数
+     * @param ttl       有效期
+     * @return 分段
+     */
+    default JdbcIdSegment newIdSegment(final long maxId, final long totalStep, final int segments, final long ttl) {
+        Preconditions.checkArgument(segments > 0, "segments:[%s] must be greater than 0.", segments);
+        Preconditions.checkArgument(totalStep > 0, "totalStep:[%s] must be greater than 0.", totalStep);
+        if (DEFAULT_SEGMENTS == segments) {
+            return new JdbcDefaultIdSegment(maxId, totalStep, Clock.CACHE.secondTime(), ttl);
+        }
+        final JdbcIdSegment idSegment = new JdbcDefaultIdSegment(maxId, totalStep, Clock.CACHE.secondTime(), ttl);
+        return new JdbcMergedIdSegment(segments, idSegment);
+    }
+
     default void ensureStep(final long step) {
         Preconditions.checkArgument(step > 0, "step:[%s] must be greater than 0!", step);
     }
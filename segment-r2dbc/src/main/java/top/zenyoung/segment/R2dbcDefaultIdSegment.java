@@ -42,19 +42,31 @@ public class R2dbcDefaultIdSegment implements R2dbcIdSegment {
 
     @Override
     public Mono<Long> incrementAndGet() {
-        return isOverflow()
-                .flatMap(overflow -> {
-                    if (overflow) {
-                        return Mono.just(SEQUENCE_OVERFLOW);
-                    }
-                    final long nextSeq = S.incrementAndGet(this);
-                    return isOverflow(nextSeq)
-                            .map(isOverflow -> {
-                                if (isOverflow) {
-                                    return SEQUENCE_OVERFLOW;
-                                }
-                                return nextSeq;
-                            });
-                });
+        return Mono.just(tryIncrementAndGet());
+    }
+
+    @Override
+    public long tryIncrementAndGet() {
+        if (sequence >= maxId) {
+            return SEQUENCE_OVERFLOW;
+        }
+        final long nextSeq = S.incrementAndGet(this);
+        return nextSeq > maxId ? SEQUENCE_OVERFLOW : nextSeq;
+    }
+
+    @Override
+    public Mono<IdRange> incrementRange(final long size) {
+        if (size <= 0) {
+            return Mono.error(new IllegalArgumentException("size:[" + size + "] must be greater than 0."));
+        }
+        if (sequence >= maxId) {
+            return Mono.empty();
+        }
+        final long last = S.addAndGet(this, size);
+        final long first = last - size + 1;
+        if (first > maxId) {
+            return Mono.empty();
+        }
+        return Mono.just(IdRange.of(first, Math.min(last, maxId)));
     }
 }
@@ -54,6 +54,21 @@ public interface R2dbcIdSegment extends IdSegment {
 
     Mono<Long> incrementAndGet();
 
+    /**
+     * 同步递增并获取序列(纯内存操作,不产生Mono)
+     *
+     * @return 序列,溢出返回{@link #SEQUENCE_OVERFLOW}
+     */
+    long tryIncrementAndGet();
+
+    /**
+     * 批量递增并获取连续序列区间
+     *
+     * @param size 数量
+     * @return 序列区间(可能不足size),溢出返回空
+     */
+    Mono<IdRange> incrementRange(final long size);
+
     default Mono<Void> ensureNextIdSegment(@Nonnull final IdSegment next) {
         if (compareTo(next) >= 0) {
             return Mono.error(new NextIdSegmentExpiredException(this, next));
@@ -44,7 +44,7 @@ public class R2dbcIdSegmentChain implements R2dbcIdSegment {
                 return Mono.just(false);
             }
             return chainHandler.apply(this)
-                    .flatMap(next -> setNext(next).map(ret -> true));
+                    .flatMap(next -> setNext(next).thenReturn(true));
         }
     }
 
@@ -112,4 +112,14 @@ public class R2dbcIdSegmentChain implements R2dbcIdSegment {
     public Mono<Long> incrementAndGet() {
         return idSegment.incrementAndGet();
     }
+
+    @Override
+    public long tryIncrementAndGet() {
+        return idSegment.tryIncrementAndGet();
+    }
+
+    @Override
+    public Mono<IdRange> incrementRange(final long size) {
+        return idSegment.incrementRange(size);
+    }
 }
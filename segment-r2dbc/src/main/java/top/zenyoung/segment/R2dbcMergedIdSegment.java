@@ -52,4 +52,14 @@ public class R2dbcMergedIdSegment implements R2dbcIdSegment {
     public Mono<Long> incrementAndGet() {
         return idSegment.incrementAndGet();
     }
+
+    @Override
+    public long tryIncrementAndGet() {
+        return idSegment.tryIncrementAndGet();
+    }
+
+    @Override
+    public Mono<IdRange> incrementRange(final long size) {
+        return idSegment.incrementRange(size);
+    }
 }
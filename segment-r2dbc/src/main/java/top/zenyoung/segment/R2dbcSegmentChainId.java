@@ -3,6 +3,7 @@ package top.zenyoung.segment;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import top.zenyoung.segment.concurrent.AffinityJob;
 import top.zenyoung.segment.concurrent.PrefetchWorker;
@@ -55,54 +56,154 @@ public class R2dbcSegmentChainId implements SegmentIdGenerator {
         return maxIdDistributor.nextIdSegmentChain(previousChain, segments, idSegmentTtl);
     }
 
-    private Mono<Long> chainNextHandler(@Nullable final R2dbcIdSegmentChain chain) {
+    /**
+     * 从内存链路中同步获取ID(不产生Mono)
+     *
+     * @return ID,链路耗尽时返回{@link IdSegment#SEQUENCE_OVERFLOW}
+     */
+    private long nextAvailableId() {
+        R2dbcIdSegmentChain chain = refHeadChain.get();
+        while (Objects.nonNull(chain)) {
+            if (!chain.isExpired()) {
+                final long nextSeq = chain.tryIncrementAndGet();
+                if (nextSeq != IdSegment.SEQUENCE_OVERFLOW) {
+                    forward(chain);
+                    return nextSeq;
+                }
+            }
+            chain = chain.getNext();
+        }
+        return IdSegment.SEQUENCE_OVERFLOW;
+    }
+
+    /**
+     * 生成ID
+     * <p>
+     * 链路有剩余时在调用线程直接分配并返回Mono.just,仅在链路耗尽需要访问数据库时才进入响应式流程.
+     * </p>
+     *
+     * @return ID
+     */
+    @Override
+    public Mono<Long> nextId() {
+        final long nextId = nextAvailableId();
+        if (nextId > 0) {
+            return Mono.just(nextId);
+        }
+        return Mono.defer(this::generateHead).flatMap(ret -> nextId());
+    }
+
+    /**
+     * ID流(按订阅方需求逐个分配,链路耗尽时补充后继续)
+     *
+     * @return ID流
+     */
+    @Override
+    public Flux<Long> ids() {
+        return Flux.<Long>generate(sink -> {
+                    final long nextId = nextAvailableId();
+                    if (nextId > 0) {
+                        sink.next(nextId);
+                    } else {
+                        sink.complete();
+                    }
+                })
+                .concatWith(Mono.defer(this::generateHead).then(Mono.empty()))
+                .repeat();
+    }
+
+    private Mono<IdRange> chainRangeHandler(@Nullable final R2dbcIdSegmentChain chain, final long size) {
         if (Objects.isNull(chain)) {
-            return Mono.just(-1L);
+            return Mono.empty();
         }
         return chain.isAvailable()
                 .flatMap(available -> {
                     if (available) {
-                        return chain.incrementAndGet()
-                                .flatMap(nextSeq -> chain.isOverflow(nextSeq)
-                                        .flatMap(overflow -> {
-                                            if (overflow) {
-                                                return chainNextHandler(chain.getNext());
-                                            }
-                                            forward(chain);
-                                            return Mono.just(nextSeq);
-                                        })
-                                );
+                        return chain.incrementRange(size)
+                                .map(range -> {
+                                    forward(chain);
+                                    return range;
+                                })
+                                .switchIfEmpty(Mono.defer(() -> chainRangeHandler(chain.getNext(), size)));
                     }
-                    return chainNextHandler(chain.getNext());
+                    return chainRangeHandler(chain.getNext(), size);
                 });
     }
 
+    /**
+     * 批量获取连续ID区间
+     *
+     * @param size 期望数量
+     * @return ID区间(当前分段剩余不足时区间长度小于size)
+     */
+    public Mono<IdRange> nextRange(final long size) {
+        if (size <= 0) {
+            return Mono.error(new IllegalArgumentException("size:[" + size + "] must be greater than 0."));
+        }
+        return chainRangeHandler(refHeadChain.get(), size)
+                .switchIfEmpty(Mono.defer(() -> generateHead().flatMap(ret -> nextRange(size))));
+    }
+
+    /**
+     * 批量获取ID区间
+     * <p>
+     * 链路剩余容量不足时,直接向分配器申请一个完整区间(一次数据库往返),不再逐段遍历.
+     * </p>
+     *
+     * @param size 数量
+     * @return ID区间(区间总数量等于size)
+     */
     @Override
-    public Mono<Long> nextId() {
-        return chainNextHandler(refHeadChain.get())
-                .flatMap(nextId -> {
-                    if (nextId > 0) {
-                        return Mono.just(nextId);
+    public Flux<IdRange> nextRanges(final int size) {
+        if (size <= 0) {
+            return Flux.error(new IllegalArgumentException("size:[" + size + "] must be greater than 0."));
+        }
+        return getRemaining()
+                .flatMapMany(remaining -> {
+                    if (size > remaining) {
+                        return maxIdDistributor.nextMaxId(size)
+                                .map(maxId -> IdRange.of(maxId - size + 1, maxId))
+                                .flux();
+                    }
+                    return rangesHandler(size);
+                });
+    }
+
+    private Flux<IdRange> rangesHandler(final long rest) {
+        if (rest <= 0) {
+            return Flux.empty();
+        }
+        return nextRange(rest)
+                .flatMapMany(range -> Flux.just(range).concatWith(rangesHandler(rest - range.size())));
+    }
+
+    private Mono<Long> getRemaining() {
+        return Mono.justOrEmpty(refHeadChain.get())
+                .expand(chain -> Mono.justOrEmpty(chain.getNext()))
+                .filterWhen(R2dbcIdSegmentChain::isAvailable)
+                .flatMap(chain -> chain.getMaxId().map(maxId -> Math.max(0, maxId - chain.getSequence())))
+                .reduce(0L, Long::sum);
+    }
+
+    private Mono<Boolean> generateHead() {
+        final R2dbcIdSegmentChain preChain = refHeadChain.get();
+        return preChain.trySetNext(pc -> generateNext(pc, getSafeDistance()))
+                .map(ret -> {
+                    if (ret) {
+                        final R2dbcIdSegmentChain nextChain = preChain.getNext();
+                        forward(nextChain);
+                        log.info("generate - [{}] - headChain.version:[{}->{}].",
+                                maxIdDistributor.getNamespace(), preChain.getVersion(), nextChain.getVersion());
                     }
-                    final R2dbcIdSegmentChain preChain = refHeadChain.get();
-                    return preChain.trySetNext(pc -> generateNext(pc, getSafeDistance()))
-                            .flatMap(ret -> {
-                                if (ret) {
-                                    final R2dbcIdSegmentChain nextChain = preChain.getNext();
-                                    forward(nextChain);
-                                    log.info("generate - [{}] - headChain.version:[{}->{}].",
-                                            maxIdDistributor.getNamespace(), preChain.getVersion(), nextChain.getVersion());
-                                }
-                                prefetchJob.hungry();
-                                return nextId();
-                            });
+                    prefetchJob.hungry();
+                    return ret;
                 });
     }
 
     private static class PrefetchJob implements AffinityJob {
-        private final ThreadLocal<PrefetchWorker> refPrefetchWorker = ThreadLocal.withInitial(() -> null);
         private static final int MAX_PREFETCH_DISTANCE = 100_000_000;
         private static final long HUNGER_THRESHOLD = 1;
+        private volatile PrefetchWorker prefetchWorker;
         private volatile long lastHungerTime;
         private final R2dbcSegmentChainId segmentChainId;
         private int prefetchDistance;
@@ -128,15 +229,15 @@ public class R2dbcSegmentChainId implements SegmentIdGenerator {
 
         @Override
         public PrefetchWorker getPrefetchWorker() {
-            return refPrefetchWorker.get();
+            return prefetchWorker;
         }
 
         @Override
         public void setPrefetchWorker(@Nonnull final PrefetchWorker worker) {
-            if (this.refPrefetchWorker.get() != null) {
+            if (this.prefetchWorker != null) {
                 return;
             }
-            this.refPrefetchWorker.set(worker);
+            this.prefetchWorker = worker;
         }
 
         @Override
@@ -7,6 +7,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.r2dbc.core.DatabaseClient;
 import reactor.core.publisher.Mono;
 import top.zenyoung.segment.concurrent.PrefetchWorkerExecutorService;
+import top.zenyoung.segment.config.SegmentProperties;
 import top.zenyoung.segment.distributor.R2dbcIdSegmentDistributor;
 import top.zenyoung.segment.distributor.R2dbcSegmentDistributor;
 import top.zenyoung.segment.exception.NotFoundMaxIdException;
@@ -33,6 +34,11 @@ public class R2dbcSegmentIdFactory implements SegmentIdFactory {
 
     private final DatabaseClient dataSource;
     private final PrefetchWorkerExecutorService prefetchWorkerExecutorService;
+    private final SegmentProperties properties;
+
+    public R2dbcSegmentIdFactory(@Nonnull final DatabaseClient dataSource, @Nonnull final PrefetchWorkerExecutorService prefetchWorkerExecutorService) {
+        this(dataSource, prefetchWorkerExecutorService, new SegmentProperties());
+    }
 
     @Override
     public Mono<SegmentIdGenerator> getIdGenerator(@Nonnull final String bizType) {
@@ -45,9 +51,12 @@ public class R2dbcSegmentIdFactory implements SegmentIdFactory {
         }
         return getSegmentIdDefinition(bizType)
                 .map(definition -> {
-                    final R2dbcSegmentDistributor distributor = new R2dbcIdSegmentDistributor(bizType, definition.getStep(), dataSource);
-                    final SegmentIdGenerator data = new R2dbcSegmentChainId(TIME_TO_LIVE_FOREVER,
+                    final R2dbcSegmentDistributor distributor = new R2dbcIdSegmentDistributor(bizType, definition.getStep(), dataSource, properties.getDialect());
+                    final R2dbcSegmentChainId chainId = new R2dbcSegmentChainId(TIME_TO_LIVE_FOREVER,
                             definition.getSafeDistance(), distributor, prefetchWorkerExecutorService);
+                    final SegmentProperties.Striped striped = properties.getStriped().get(bizType);
+                    final SegmentIdGenerator data = Objects.isNull(striped) ? chainId :
+                            new R2dbcStripedSegmentChainId(chainId, striped.getStripes(), striped.getLeaseSize());
                     GENERATORS.put(bizType, data);
                     return data;
                 });
@@ -0,0 +1,98 @@
+package top.zenyoung.segment;
+
+import com.google.common.base.Preconditions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import static top.zenyoung.segment.IdSegment.SEQUENCE_OVERFLOW;
+
+/**
+ * 条带化分段ID实现
+ * <p>
+ * 每个条带从分段链路租借一段连续ID,在本地计数分配,租借用尽后再回到共享链路;
+ * 以牺牲全局单调递增换取多核下的近线性扩展.
+ * </p>
+ *
+ * @author young
+ */
+public class R2dbcStripedSegmentChainId implements SegmentIdGenerator {
+    private final R2dbcSegmentChainId segmentChainId;
+    private final long leaseSize;
+    private final Stripe[] stripes;
+    private final int mask;
+
+    public R2dbcStripedSegmentChainId(@Nonnull final R2dbcSegmentChainId segmentChainId, final int stripes, final int leaseSize) {
+        Preconditions.checkNotNull(segmentChainId, "segmentChainId can not be null.");
+        Preconditions.checkArgument(stripes > 0, "stripes:[%s] must be greater than 0.", stripes);
+        Preconditions.checkArgument(leaseSize > 0, "leaseSize:[%s] must be greater than 0.", leaseSize);
+        this.segmentChainId = segmentChainId;
+        this.leaseSize = leaseSize;
+        this.stripes = new Stripe[stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.mask = this.stripes.length - 1;
+    }
+
+    private Stripe currentStripe() {
+        final long tid = Thread.currentThread().getId();
+        return stripes[(int) (tid ^ (tid >>> 16)) & mask];
+    }
+
+    @Override
+    public Mono<Long> nextId() {
+        final Stripe stripe = currentStripe();
+        final long nextSeq = stripe.lease.next();
+        if (nextSeq != SEQUENCE_OVERFLOW) {
+            return Mono.just(nextSeq);
+        }
+        return Mono.defer(() -> {
+            //同一条带仅允许一个订阅续租,其余订阅直接走共享链路
+            if (!stripe.refilling.compareAndSet(false, true)) {
+                return segmentChainId.nextId();
+            }
+            return segmentChainId.nextRange(leaseSize)
+                    .map(range -> {
+                        final Lease lease = new Lease(range);
+                        final long first = lease.next();
+                        stripe.lease = lease;
+                        return first;
+                    })
+                    .doFinally(signal -> stripe.refilling.set(false));
+        });
+    }
+
+    @Override
+    public Flux<IdRange> nextRanges(final int size) {
+        return segmentChainId.nextRanges(size);
+    }
+
+    private static class Stripe {
+        private final AtomicBoolean refilling = new AtomicBoolean(false);
+        private volatile Lease lease = Lease.EMPTY;
+    }
+
+    private static class Lease {
+        private static final Lease EMPTY = new Lease(IdRange.of(0, -1));
+        private static final AtomicLongFieldUpdater<Lease> C = AtomicLongFieldUpdater.newUpdater(Lease.class, "cursor");
+        private final long end;
+        private volatile long cursor;
+
+        private Lease(@Nonnull final IdRange range) {
+            this.cursor = range.getStart();
+            this.end = range.getEnd();
+        }
+
+        private long next() {
+            if (cursor > end) {
+                return SEQUENCE_OVERFLOW;
+            }
+            final long nextSeq = C.getAndIncrement(this);
+            return nextSeq > end ? SEQUENCE_OVERFLOW : nextSeq;
+        }
+    }
+}
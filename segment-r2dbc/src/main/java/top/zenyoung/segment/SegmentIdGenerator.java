@@ -1,5 +1,6 @@
 package top.zenyoung.segment;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -14,4 +15,40 @@ public interface SegmentIdGenerator {
      * @return 序号数据
      */
     Mono<Long> nextId();
+
+    /**
+     * ID流
+     *
+     * @return ID流
+     */
+    default Flux<Long> ids() {
+        return Mono.defer(this::nextId).repeat();
+    }
+
+    /**
+     * 批量获取ID区间
+     *
+     * @param size 数量
+     * @return ID区间(区间总数量等于size)
+     */
+    default Flux<IdRange> nextRanges(final int size) {
+        if (size <= 0) {
+            return Flux.error(new IllegalArgumentException("size:[" + size + "] must be greater than 0."));
+        }
+        return Flux.range(0, size)
+                .concatMap(idx -> nextId())
+                .map(id -> IdRange.of(id, id));
+    }
+
+    /**
+     * 批量生成序号数据
+     *
+     * @param size 数量
+     * @return 序号数据
+     */
+    default Mono<long[]> nextIds(final int size) {
+        return nextRanges(size)
+                .collectList()
+                .map(IdRange::toArray);
+    }
 }
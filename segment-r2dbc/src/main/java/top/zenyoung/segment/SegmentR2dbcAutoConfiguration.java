@@ -27,7 +27,7 @@ public class SegmentR2dbcAutoConfiguration {
         final SegmentProperties.PrefetchWorker prefetchWorker = prop.getChain().getPrefetchWorker();
         Preconditions.checkNotNull(prefetchWorker, "segment.chain.prefetch-worker can not be null!");
         return new PrefetchWorkerExecutorService(prefetchWorker.getPrefetchPeriod(),
-                prefetchWorker.getCorePoolSize(), prefetchWorker.isShutdownHook());
+                prefetchWorker.getCorePoolSize(), prefetchWorker.isShutdownHook(), prefetchWorker.isBatchRefill());
     }
 
     @Bean
@@ -38,7 +38,8 @@ public class SegmentR2dbcAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public SegmentIdFactory segmentIdFactory(@Nonnull final DatabaseClient dataSource, @Nonnull final PrefetchWorkerExecutorService pwes) {
-        return new R2dbcSegmentIdFactory(dataSource, pwes);
+    public SegmentIdFactory segmentIdFactory(@Nonnull final DatabaseClient dataSource, @Nonnull final PrefetchWorkerExecutorService pwes,
+                                             @Nonnull final SegmentProperties prop) {
+        return new R2dbcSegmentIdFactory(dataSource, pwes, prop);
     }
 }